@@ -0,0 +1,74 @@
+import java.util.Objects;
+
+/**
+ * Single operation to be measured by the BenchmarkRunner.
+ *
+ * Only run is measured. All other methods prepare or clean up state
+ * and are excluded from measured time and allocation.
+ */
+public abstract class Benchmark {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Name identifying the benchmark in results. */
+    private final String name;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a benchmark.
+     *
+     * @param name name identifying the benchmark in results.
+     * @throws NullPointerException if the given name is null.
+     */
+    protected Benchmark(String name) {
+        this.name = Objects.requireNonNull(name, "Given name must not be null.");
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get name identifying the benchmark in results.
+     *
+     * @return benchmark name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Prepare state for measuring with the given library size.
+     *
+     * @param librarySize number of book entries to be used.
+     * @throws Exception if preparation fails.
+     */
+    public void setup(int librarySize) throws Exception {
+        // nothing to do by default
+    }
+
+    /**
+     * Prepare a single invocation of run, e.g. to undo changes of the previous one.
+     *
+     * @throws Exception if preparation fails.
+     */
+    public void prepareInvocation() throws Exception {
+        // nothing to do by default
+    }
+
+    /**
+     * Perform the measured operation once.
+     *
+     * @return result of the operation, consumed by the runner so it cannot be optimised away.
+     * @throws Exception if the operation fails.
+     */
+    public abstract Object run() throws Exception;
+
+    /**
+     * Release state created by setup.
+     *
+     * @throws Exception if cleaning up fails.
+     */
+    public void tearDown() throws Exception {
+        // nothing to do by default
+    }
+}
@@ -0,0 +1,152 @@
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * Measures benchmarks by running them repeatedly on the current thread.
+ *
+ * Each benchmark is warmed up first, so the JIT compiler has optimised the
+ * measured code paths. Afterwards, time and heap allocation of every single
+ * invocation are measured. Allocation is taken from the per-thread allocation
+ * counter of the JVM, so work done on other threads is not included.
+ */
+public class BenchmarkRunner {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of iterations run before measuring. */
+    private static final int WARMUP_ITERATIONS = 3;
+    /** Number of measured iterations. */
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    /** Measured time after which an iteration is finished. */
+    private static final long MIN_ITERATION_NANOS = 1_000_000_000L;
+    /** Total time including preparation after which an iteration is finished. */
+    private static final long MAX_ITERATION_NANOS = 10_000_000_000L;
+
+    /** Nanoseconds per microsecond. */
+    private static final double NANOS_PER_MICRO = 1e3;
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /** Format of result table rows. */
+    private static final String ROW_FORMAT = "%-40s %10s %8s %14s %14s %16s%n";
+
+    /** Per-thread allocation counter of the JVM. */
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    /** Last result of a benchmark, written so that results cannot be optimised away. */
+    private static volatile Object consumed;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a runner.
+     *
+     * @throws UnsupportedOperationException if the JVM cannot measure allocation per thread.
+     */
+    public BenchmarkRunner() {
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("JVM does not support measuring allocated memory per thread.");
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Run a single iteration of the given benchmark.
+     *
+     * @param benchmark benchmark to be run.
+     * @return measured time in nanoseconds, allocated bytes and number of invocations.
+     * @throws Exception if the benchmark fails.
+     */
+    private long[] runIteration(Benchmark benchmark) throws Exception {
+        System.gc();        // keep garbage of earlier iterations from being collected during this one
+
+        long measuredNanos = 0;
+        long allocatedBytes = 0;
+        long invocations = 0;
+        long iterationStart = System.nanoTime();
+
+        while (invocations == 0 || (measuredNanos < MIN_ITERATION_NANOS
+                && System.nanoTime() - iterationStart < MAX_ITERATION_NANOS)) {
+            benchmark.prepareInvocation();
+
+            long allocationStart = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            consumed = benchmark.run();
+            long end = System.nanoTime();
+            long allocationEnd = threadBean.getCurrentThreadAllocatedBytes();
+
+            measuredNanos += end - start;
+            allocatedBytes += allocationEnd - allocationStart;
+            invocations++;
+        }
+        consumed = null;
+
+        return new long[] { measuredNanos, allocatedBytes, invocations };
+    }
+
+    /**
+     * Format a duration with a suitable unit.
+     *
+     * @param nanos duration in nanoseconds.
+     * @return formatted duration.
+     */
+    private static String formatNanos(double nanos) {
+        if (nanos >= NANOS_PER_MILLI) {
+            return String.format("%.3f ms", nanos / NANOS_PER_MILLI);
+        } else if (nanos >= NANOS_PER_MICRO) {
+            return String.format("%.3f us", nanos / NANOS_PER_MICRO);
+        }
+        return String.format("%.1f ns", nanos);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /** Print the header of the result table. */
+    public void printHeader() {
+        System.out.printf(ROW_FORMAT, "Benchmark", "Size", "Ops", "Avg time/op", "Best time/op", "Alloc bytes/op");
+    }
+
+    /**
+     * Measure the given benchmark for the given library size and print the result.
+     *
+     * The average is taken over all measured invocations, the best time is the
+     * lowest average of a single measured iteration.
+     *
+     * @param benchmark benchmark to be measured.
+     * @param librarySize number of book entries to be used.
+     * @throws Exception if the benchmark fails.
+     * @throws NullPointerException if the given benchmark is null.
+     */
+    public void measure(Benchmark benchmark, int librarySize) throws Exception {
+        Objects.requireNonNull(benchmark, "Given benchmark must not be null.");
+
+        benchmark.setup(librarySize);
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                runIteration(benchmark);
+            }
+
+            long totalNanos = 0;
+            long totalBytes = 0;
+            long totalInvocations = 0;
+            double bestNanosPerOp = Double.MAX_VALUE;
+            for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+                long[] iteration = runIteration(benchmark);
+
+                totalNanos += iteration[0];
+                totalBytes += iteration[1];
+                totalInvocations += iteration[2];
+                bestNanosPerOp = Math.min(bestNanosPerOp, (double) iteration[0] / iteration[2]);
+            }
+
+            System.out.printf(ROW_FORMAT, benchmark.getName(), librarySize, totalInvocations,
+                    formatNanos((double) totalNanos / totalInvocations), formatNanos(bestNanosPerOp),
+                    totalBytes / totalInvocations);
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+}
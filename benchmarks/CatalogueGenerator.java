@@ -0,0 +1,412 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic book data files.
+ *
+ * Generated lines follow the DataOrder layout of the book data files read by
+ * LibraryFileLoader: title, authors separated by dashes, rating, ISBN and
+ * number of pages. Lines are written one by one, so files of any size can be
+ * generated with constant memory.
+ *
+ * Every line is derived from the seed and its line number only. The same
+ * seed and configuration therefore always produce the same file, and
+ * duplicate lines are created by generating an earlier line again.
+ *
+ * Invalid lines hold book data which LibraryFileLoader rejects and reports,
+ * i.e. a rating or page number out of range.
+ *
+ * Usage: java CatalogueGenerator output.csv [--rows n] [--authors n] [--duplicates rate]
+ * [--invalid rate] [--min-title-words n] [--max-title-words n] [--seed n]
+ */
+public class CatalogueGenerator {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Header line of generated book data files. */
+    private static final String HEADER = "title,authors,rating,isbn,pages";
+    /** Character used to separate data values in file. */
+    private static final char DATA_SEPARATOR = ',';
+    /** Character used to separate author names. */
+    private static final char AUTHOR_SEPARATOR = '-';
+
+    /** Size of the buffer used for writing generated files. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** Words titles are made of. */
+    private static final String[] TITLE_WORDS = {
+        "The", "A", "Of", "And", "In", "To", "Night", "Day", "Dragon", "Shadow", "Fire", "Ice", "King",
+        "Queen", "House", "Garden", "River", "Mountain", "Sea", "Star", "Moon", "Sun", "Secret", "Last",
+        "First", "Lost", "Hidden", "Broken", "Silent", "Dark", "Light", "Winter", "Summer", "Storm",
+        "Journey", "Return", "Song", "Tale", "Story", "History", "Guide", "Art", "Science", "Life",
+        "Death", "Love", "War", "Peace", "Empire", "City", "Island", "Forest", "Road", "Door", "Key",
+        "Glass", "Stone", "Iron", "Gold", "Silver", "Blood", "Heart", "Mind", "Dream", "Memory", "Time",
+        "World", "Kingdom", "Children", "Daughter", "Son", "Mother", "Father", "Stranger", "Friend",
+        "Enemy", "Hunter", "Thief", "Witch", "Wizard", "Ghost", "Angel", "Devil", "Saint", "Soldier",
+        "Doctor", "Detective", "Murder", "Mystery", "Letters", "Diary", "Chronicles", "Legacy", "Rise",
+        "Fall", "Edge", "Beyond", "Under", "Between", "Without", "Always", "Never", "Once", "Again"
+    };
+    /** First names author names are made of. */
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+        "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+        "Charles", "Karen", "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Margaret", "Mark",
+        "Sandra", "Paul", "Ashley", "Steven", "Emily", "Andrew", "Donna", "Kenneth", "Michelle"
+    };
+    /** Last names author names are made of. */
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+        "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor",
+        "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+        "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott"
+    };
+
+    /** Exponent skewing author choice towards low ids, so some authors have many books. */
+    private static final double AUTHOR_SKEW = 3.0;
+    /** Probability of a book having a second author. */
+    private static final double SECOND_AUTHOR_RATE = 0.15;
+    /** Probability of a book having a third author. */
+    private static final double THIRD_AUTHOR_RATE = 0.05;
+    /** Probability of a title starting with a number. */
+    private static final double NUMBER_TITLE_RATE = 0.05;
+    /** Maximum rating in hundredths. */
+    private static final int MAX_RATING_HUNDREDTHS = 500;
+    /** Minimum number of pages of a valid book. */
+    private static final int MIN_PAGES = 20;
+    /** Range of page numbers of valid books. */
+    private static final int PAGES_RANGE = 1200;
+    /** Number of digits of generated ISBNs. */
+    private static final int ISBN_DIGITS = 10;
+
+    /** Kind of a line with valid book data. */
+    private static final int VALID = -1;
+    /** Kind of a line with a rating above the maximum rating. */
+    private static final int INVALID_RATING = 0;
+    /** Kind of a line with a negative number of pages. */
+    private static final int INVALID_PAGES = 1;
+    /** Number of different kinds of lines with invalid book data. */
+    private static final int INVALID_KINDS = 2;
+
+    /** Multiplier mixing line numbers into the seed (golden ratio in fixed point). */
+    private static final long LINE_SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** Seed all lines are derived from. */
+    private final long seed;
+    /** Number of distinct authors. */
+    private final int authorCount;
+    /** Probability of a line repeating an earlier line. */
+    private final double duplicateRate;
+    /** Probability of a line containing invalid book data. */
+    private final double invalidRate;
+    /** Minimum number of words per title. */
+    private final int minTitleWords;
+    /** Maximum number of words per title. */
+    private final int maxTitleWords;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a generator.
+     *
+     * @param seed seed all lines are derived from.
+     * @param authorCount number of distinct authors.
+     * @param duplicateRate probability of a line repeating an earlier line.
+     * @param invalidRate probability of a line containing invalid book data.
+     * @param minTitleWords minimum number of words per title.
+     * @param maxTitleWords maximum number of words per title, chosen uniformly in between.
+     * @throws IllegalArgumentException if any of the given parameters is out of range.
+     */
+    public CatalogueGenerator(long seed, int authorCount, double duplicateRate, double invalidRate,
+                              int minTitleWords, int maxTitleWords) {
+        checkParameters(authorCount, duplicateRate, invalidRate, minTitleWords, maxTitleWords);
+
+        this.seed = seed;
+        this.authorCount = authorCount;
+        this.duplicateRate = duplicateRate;
+        this.invalidRate = invalidRate;
+        this.minTitleWords = minTitleWords;
+        this.maxTitleWords = maxTitleWords;
+    }
+
+    // -------------- ERROR CHECKING ------------------------------------------
+
+    /**
+     * Check the validity of the generator configuration.
+     *
+     * @param authorCount number of distinct authors.
+     * @param duplicateRate probability of a line repeating an earlier line.
+     * @param invalidRate probability of a line containing invalid book data.
+     * @param minTitleWords minimum number of words per title.
+     * @param maxTitleWords maximum number of words per title.
+     * @throws IllegalArgumentException if any of the given parameters is out of range.
+     */
+    private static void checkParameters(int authorCount, double duplicateRate, double invalidRate,
+                                        int minTitleWords, int maxTitleWords) {
+        if (authorCount < 1) {
+            throw new IllegalArgumentException("Invalid author count: " + authorCount);
+        }
+        if (!(duplicateRate >= 0 && duplicateRate <= 1)) {
+            throw new IllegalArgumentException("Invalid duplicate rate: " + duplicateRate);
+        }
+        if (!(invalidRate >= 0 && invalidRate <= 1)) {
+            throw new IllegalArgumentException("Invalid invalid-row rate: " + invalidRate);
+        }
+        if (minTitleWords < 1 || maxTitleWords < minTitleWords) {
+            throw new IllegalArgumentException("Invalid title word range: " + minTitleWords + " to " + maxTitleWords);
+        }
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Create the random number generator for the given line.
+     *
+     * @param line line number.
+     * @return generator depending on the seed and the line number only.
+     */
+    private SplittableRandom lineRandom(long line) {
+        return new SplittableRandom(seed ^ (line * LINE_SEED_MULTIPLIER));
+    }
+
+    /**
+     * Append a non-negative number padded with leading zeros.
+     *
+     * @param out builder to append to.
+     * @param value number to be appended.
+     * @param digits minimum number of digits.
+     */
+    private static void appendPadded(StringBuilder out, long value, int digits) {
+        String number = Long.toString(value);
+        for (int i = number.length(); i < digits; i++) {
+            out.append('0');
+        }
+        out.append(number);
+    }
+
+    /**
+     * Append a randomly chosen title.
+     *
+     * @param out builder to append to.
+     * @param random generator of the current line.
+     */
+    private void appendTitle(StringBuilder out, SplittableRandom random) {
+        int words = minTitleWords + random.nextInt(maxTitleWords - minTitleWords + 1);
+
+        if (random.nextDouble() < NUMBER_TITLE_RATE) {
+            out.append(1 + random.nextInt(100));
+        } else {
+            out.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+        for (int i = 1; i < words; i++) {
+            out.append(' ').append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+    }
+
+    /**
+     * Append one to three randomly chosen author names.
+     *
+     * @param out builder to append to.
+     * @param random generator of the current line.
+     */
+    private void appendAuthors(StringBuilder out, SplittableRandom random) {
+        double authorsChoice = random.nextDouble();
+        int authors = (authorsChoice < THIRD_AUTHOR_RATE) ? 3 : (authorsChoice < SECOND_AUTHOR_RATE) ? 2 : 1;
+
+        for (int i = 0; i < authors; i++) {
+            if (i > 0) {
+                out.append(AUTHOR_SEPARATOR);
+            }
+            int id = (int) (authorCount * Math.pow(random.nextDouble(), AUTHOR_SKEW));
+            out.append(authorName(id));
+        }
+    }
+
+    /**
+     * Append the line with the given line number, without line break.
+     *
+     * @param out builder to append to.
+     * @param line line number, starting at zero after the header.
+     */
+    private void appendLine(StringBuilder out, long line) {
+        SplittableRandom random = lineRandom(line);
+
+        if (line > 0 && random.nextDouble() < duplicateRate) {
+            appendLine(out, random.nextLong(line));     // repeat an earlier line
+            return;
+        }
+
+        int invalidKind = (random.nextDouble() < invalidRate) ? random.nextInt(INVALID_KINDS) : VALID;
+
+        appendTitle(out, random);
+        out.append(DATA_SEPARATOR);
+        appendAuthors(out, random);
+        out.append(DATA_SEPARATOR);
+
+        int rating = random.nextInt(MAX_RATING_HUNDREDTHS + 1);
+        if (invalidKind == INVALID_RATING) {
+            rating += MAX_RATING_HUNDREDTHS + 1;
+        }
+        out.append(rating / 100).append('.');
+        appendPadded(out, rating % 100, 2);
+        out.append(DATA_SEPARATOR);
+
+        appendPadded(out, line, ISBN_DIGITS);
+        out.append(DATA_SEPARATOR);
+
+        int pages = MIN_PAGES + random.nextInt(PAGES_RANGE);
+        out.append((invalidKind == INVALID_PAGES) ? -pages : pages);
+    }
+
+    /**
+     * Parse a numeric command line option.
+     *
+     * @param name option name.
+     * @param value option value.
+     * @return parsed value.
+     * @throws IllegalArgumentException if the value is not a number.
+     */
+    private static double parseOption(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for option " + name + ": " + value);
+        }
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the name of the author with the given id.
+     *
+     * Low ids are chosen most often, so author 0 has the most books.
+     *
+     * @param id author id.
+     * @return author name, containing neither data nor author separators.
+     */
+    public static String authorName(int id) {
+        String name = FIRST_NAMES[id % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(id / FIRST_NAMES.length) % LAST_NAMES.length];
+        int generation = id / (FIRST_NAMES.length * LAST_NAMES.length);
+
+        return (generation == 0) ? name : name + " " + generation;
+    }
+
+    /**
+     * Write a header line followed by the given number of generated lines.
+     *
+     * @param out writer to write to, not closed by this method.
+     * @param rows number of lines after the header.
+     * @throws IOException if writing fails.
+     * @throws IllegalArgumentException if the given number of lines is negative.
+     * @throws NullPointerException if the given writer is null.
+     */
+    public void write(Writer out, long rows) throws IOException {
+        Objects.requireNonNull(out, "Given writer must not be null.");
+        if (rows < 0) {
+            throw new IllegalArgumentException("Invalid number of rows: " + rows);
+        }
+
+        StringBuilder line = new StringBuilder();
+        out.write(HEADER);
+        out.write('\n');
+        for (long i = 0; i < rows; i++) {
+            line.setLength(0);
+            appendLine(line, i);
+            line.append('\n');
+            out.append(line);
+        }
+    }
+
+    /**
+     * Write a book data file with the given number of generated lines.
+     * An existing file is overwritten.
+     *
+     * @param file path of the file.
+     * @param rows number of lines after the header.
+     * @throws IOException if writing fails.
+     * @throws IllegalArgumentException if the given number of lines is negative.
+     * @throws NullPointerException if the given path is null.
+     */
+    public void write(Path file, long rows) throws IOException {
+        Objects.requireNonNull(file, "Given file must not be null.");
+
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            write(out, rows);
+        }
+    }
+
+    /**
+     * Generate a book data file as specified by the given arguments.
+     *
+     * @param args output file followed by options.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println("Usage: java CatalogueGenerator output.csv [--rows n] [--authors n]"
+                    + " [--duplicates rate] [--invalid rate] [--min-title-words n] [--max-title-words n] [--seed n]");
+            return;
+        }
+
+        long rows = 1_000_000;
+        long seed = 42;
+        int authors = -1;
+        double duplicateRate = 0.0;
+        double invalidRate = 0.0;
+        int minTitleWords = 1;
+        int maxTitleWords = 6;
+
+        try {
+            for (int i = 1; i < args.length; i += 2) {
+                String name = args[i];
+                double value = parseOption(name, args[i + 1]);
+
+                switch (name) {
+                    case "--rows":
+                        rows = (long) value;
+                        break;
+                    case "--authors":
+                        authors = (int) value;
+                        break;
+                    case "--duplicates":
+                        duplicateRate = value;
+                        break;
+                    case "--invalid":
+                        invalidRate = value;
+                        break;
+                    case "--min-title-words":
+                        minTitleWords = (int) value;
+                        break;
+                    case "--max-title-words":
+                        maxTitleWords = (int) value;
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[i + 1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + name);
+                }
+            }
+            if (authors < 0) {
+                authors = (int) Math.max(1, Math.min(Integer.MAX_VALUE, rows / 20));
+            }
+
+            Path file = Paths.get(args[0]);
+            new CatalogueGenerator(seed, authors, duplicateRate, invalidRate, minTitleWords, maxTitleWords)
+                    .write(file, rows);
+            System.out.println(rows + " lines written to: " + file);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("ERROR: Writing book data failed: " + e);
+        }
+    }
+}
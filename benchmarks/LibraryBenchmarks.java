@@ -0,0 +1,389 @@
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Benchmark suite for loading book data and executing library commands.
+ *
+ * Usage: java LibraryBenchmarks [--columnar] [size ...] [name filter ...]
+ *
+ * Sizes are numbers of book entries, 10K, 100K and 1M by default. Larger
+ * sizes such as 10M need a correspondingly large heap (-Xmx). Only benchmarks
+ * whose names contain one of the given filters are run, all by default.
+ * With --columnar, libraries use the columnar storage layout.
+ *
+ * Command output is discarded, but still produced, while measuring.
+ */
+public class LibraryBenchmarks {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Library sizes measured if none are given. */
+    private static final int[] DEFAULT_SIZES = { 10_000, 100_000, 1_000_000 };
+
+    /** Program argument selecting the columnar storage layout. */
+    private static final String COLUMNAR_ARGUMENT = "--columnar";
+
+    /** Seed of the generated book data. */
+    private static final long SEED = 42;
+    /** Average number of books per generated author. */
+    private static final int BOOKS_PER_AUTHOR = 20;
+    /** Minimum number of words per generated title. */
+    private static final int MIN_TITLE_WORDS = 1;
+    /** Maximum number of words per generated title. */
+    private static final int MAX_TITLE_WORDS = 6;
+
+    /** Sink discarding all command output while measuring. */
+    private static final OutputSink DISCARDED_OUTPUT =
+            OutputSink.buffered(OutputStream.nullOutputStream(), OutputStream.nullOutputStream());
+
+    /** Library size for which book data has been generated. */
+    private static int generatedSize = -1;
+    /** Generated book entries. */
+    private static List<BookEntry> generatedBooks;
+    /** Generated book data file containing the generated book entries. */
+    private static Path generatedFile;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Not to be used. */
+    private LibraryBenchmarks() {
+        throw new UnsupportedOperationException("This constructor should never be used.");
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Generate book entries and a corresponding book data file of the given size.
+     * Data for the previously requested size is reused.
+     *
+     * @param size number of book entries.
+     * @throws Exception if writing the book data file fails.
+     */
+    private static void generateData(int size) throws Exception {
+        if (size == generatedSize) {
+            return;
+        }
+        if (generatedFile != null) {
+            Files.deleteIfExists(generatedFile);
+        }
+
+        generatedFile = Files.createTempFile("library-benchmark-", ".csv");
+        generatedFile.toFile().deleteOnExit();
+        new CatalogueGenerator(SEED, Math.max(1, size / BOOKS_PER_AUTHOR), 0.0, 0.0, MIN_TITLE_WORDS, MAX_TITLE_WORDS)
+                .write(generatedFile, size);
+
+        LibraryFileLoader loader = new LibraryFileLoader();
+        if (!loader.loadFileContent(generatedFile)) {
+            throw new IllegalStateException("Generated book data could not be read: " + generatedFile);
+        }
+        generatedBooks = loader.parseFileContent();
+        generatedSize = size;
+    }
+
+    /**
+     * Create a library containing the generated book entries.
+     *
+     * @param layout memory layout of the library.
+     * @return new library.
+     */
+    private static LibraryData createLibrary(StorageLayout layout) {
+        LibraryData library = new LibraryData(layout);
+        library.restoreData(generatedBooks);
+        return library;
+    }
+
+    /**
+     * Create all benchmarks for the generated book data.
+     *
+     * @param layout memory layout of libraries used by benchmarks.
+     * @return all benchmarks.
+     */
+    private static List<Benchmark> createBenchmarks(StorageLayout layout) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new LoadFileContentBenchmark());
+        benchmarks.add(new ParseFileContentBenchmark());
+        benchmarks.add(new MergeEntriesBenchmark(layout));
+        benchmarks.add(new CommandBenchmark(layout, "SEARCH Dragon", false));
+        benchmarks.add(new CommandBenchmark(layout, "SEARCH ok", false));
+        benchmarks.add(new CommandBenchmark(layout, "LIST short", false));
+        benchmarks.add(new CommandBenchmark(layout, "LIST long", false));
+        benchmarks.add(new CommandBenchmark(layout, "GROUP TITLE", false));
+        benchmarks.add(new CommandBenchmark(layout, "GROUP AUTHOR", false));
+        benchmarks.add(new CommandBenchmark(layout, "REMOVE AUTHOR " + CatalogueGenerator.authorName(0), true));
+        benchmarks.add(new CommandBenchmark(layout,
+                "REMOVE TITLE " + generatedBooks.get(generatedBooks.size() / 2).getTitle(), true));
+        return benchmarks;
+    }
+
+    /**
+     * Check whether the given program argument is a library size.
+     *
+     * @param arg program argument.
+     * @return true if the argument consists of digits only, false otherwise.
+     */
+    private static boolean isLibrarySize(String arg) {
+        if (arg.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < arg.length(); i++) {
+            if (!Character.isDigit(arg.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the given benchmark is selected by the given filters.
+     *
+     * @param benchmark benchmark to be checked.
+     * @param filters name filters, all benchmarks are selected if empty.
+     * @return true if the benchmark is to be run, false otherwise.
+     */
+    private static boolean isSelected(Benchmark benchmark, List<String> filters) {
+        if (filters.isEmpty()) {
+            return true;
+        }
+        for (String filter : filters) {
+            if (benchmark.getName().contains(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Run the benchmark suite.
+     *
+     * @param args optional storage layout, library sizes and benchmark name filters.
+     * @throws Exception if a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        StorageLayout layout = StorageLayout.OBJECTS;
+        List<Integer> sizes = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.equals(COLUMNAR_ARGUMENT)) {
+                layout = StorageLayout.COLUMNAR;
+            } else if (isLibrarySize(arg)) {
+                sizes.add(Integer.parseInt(arg));
+            } else {
+                filters.add(arg);
+            }
+        }
+        if (sizes.isEmpty()) {
+            for (int size : DEFAULT_SIZES) {
+                sizes.add(size);
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        System.out.println("Storage layout: " + layout);
+        runner.printHeader();
+
+        for (int size : sizes) {
+            generateData(size);
+
+            for (Benchmark benchmark : createBenchmarks(layout)) {
+                if (isSelected(benchmark, filters)) {
+                    runner.measure(benchmark, size);
+                }
+            }
+        }
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Reading a book data file into memory line by line. */
+    private static final class LoadFileContentBenchmark extends Benchmark {
+
+        /** Create the benchmark. */
+        private LoadFileContentBenchmark() {
+            super("loader.loadFileContent");
+        }
+
+        /**
+         * Perform the measured operation once.
+         *
+         * @return result of the operation.
+         */
+        @Override
+        public Object run() {
+            LibraryFileLoader loader = new LibraryFileLoader();
+            loader.loadFileContent(generatedFile);
+            return loader;
+        }
+    }
+
+    /** Parsing book data read into memory before. */
+    private static final class ParseFileContentBenchmark extends Benchmark {
+
+        /** Loader holding the content of the book data file. */
+        private LibraryFileLoader loader;
+
+        /** Create the benchmark. */
+        private ParseFileContentBenchmark() {
+            super("loader.parseFileContent");
+        }
+
+        /**
+         * Prepare state for the given library size.
+         *
+         * @param librarySize number of book entries.
+         */
+        @Override
+        public void setup(int librarySize) {
+            loader = new LibraryFileLoader();
+            loader.loadFileContent(generatedFile);
+        }
+
+        /**
+         * Perform the measured operation once.
+         *
+         * @return result of the operation.
+         */
+        @Override
+        public Object run() {
+            return loader.parseFileContent();
+        }
+
+        /** Release state created by setup. */
+        @Override
+        public void tearDown() {
+            loader = null;
+        }
+    }
+
+    /** Merging parsed book entries into an empty library, including duplicate detection and indexing. */
+    private static final class MergeEntriesBenchmark extends Benchmark {
+
+        /** Memory layout of the library. */
+        private final StorageLayout layout;
+        /** LibraryData.mergeEntries, which is not accessible otherwise. */
+        private Method mergeEntries;
+        /** Library the book entries are merged into. */
+        private LibraryData library;
+
+        /**
+         * Create the benchmark.
+         *
+         * @param layout memory layout of the library.
+         */
+        private MergeEntriesBenchmark(StorageLayout layout) {
+            super("data.mergeEntries");
+            this.layout = layout;
+        }
+
+        /**
+         * Prepare state for the given library size.
+         *
+         * @param librarySize number of book entries.
+         * @throws Exception if LibraryData.mergeEntries cannot be made accessible.
+         */
+        @Override
+        public void setup(int librarySize) throws Exception {
+            mergeEntries = LibraryData.class.getDeclaredMethod("mergeEntries", List.class, OutputSink.class);
+            mergeEntries.setAccessible(true);
+        }
+
+        /** Prepare a single invocation. */
+        @Override
+        public void prepareInvocation() {
+            library = new LibraryData(layout);
+        }
+
+        /**
+         * Perform the measured operation once.
+         *
+         * @return result of the operation.
+         * @throws Exception if merging fails.
+         */
+        @Override
+        public Object run() throws Exception {
+            return mergeEntries.invoke(library, generatedBooks, DISCARDED_OUTPUT);
+        }
+
+        /** Release state created by setup. */
+        @Override
+        public void tearDown() {
+            library = null;
+        }
+    }
+
+    /** Executing a single command on a library holding all generated book entries. */
+    private static final class CommandBenchmark extends Benchmark {
+
+        /** Memory layout of the library. */
+        private final StorageLayout layout;
+        /** Command input line. */
+        private final String commandInput;
+        /** True if the command changes the library, which then has to be restored for each invocation. */
+        private final boolean changesLibrary;
+        /** Command to be executed. */
+        private LibraryCommand command;
+        /** Library the command is executed on. */
+        private LibraryData library;
+
+        /**
+         * Create the benchmark.
+         *
+         * @param layout memory layout of the library.
+         * @param commandInput command input line.
+         * @param changesLibrary true if the command changes the library.
+         */
+        private CommandBenchmark(StorageLayout layout, String commandInput, boolean changesLibrary) {
+            super("cmd." + commandInput);
+            this.layout = layout;
+            this.commandInput = commandInput;
+            this.changesLibrary = changesLibrary;
+        }
+
+        /**
+         * Prepare state for the given library size.
+         *
+         * @param librarySize number of book entries.
+         */
+        @Override
+        public void setup(int librarySize) {
+            command = Objects.requireNonNull(new CommandInterpreter().parseCommand(commandInput),
+                    "Invalid benchmark command: " + commandInput);
+            library = createLibrary(layout);
+        }
+
+        /** Prepare a single invocation. */
+        @Override
+        public void prepareInvocation() {
+            if (changesLibrary && library.getBookCount() != generatedBooks.size()) {
+                library.restoreData(generatedBooks);
+            }
+        }
+
+        /**
+         * Perform the measured operation once.
+         *
+         * @return result of the operation.
+         */
+        @Override
+        public Object run() {
+            command.execute(library, DISCARDED_OUTPUT);
+            DISCARDED_OUTPUT.flush();
+            return library;
+        }
+
+        /** Release state created by setup. */
+        @Override
+        public void tearDown() {
+            command = null;
+            library = null;
+        }
+    }
+}
@@ -1,5 +1,11 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /** Add command used to add books to library database. */
@@ -9,16 +15,28 @@ public class AddCmd extends LibraryCommand {
 
     /** Sets valid file type for argument input. */
     private static final String VALID_FILE_SUFFIX = ".csv";
+    /** Sets valid file type for gzip compressed argument input. */
+    private static final String VALID_COMPRESSED_FILE_SUFFIX = ".csv.gz";
+    /** Glob pattern selecting all valid files of a directory. */
+    private static final String DIRECTORY_FILE_PATTERN = "*{" + VALID_FILE_SUFFIX + "," + VALID_COMPRESSED_FILE_SUFFIX + "}";
+    /** Characters marking a file name as a glob pattern. */
+    private static final String GLOB_CHARACTERS = "*?[{";
 
-    /** Saves parsed command argument as a string, enabling later use. */
+    /** Saves parsed command argument as a path, enabling later use. */
     private Path libraryFilePath;
+    /**
+     * Glob pattern selecting the files to be loaded from the directory
+     * libraryFilePath, null if libraryFilePath is a single file.
+     */
+    private String fileNamePattern;
 
     // -------------- CONSTRUCTOR(S) ------------------------------------------
 
     /**
      * Create an add command.
      *
-     * @param argumentInput argument input is expected to represent a valid path.
+     * @param argumentInput argument input is expected to represent a valid path
+     * to a csv-file, possibly gzip compressed, to a directory or a glob pattern for csv-files.
      * @throws IllegalArgumentException if given arguments are invalid.
      * @throws NullPointerException if the given argumentInput is null.
      */
@@ -26,36 +44,126 @@ public class AddCmd extends LibraryCommand {
         super(CommandType.ADD, argumentInput);
     }
 
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Check whether the given file name has a valid file type.
+     *
+     * @param fileName file name or glob pattern to be checked.
+     * @return true if it ends in {@value VALID_FILE_SUFFIX} or {@value VALID_COMPRESSED_FILE_SUFFIX},
+     * false otherwise.
+     */
+    private static boolean hasValidSuffix(String fileName) {
+        return fileName.endsWith(VALID_FILE_SUFFIX) || fileName.endsWith(VALID_COMPRESSED_FILE_SUFFIX);
+    }
+
+    /**
+     * Check whether the given text contains glob pattern characters.
+     *
+     * @param text text to be checked.
+     * @return true if any of {@value GLOB_CHARACTERS} is contained, false otherwise.
+     */
+    private static boolean isGlobPattern(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(text.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all regular files in the directory matching the file name pattern.
+     *
+     * @return matching files ordered by path.
+     * @throws IOException if the directory cannot be read.
+     */
+    private List<Path> findLibraryFiles() throws IOException {
+        List<Path> libraryFiles = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(libraryFilePath, fileNamePattern)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    libraryFiles.add(entry);
+                }
+            }
+        }
+        Collections.sort(libraryFiles);
+        return libraryFiles;
+    }
+
     // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
 
     /**
      * Check for validity of input, i.e. file type.
      * Parse if valid.
      *
+     * Input is expected to be either a path to a csv-file, a path to an
+     * existing directory, whose csv-files are all loaded, or a path whose
+     * file name is a glob pattern ending in {@value VALID_FILE_SUFFIX}, e.g.
+     * "exports/part-*.csv". Gzip compressed csv-files ending in
+     * {@value VALID_COMPRESSED_FILE_SUFFIX} are accepted in all cases.
+     *
      * @param argumentInput argument input for this command.
      * @return true if valid input, otherwise false.
      */
     @Override
     protected boolean parseArguments(String argumentInput) {
-        if (argumentInput.endsWith(VALID_FILE_SUFFIX)) {
-            libraryFilePath = Paths.get(argumentInput);
-            return true;
-        } else {
-            System.err.printf("ERROR: Invalid argument for ADD command: %s", argumentInput);
-            return false;
+        if (!argumentInput.isBlank()) {
+            int nameStart = Math.max(argumentInput.lastIndexOf('/'), argumentInput.lastIndexOf('\\')) + 1;
+            String directory = argumentInput.substring(0, nameStart);
+            String fileName = argumentInput.substring(nameStart);
+
+            if (isGlobPattern(fileName)) {
+                if (!isGlobPattern(directory) && hasValidSuffix(fileName)) {
+                    libraryFilePath = Paths.get(directory);
+                    fileNamePattern = fileName;
+                    return true;
+                }
+            } else if (hasValidSuffix(argumentInput)) {
+                libraryFilePath = Paths.get(argumentInput);
+                return true;
+            } else if (Files.isDirectory(Paths.get(argumentInput))) {
+                libraryFilePath = Paths.get(argumentInput);
+                fileNamePattern = DIRECTORY_FILE_PATTERN;
+                return true;
+            }
         }
+
+        System.err.printf("ERROR: Invalid argument for ADD command: %s", argumentInput);
+        return false;
     }
 
     /**
      * Execute the add command.
-     * Call method to load data from file.
+     * Call method to load data from file, or from all matching files
+     * at once if a directory or glob pattern has been given.
      *
      * @param data book data to be considered for command execution.
-     * @throws NullPointerException if given data is null.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
      */
     @Override
-    public void execute(LibraryData data) {
+    public void execute(LibraryData data, OutputSink output) {
         Objects.requireNonNull(data, "Provided library data for AddCmd execution must not be null.");
-        data.loadData(libraryFilePath);
+        Objects.requireNonNull(output, "Provided output sink for AddCmd execution must not be null.");
+        LoadCounts counts = new LoadCounts();
+
+        if (fileNamePattern == null) {
+            data.loadData(libraryFilePath, output, counts);
+        } else {
+            List<Path> libraryFiles;
+            try {
+                libraryFiles = findLibraryFiles();
+            } catch (IOException | SecurityException e) {
+                output.error("ERROR: Reading directory failed: " + libraryFilePath.toAbsolutePath());
+                return;
+            }
+            if (libraryFiles.isEmpty()) {
+                output.error("ERROR: No csv-files found for ADD command: " + getArgumentInput());
+                return;
+            }
+            data.loadData(libraryFiles, output, counts);
+        }
+        recordRows(counts.getLinesParsed(), counts.getBooksAdded());
     }
 }
@@ -0,0 +1,333 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dictionary of distinct author names, mapping each name to a single
+ * canonical String instance and a dense int id, starting at 0.
+ *
+ * Books sharing an author refer to the same canonical instance, so each
+ * author name is held in memory only once, and authors can be compared by
+ * id instead of by name. Names can be looked up directly from a range of
+ * characters, so parsing a known author does not create a new String.
+ *
+ * All methods are safe to be called from multiple threads. Lookups of known
+ * names do not lock; adding a new name locks the dictionary. Names are never
+ * removed, so ids stay valid for the lifetime of the dictionary.
+ */
+public class AuthorDictionary {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Id returned for names which are not in the dictionary. */
+    public static final int NO_ID = -1;
+
+    /** Number of hash table slots initially, a power of two. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Hash table of all entries with linear probing, at most half full.
+     * Replaced as a whole when growing.
+     */
+    private volatile AtomicReferenceArray<Author> table;
+    /** Canonical name of each id, valid up to size. Replaced as a whole when growing. */
+    private volatile String[] names;
+    /** Number of names in the dictionary. Only changed while locking the dictionary. */
+    private volatile int size;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty dictionary. */
+    public AuthorDictionary() {
+        table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        names = new String[INITIAL_CAPACITY / 2];
+        size = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Compute the hash code of a range of characters, equal to the one of a String holding them.
+     *
+     * @param text characters containing the name.
+     * @param from start of the name.
+     * @param to end of the name (exclusive).
+     * @return hash code as returned by String.hashCode.
+     */
+    private static int hash(char[] text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Get the first slot to be probed for the given hash code.
+     *
+     * @param hash hash code of a name.
+     * @param capacity number of slots, a power of two.
+     * @return slot index.
+     */
+    private static int slot(int hash, int capacity) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Check whether the given name consists of the given range of characters.
+     *
+     * @param name canonical name.
+     * @param text characters to be compared.
+     * @param from start of the range.
+     * @param to end of the range (exclusive).
+     * @return true if they are equal, false otherwise.
+     */
+    private static boolean matches(String name, char[] text, int from, int to) {
+        if (name.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (name.charAt(i - from) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the entry of the given name in the given table.
+     *
+     * @param table hash table to be searched.
+     * @param name name to be found.
+     * @param hash hash code of the name.
+     * @return entry of the name, null if it is not in the table.
+     */
+    private static Author find(AtomicReferenceArray<Author> table, String name, int hash) {
+        int capacity = table.length();
+        for (int i = slot(hash, capacity); ; i = (i + 1) & (capacity - 1)) {
+            Author entry = table.get(i);
+            if (entry == null || (entry.hash == hash && (entry.name == name || entry.name.equals(name)))) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Find the entry of the name given as a range of characters in the given table.
+     *
+     * @param table hash table to be searched.
+     * @param text characters containing the name.
+     * @param from start of the name.
+     * @param to end of the name (exclusive).
+     * @param hash hash code of the name.
+     * @return entry of the name, null if it is not in the table.
+     */
+    private static Author find(AtomicReferenceArray<Author> table, char[] text, int from, int to, int hash) {
+        int capacity = table.length();
+        for (int i = slot(hash, capacity); ; i = (i + 1) & (capacity - 1)) {
+            Author entry = table.get(i);
+            if (entry == null || (entry.hash == hash && matches(entry.name, text, from, to))) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Insert an entry into the given table, which must have a free slot.
+     *
+     * @param table hash table receiving the entry.
+     * @param entry entry to be inserted.
+     */
+    private static void insert(AtomicReferenceArray<Author> table, Author entry) {
+        int capacity = table.length();
+        int i = slot(entry.hash, capacity);
+        while (table.get(i) != null) {
+            i = (i + 1) & (capacity - 1);
+        }
+        table.set(i, entry);
+    }
+
+    /**
+     * Add a name, unless another thread has added it meanwhile.
+     *
+     * The name is made visible to getAuthor before it can be found by lookups.
+     *
+     * @param name name to be added, used as canonical instance.
+     * @param hash hash code of the name.
+     * @return entry of the name.
+     */
+    private synchronized Author add(String name, int hash) {
+        Author entry = find(table, name, hash);
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = new Author(name, size, hash);
+        if (entry.id == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[entry.id] = name;
+        size = entry.id + 1;
+
+        AtomicReferenceArray<Author> current = table;
+        if (2 * size > current.length()) {
+            AtomicReferenceArray<Author> grown = new AtomicReferenceArray<>(current.length() * 2);
+            for (int i = 0; i < current.length(); i++) {
+                if (current.get(i) != null) {
+                    insert(grown, current.get(i));
+                }
+            }
+            insert(grown, entry);
+            table = grown;
+        } else {
+            insert(current, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Get the entry of the given name, adding the name if necessary.
+     *
+     * @param name author name.
+     * @return entry of the name.
+     */
+    private Author entry(String name) {
+        int hash = name.hashCode();
+        Author entry = find(table, name, hash);
+        return (entry != null) ? entry : add(name, hash);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the canonical instance of the given name, adding the name if necessary.
+     *
+     * @param name author name.
+     * @return canonical instance equal to the given name.
+     * @throws NullPointerException if the given name is null.
+     */
+    public String intern(String name) {
+        Objects.requireNonNull(name, "Given author name must not be null.");
+
+        return entry(name).name;
+    }
+
+    /**
+     * Get the canonical instance of the name given as a range of characters,
+     * adding the name if necessary. No String is created for known names.
+     *
+     * @param text characters containing the name.
+     * @param from start of the name.
+     * @param to end of the name (exclusive).
+     * @return canonical instance consisting of the given characters.
+     * @throws NullPointerException if the given characters are null.
+     * @throws IndexOutOfBoundsException if the range exceeds the given characters.
+     */
+    public String intern(char[] text, int from, int to) {
+        Objects.requireNonNull(text, "Given characters must not be null.");
+        Objects.checkFromToIndex(from, to, text.length);
+
+        int hash = hash(text, from, to);
+        Author entry = find(table, text, from, to, hash);
+        return (entry != null) ? entry.name : add(new String(text, from, to - from), hash).name;
+    }
+
+    /**
+     * Get the canonical instances of all given names, adding names if necessary.
+     *
+     * @param authors author names.
+     * @return the given array if it only holds canonical instances already,
+     * otherwise a new array holding the canonical instances.
+     * @throws NullPointerException if the given array or any of its names is null.
+     */
+    public String[] internAll(String[] authors) {
+        Objects.requireNonNull(authors, "Given authors must not be null.");
+
+        String[] canonical = authors;
+        for (int i = 0; i < authors.length; i++) {
+            String name = intern(authors[i]);
+            if (name != authors[i]) {
+                if (canonical == authors) {
+                    canonical = authors.clone();
+                }
+                canonical[i] = name;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Get the id of the given name, adding the name if necessary.
+     *
+     * @param name author name.
+     * @return id of the name.
+     * @throws NullPointerException if the given name is null.
+     */
+    public int getId(String name) {
+        Objects.requireNonNull(name, "Given author name must not be null.");
+
+        return entry(name).id;
+    }
+
+    /**
+     * Get the id of the given name without adding it.
+     *
+     * @param name author name.
+     * @return id of the name, {@value #NO_ID} if the name is not in the dictionary.
+     * @throws NullPointerException if the given name is null.
+     */
+    public int idOf(String name) {
+        Objects.requireNonNull(name, "Given author name must not be null.");
+
+        Author entry = find(table, name, name.hashCode());
+        return (entry != null) ? entry.id : NO_ID;
+    }
+
+    /**
+     * Get the canonical name of the given id.
+     *
+     * @param id id of a name in this dictionary.
+     * @return canonical name.
+     * @throws IndexOutOfBoundsException if no name has the given id.
+     */
+    public String getAuthor(int id) {
+        Objects.checkIndex(id, size);
+        return names[id];
+    }
+
+    /**
+     * Get the number of names in the dictionary, which is one more than the largest id.
+     *
+     * @return number of distinct author names.
+     */
+    public int size() {
+        return size;
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Canonical name together with its id. */
+    private static final class Author {
+
+        /** Canonical instance of the name. */
+        private final String name;
+        /** Id of the name. */
+        private final int id;
+        /** Hash code of the name. */
+        private final int hash;
+
+        /**
+         * Create an entry.
+         *
+         * @param name canonical instance of the name.
+         * @param id id of the name.
+         * @param hash hash code of the name.
+         */
+        private Author(String name, int id, int hash) {
+            this.name = name;
+            this.id = id;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.Arrays;
+
+/**
+ * Inverted index from author ids to the ids of their books.
+ *
+ * Authors are identified by their id in an {@link AuthorDictionary}, so
+ * looking up an author only compares ints. The book ids of each author are
+ * kept in ascending order.
+ *
+ * Books cannot be removed. Once all books have been added, the index is
+ * only read and may be shared between threads.
+ */
+public class AuthorIndex {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of hash table slots initially, a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Key of an empty hash table slot. */
+    private static final int EMPTY = -1;
+
+    /** Author id of each hash table slot, probed linearly, at most half full. */
+    private int[] authorIds;
+    /** Ids of the books of the author of each hash table slot in ascending order. */
+    private PostingList[] authorBooks;
+    /** Number of indexed authors. */
+    private int size;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty index. */
+    public AuthorIndex() {
+        authorIds = new int[INITIAL_CAPACITY];
+        Arrays.fill(authorIds, EMPTY);
+        authorBooks = new PostingList[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Find the hash table slot of the given author, or the empty slot where it belongs.
+     *
+     * @param authorId author id.
+     * @return slot index.
+     */
+    private int slot(int authorId) {
+        int mask = authorIds.length - 1;
+        int mixed = authorId * 0x9E3779B9;
+        int i = (mixed ^ (mixed >>> 16)) & mask;
+
+        while (authorIds[i] != EMPTY && authorIds[i] != authorId) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /** Double the number of hash table slots. */
+    private void grow() {
+        int[] oldIds = authorIds;
+        PostingList[] oldBooks = authorBooks;
+
+        authorIds = new int[oldIds.length * 2];
+        Arrays.fill(authorIds, EMPTY);
+        authorBooks = new PostingList[oldIds.length * 2];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = slot(oldIds[i]);
+                authorIds[slot] = oldIds[i];
+                authorBooks[slot] = oldBooks[i];
+            }
+        }
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Add a book of the given author to the index.
+     *
+     * @param authorId id of an author of the book, not negative.
+     * @param id id of the book, not less than the ids of all books added before.
+     * @throws IllegalArgumentException if the given author id is negative.
+     */
+    public void add(int authorId, int id) {
+        if (authorId < 0) {
+            throw new IllegalArgumentException("Given author id must not be negative: " + authorId);
+        }
+
+        int slot = slot(authorId);
+        if (authorIds[slot] == EMPTY) {     // Condition: There does not exist a book group for this author yet.
+            if (2 * (size + 1) > authorIds.length) {
+                grow();
+                slot = slot(authorId);
+            }
+            authorIds[slot] = authorId;
+            authorBooks[slot] = new PostingList();
+            size++;
+        }
+        authorBooks[slot].addIfAbsent(id);
+    }
+
+    /**
+     * Get the ids of the books written by the given author.
+     *
+     * @param authorId author id.
+     * @return book ids in ascending order, empty if the author is unknown.
+     */
+    public int[] getBooks(int authorId) {
+        if (authorId < 0) {
+            return new int[0];
+        }
+
+        int slot = slot(authorId);
+        return (authorIds[slot] == EMPTY) ? new int[0] : authorBooks[slot].toArray();
+    }
+
+    /**
+     * Get all indexed authors.
+     *
+     * @return ids of the authors in no particular order.
+     */
+    public int[] getAuthorIds() {
+        int[] ids = new int[size];
+        int count = 0;
+        for (int authorId : authorIds) {
+            if (authorId != EMPTY) {
+                ids[count++] = authorId;
+            }
+        }
+        return ids;
+    }
+}
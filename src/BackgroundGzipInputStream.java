@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Input stream decompressing gzip data on a background thread.
+ *
+ * The background thread decompresses block by block ahead of the reader
+ * and hands the blocks over through a bounded queue, so decompressing and
+ * consuming the data overlap while at most {@value #BLOCKS_AHEAD} blocks
+ * are held in memory. Failures of the background thread are thrown by the
+ * read methods once all data decompressed before the failure has been read.
+ *
+ * The stream is meant to be read by a single thread.
+ */
+public class BackgroundGzipInputStream extends InputStream {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of decompressed bytes handed over at once. */
+    private static final int BLOCK_SIZE = 256 * 1024;
+    /** Number of decompressed blocks which may be waiting to be read. */
+    private static final int BLOCKS_AHEAD = 4;
+    /** Block marking the end of the decompressed data, also after a failure. */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    /** Decompressing stream, only read by the background thread until it has ended. */
+    private final GZIPInputStream gzip;
+    /** Decompressed blocks in stream order. */
+    private final BlockingQueue<byte[]> blocks;
+    /** Background thread decompressing the data. */
+    private final Thread decompressor;
+    /** Failure of the background thread, null if none occurred. */
+    private volatile Throwable failure;
+
+    /** Block currently read. */
+    private byte[] current;
+    /** Position of the next byte to be read within the current block. */
+    private int position;
+    /** Whether the end of the decompressed data has been reached. */
+    private boolean ended;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a stream decompressing the given gzip data and start decompressing.
+     *
+     * The gzip header is read before returning. The given stream is closed
+     * when this stream is closed or if the header is invalid.
+     *
+     * @param compressed gzip compressed data.
+     * @throws IOException if the gzip header is invalid or cannot be read.
+     * @throws NullPointerException if the given stream is null.
+     */
+    public BackgroundGzipInputStream(InputStream compressed) throws IOException {
+        Objects.requireNonNull(compressed, "Given input stream must not be null.");
+
+        try {
+            gzip = new GZIPInputStream(compressed, BLOCK_SIZE);
+        } catch (IOException e) {
+            compressed.close();
+            throw e;
+        }
+        blocks = new ArrayBlockingQueue<>(BLOCKS_AHEAD);
+        current = END_OF_STREAM;
+        position = 0;
+        ended = false;
+
+        decompressor = new Thread(new Decompressor(), "gzip-decompressor");
+        decompressor.setDaemon(true);
+        decompressor.start();
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Make sure the current block has bytes left, waiting for the next block if necessary.
+     *
+     * @return true if bytes are available, false at the end of the data.
+     * @throws IOException if decompressing failed.
+     * @throws InterruptedIOException if interrupted while waiting.
+     * @throws RuntimeException if decompressing failed with it, e.g. on damaged data.
+     * @throws Error if decompressing failed with it, e.g. OutOfMemoryError.
+     */
+    private boolean fillCurrent() throws IOException {
+        while (position == current.length) {
+            if (ended) {
+                return false;
+            }
+
+            byte[] next;
+            try {
+                next = blocks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed data.");
+            }
+
+            if (next == END_OF_STREAM) {
+                ended = true;
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure instanceof Error) {
+                    throw (Error) failure;
+                } else if (failure != null) {
+                    throw new IOException(failure.getMessage(), failure);
+                }
+                return false;
+            }
+            current = next;
+            position = 0;
+        }
+        return true;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Read a single decompressed byte.
+     *
+     * @return byte value, -1 at the end of the data.
+     * @throws IOException if decompressing failed.
+     */
+    @Override
+    public int read() throws IOException {
+        if (!fillCurrent()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    /**
+     * Read decompressed bytes into the given array.
+     *
+     * @param buffer array receiving the bytes.
+     * @param offset position in the array of the first byte read.
+     * @param length maximum number of bytes to be read.
+     * @return number of bytes read, -1 at the end of the data.
+     * @throws IOException if decompressing failed.
+     * @throws IndexOutOfBoundsException if the given range exceeds the array.
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length == 0) {
+            return 0;
+        }
+        if (!fillCurrent()) {
+            return -1;
+        }
+
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Get the number of bytes which can be read without waiting.
+     *
+     * @return number of bytes left in the current block.
+     */
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    /**
+     * Stop decompressing and close the compressed stream.
+     *
+     * @throws IOException if closing the compressed stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        decompressor.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                decompressor.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        blocks.clear();
+        ended = true;
+        current = END_OF_STREAM;
+        position = 0;
+
+        try {
+            gzip.close();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Decompresses all data into blocks until the end is reached or the stream is closed. */
+    private final class Decompressor implements Runnable {
+
+        /**
+         * Fill a new block with decompressed data as far as possible.
+         *
+         * @return filled block, shorter than {@value BackgroundGzipInputStream#BLOCK_SIZE}
+         * only at the end of the data, empty if the end has been reached.
+         * @throws IOException if decompressing fails.
+         */
+        private byte[] decompressBlock() throws IOException {
+            byte[] block = new byte[BLOCK_SIZE];
+            int length = 0;
+            int read;
+            while (length < block.length && (read = gzip.read(block, length, block.length - length)) >= 0) {
+                length += read;
+            }
+            return (length == block.length) ? block : Arrays.copyOf(block, length);
+        }
+
+        /**
+         * Decompress all data, passing on any failure to the reader. The end of
+         * the data is always marked, so the reader never waits forever.
+         */
+        @Override
+        public void run() {
+            try {
+                byte[] block;
+                while ((block = decompressBlock()).length > 0) {
+                    blocks.put(block);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();     // the stream has been closed, do not wait below
+            } catch (Throwable e) {     // e.g. OutOfMemoryError for a new block
+                failure = e;
+            } finally {
+                try {
+                    blocks.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    // the stream has been closed, so nobody reads any further
+                }
+            }
+        }
+    }
+}
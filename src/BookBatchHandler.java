@@ -0,0 +1,18 @@
+import java.util.List;
+
+/**
+ * Receiver for book entries which are handed over in batches
+ * while book data is streamed from file.
+ */
+public interface BookBatchHandler {
+
+    /**
+     * Handle a batch of parsed book entries.
+     *
+     * NOTE: The given list may be reused by the caller once this
+     * method returns. Implementations must not keep a reference to it.
+     *
+     * @param batch parsed book entries in file order.
+     */
+    void handleBatch(List<BookEntry> batch);
+}
@@ -23,6 +23,8 @@ public final class BookEntry {
     private final String ISBN;
     /** Number of pages of a BookEntry instance. */
     private final int pages;
+    /** Hash code of a BookEntry instance, computed once since all fields are immutable. */
+    private final int hash;
 
     // -------------- CONSTRUCTOR(S) ------------------------------------------
 
@@ -31,7 +33,7 @@ public final class BookEntry {
      * Initialises class fields.
      *
      * @param title title of the book.
-     * @param authors author(s) of the book.
+     * @param authors author(s) of the book, copied so later changes of the array do not affect the entry.
      * @param rating rating of the book.
      * @param ISBN ISBN of the book.
      * @param pages total number of pages of the book.
@@ -40,10 +42,11 @@ public final class BookEntry {
         checkEntries(title, authors, rating, ISBN, pages);
 
         this.title = title;
-        this.authors = authors;
+        this.authors = authors.clone();
         this.rating = rating;
         this.ISBN = ISBN;
         this.pages = pages;
+        this.hash = computeHashCode();
     }
 
     // -------------- ERROR CHECKING ------------------------------------------
@@ -112,6 +115,18 @@ public final class BookEntry {
         return String.format("%.2f", rating);
     }
 
+    /**
+     * Compute hash code from all fields of this BookEntry instance.
+     *
+     * @return integer with hashCode value.
+     */
+    private int computeHashCode() {
+        int hashCodeResult = Objects.hash(title, rating, ISBN, pages);
+        hashCodeResult = 31 * hashCodeResult + Arrays.hashCode(authors);
+
+        return hashCodeResult;
+    }
+
     // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
 
     /**
@@ -124,9 +139,17 @@ public final class BookEntry {
 
     /**
      * Getter method for class field authors.
-     * @return authors
+     * @return copy of authors, so changing it does not affect this entry.
      */
     public String[] getAuthors() {
+        return authors.clone();
+    }
+
+    /**
+     * Provide the authors without copying them, for reading them within the library.
+     * @return authors of this entry, which must not be changed.
+     */
+    String[] authorsView() {
         return authors;
     }
 
@@ -154,6 +177,20 @@ public final class BookEntry {
         return pages;
     }
 
+    /**
+     * Provide an equal book entry whose authors are the canonical instances of the given dictionary.
+     *
+     * @param authorDictionary dictionary providing canonical author names.
+     * @return this instance if its authors are canonical already, otherwise a new instance.
+     * @throws NullPointerException if the given dictionary is null.
+     */
+    public BookEntry withCanonicalAuthors(AuthorDictionary authorDictionary) {
+        Objects.requireNonNull(authorDictionary, "Given author dictionary must not be null.");
+
+        String[] canonical = authorDictionary.internAll(authors);
+        return (canonical == authors) ? this : new BookEntry(title, canonical, rating, ISBN, pages);
+    }
+
     /**
      * Provide string which displays information about a BookEntry instance.
      * @return requested string as specified above.
@@ -171,6 +208,10 @@ public final class BookEntry {
     /**
      * Compare parameter object to this BookEntry instance in terms of equality.
      *
+     * Fields of the other instance are not checked again since the constructor
+     * already guarantees their validity. Instances with different hash codes
+     * are rejected before any Strings are compared.
+     *
      * @param obj object to be compared to this instance.
      * @return true if object is equal to this instance, otherwise false.
      */
@@ -184,9 +225,9 @@ public final class BookEntry {
         }
 
         BookEntry otherBook = (BookEntry) obj;
-        checkEntries(otherBook.title, otherBook.authors, otherBook.rating, otherBook.ISBN, otherBook.pages);
 
-        return Float.compare(otherBook.rating, rating) == 0 &&
+        return hash == otherBook.hash &&
+                Float.compare(otherBook.rating, rating) == 0 &&
                 pages == otherBook.pages &&
                 Objects.equals(title, otherBook.title) &&
                 Arrays.equals(authors, otherBook.authors) &&
@@ -199,9 +240,6 @@ public final class BookEntry {
      */
     @Override
     public int hashCode() {
-        int hashCodeResult = Objects.hash(title, rating, ISBN, pages);
-        hashCodeResult = 31 * hashCodeResult + Arrays.hashCode(authors);
-
-        return hashCodeResult;
+        return hash;
     }
 }
@@ -0,0 +1,347 @@
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Set of books held elsewhere, keeping only a 128-bit fingerprint of each book.
+ *
+ * The fingerprint covers all data values which take part in BookEntry.equals,
+ * so equal books have equal fingerprints and a book whose fingerprint is not
+ * in the set is certainly new. Only if the fingerprint is found, the books
+ * themselves are compared, looking them up where they are stored (see
+ * {@link StoredBooks}). Different books with colliding fingerprints are
+ * therefore never taken as equal; they share a slot, which counts them.
+ *
+ * In return, the set takes a fixed amount of memory per book and keeps no book
+ * entry alive, so books stored compactly elsewhere are not held in memory twice.
+ * Fingerprints are kept in a hash table with linear probing, which is at most
+ * half full.
+ *
+ * NOTE: Instances are not thread-safe.
+ */
+public class BookFingerprintSet {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of hash table slots initially, a power of two. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Multiplier of the first half of a fingerprint. */
+    private static final long FIRST_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    /** Multiplier of the second half of a fingerprint. */
+    private static final long SECOND_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+    /**
+     * Both halves of the fingerprint of each hash table slot, stored next to
+     * each other. Empty slots hold zero in both halves.
+     */
+    private long[] table;
+    /** Number of books having the fingerprint of each hash table slot. */
+    private int[] counts;
+    /** Number of books in the set. */
+    private int size;
+    /** Number of occupied hash table slots. */
+    private int usedSlots;
+
+    /** First half of the fingerprint of the book probed last. */
+    private long probedFirst;
+    /** Second half of the fingerprint of the book probed last. */
+    private long probedSecond;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty set. */
+    public BookFingerprintSet() {
+        table = new long[2 * INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        size = 0;
+        usedSlots = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Feed a value into one half of a fingerprint.
+     *
+     * @param state half of the fingerprint so far.
+     * @param value value to be fed in.
+     * @param multiplier multiplier of this half.
+     * @return updated half of the fingerprint.
+     */
+    private static long mix(long state, int value, long multiplier) {
+        long mixed = (state ^ value) * multiplier;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    /**
+     * Spread all bits of one half of a fingerprint.
+     *
+     * @param state half of the fingerprint.
+     * @return final half of the fingerprint.
+     */
+    private static long finish(long state) {
+        state = (state ^ (state >>> 33)) * 0xFF51AFD7ED558CCDL;
+        state = (state ^ (state >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return state ^ (state >>> 33);
+    }
+
+    /**
+     * Feed a text into one half of a fingerprint, preceded by its length,
+     * so no two different sequences of texts feed in the same values.
+     *
+     * @param state half of the fingerprint so far.
+     * @param text text to be fed in.
+     * @param multiplier multiplier of this half.
+     * @return updated half of the fingerprint.
+     */
+    private static long mixText(long state, String text, long multiplier) {
+        state = mix(state, text.length(), multiplier);
+        for (int i = 0; i < text.length(); i++) {
+            state = mix(state, text.charAt(i), multiplier);
+        }
+        return state;
+    }
+
+    /**
+     * Compute one half of the fingerprint of the given book.
+     *
+     * @param book book to be fingerprinted.
+     * @param multiplier multiplier of this half.
+     * @return half of the fingerprint.
+     */
+    private static long fingerprint(BookEntry book, long multiplier) {
+        String[] authors = book.authorsView();
+        long state = multiplier;
+
+        state = mix(state, Float.floatToIntBits(book.getRating()), multiplier);
+        state = mix(state, book.getPages(), multiplier);
+        state = mixText(state, book.getTitle(), multiplier);
+        state = mixText(state, book.getISBN(), multiplier);
+        state = mix(state, authors.length, multiplier);
+        for (String author : authors) {
+            state = mixText(state, author, multiplier);
+        }
+        return finish(state);
+    }
+
+    /**
+     * Find the slot of the given fingerprint, or the empty slot where it belongs.
+     *
+     * @param first first half of the fingerprint.
+     * @param second second half of the fingerprint.
+     * @return position of the first half within the table.
+     */
+    private int slot(long first, long second) {
+        int mask = table.length - 1;
+        int i = (int) (first << 1) & mask;
+
+        while ((table[i] != 0 || table[i + 1] != 0) && (table[i] != first || table[i + 1] != second)) {
+            i = (i + 2) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Fingerprint the given book and find its slot, or the empty slot where it belongs.
+     * The fingerprint is kept in probedFirst and probedSecond.
+     *
+     * @param book book to be probed.
+     * @return position of the first half within the table.
+     * @throws NullPointerException if the given book is null.
+     */
+    private int probe(BookEntry book) {
+        Objects.requireNonNull(book, "Given book must not be null.");
+
+        probedFirst = fingerprint(book, FIRST_MULTIPLIER);
+        probedSecond = fingerprint(book, SECOND_MULTIPLIER);
+        if (probedFirst == 0 && probedSecond == 0) {    // reserved for empty slots
+            probedSecond = 1;
+        }
+        return slot(probedFirst, probedSecond);
+    }
+
+    /**
+     * Check whether the given slot holds the fingerprint of the book probed last.
+     *
+     * @param slot position of the first half within the table.
+     * @return true if the slot holds the fingerprint, false if it is empty.
+     */
+    private boolean holdsProbed(int slot) {
+        return table[slot] == probedFirst && table[slot + 1] == probedSecond;
+    }
+
+    /** Double the number of hash table slots. */
+    private void grow() {
+        long[] old = table;
+        int[] oldCounts = counts;
+
+        table = new long[old.length * 2];
+        counts = new int[oldCounts.length * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0 || old[i + 1] != 0) {
+                int slot = slot(old[i], old[i + 1]);
+                table[slot] = old[i];
+                table[slot + 1] = old[i + 1];
+                counts[slot / 2] = oldCounts[i / 2];
+            }
+        }
+    }
+
+    /**
+     * Count one more book having the fingerprint of the book probed last.
+     *
+     * @param slot position of the fingerprint within the table, or of the empty slot where it belongs.
+     */
+    private void addProbed(int slot) {
+        if (!holdsProbed(slot)) {
+            if (2 * (usedSlots + 1) > counts.length) {
+                grow();
+                slot = slot(probedFirst, probedSecond);
+            }
+            table[slot] = probedFirst;
+            table[slot + 1] = probedSecond;
+            usedSlots++;
+        }
+        counts[slot / 2]++;
+        size++;
+    }
+
+    /**
+     * Empty the given slot, moving later fingerprints of the same probe sequence
+     * back, so all remaining fingerprints can still be found.
+     *
+     * @param slot position of the first half of the fingerprint to be removed.
+     */
+    private void removeSlot(int slot) {
+        int mask = table.length - 1;
+        int gap = slot;
+
+        for (int i = (gap + 2) & mask; table[i] != 0 || table[i + 1] != 0; i = (i + 2) & mask) {
+            int home = (int) (table[i] << 1) & mask;
+            // Condition: The fingerprint's home slot is not cyclically within (gap, i].
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[gap] = table[i];
+                table[gap + 1] = table[i + 1];
+                counts[gap / 2] = counts[i / 2];
+                gap = i;
+            }
+        }
+        table[gap] = 0;
+        table[gap + 1] = 0;
+        counts[gap / 2] = 0;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Add a book, unless an equal book is in the set.
+     *
+     * @param book book to be added.
+     * @param stored books of the set, consulted only if the fingerprint of the book is found.
+     * @return true if the book has been added, false if an equal book is in the set.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public boolean add(BookEntry book, StoredBooks stored) {
+        Objects.requireNonNull(stored, "Given stored books must not be null.");
+
+        int slot = probe(book);
+        if (holdsProbed(slot) && stored.contains(book)) {
+            return false;
+        }
+        addProbed(slot);
+        return true;
+    }
+
+    /**
+     * Add all given books without checking for equal books.
+     *
+     * @param books books to be added, neither equal to each other nor to any book in the set.
+     * @throws NullPointerException if the given collection or any of its books is null.
+     */
+    public void addAll(Collection<BookEntry> books) {
+        Objects.requireNonNull(books, "Given books must not be null.");
+
+        for (BookEntry book : books) {
+            addProbed(probe(book));
+        }
+    }
+
+    /**
+     * Check whether a book equal to the given book is in the set.
+     *
+     * @param book book to be found.
+     * @param stored books of the set, consulted only if the fingerprint of the book is found.
+     * @return true if an equal book is in the set, false otherwise.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public boolean contains(BookEntry book, StoredBooks stored) {
+        Objects.requireNonNull(stored, "Given stored books must not be null.");
+
+        return holdsProbed(probe(book)) && stored.contains(book);
+    }
+
+    /**
+     * Remove a book of the set.
+     *
+     * @param book book to be removed, which must be in the set.
+     * @return true if the book has been removed, false if no book with its fingerprint is in the set.
+     * @throws NullPointerException if the given book is null.
+     */
+    public boolean remove(BookEntry book) {
+        int slot = probe(book);
+        if (!holdsProbed(slot)) {
+            return false;
+        }
+
+        if (--counts[slot / 2] == 0) {
+            removeSlot(slot);
+            usedSlots--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove all given books of the set.
+     *
+     * @param books books to be removed, each of which must be in the set.
+     * @throws NullPointerException if the given collection or any of its books is null.
+     */
+    public void removeAll(Collection<BookEntry> books) {
+        Objects.requireNonNull(books, "Given books must not be null.");
+
+        for (BookEntry book : books) {
+            remove(book);
+        }
+    }
+
+    /** Remove all books. */
+    public void clear() {
+        table = new long[2 * INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        size = 0;
+        usedSlots = 0;
+    }
+
+    /**
+     * Get the number of books in the set.
+     *
+     * @return number of books.
+     */
+    public int size() {
+        return size;
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Books of the set where they are stored, compared when fingerprints match. */
+    public interface StoredBooks {
+
+        /**
+         * Check whether a book equal to the given book is stored.
+         *
+         * @param book book to be found.
+         * @return true if an equal book is stored, false otherwise.
+         */
+        boolean contains(BookEntry book);
+    }
+}
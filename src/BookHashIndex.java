@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+/**
+ * Index from book hash codes to the ids of the books.
+ *
+ * Used to find the few stored books which may equal a given book, so only
+ * these have to be materialised and compared. Keeps two ints per book and
+ * no reference to any book.
+ *
+ * Books cannot be removed. Once all books have been added, the index is
+ * only read and may be shared between threads.
+ */
+public class BookHashIndex {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of hash table slots initially, a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Content of an empty hash table slot. */
+    private static final int EMPTY = -1;
+
+    /** Book id of each hash table slot, probed linearly, at most half full. */
+    private int[] slots;
+    /** Hash code of each book by id. */
+    private int[] hashes;
+    /** Number of indexed books. */
+    private int size;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty index. */
+    public BookHashIndex() {
+        slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(slots, EMPTY);
+        hashes = new int[INITIAL_CAPACITY / 2];
+        size = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Get the first hash table slot to be probed for the given hash code.
+     *
+     * @param hash hash code of a book.
+     * @return slot index.
+     */
+    private int home(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (slots.length - 1);
+    }
+
+    /** Double the number of hash table slots. */
+    private void grow() {
+        int[] oldSlots = slots;
+
+        slots = new int[oldSlots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        for (int id : oldSlots) {
+            if (id != EMPTY) {
+                int slot = home(hashes[id]);
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                slots[slot] = id;
+            }
+        }
+        hashes = Arrays.copyOf(hashes, slots.length / 2);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Add the next book to the index.
+     *
+     * @param book book to be added, the book of the next id.
+     * @return id of the book, which is the number of books added before.
+     */
+    public int add(BookEntry book) {
+        if (2 * (size + 1) > slots.length) {
+            grow();
+        }
+
+        int id = size++;
+        int hash = book.hashCode();
+        int slot = home(hash);
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        slots[slot] = id;
+        hashes[id] = hash;
+        return id;
+    }
+
+    /**
+     * Find all books with the hash code of the given book.
+     *
+     * @param book book to be found.
+     * @return ids of the books in no particular order, including those of all books equal to the given one.
+     */
+    public int[] find(BookEntry book) {
+        int hash = book.hashCode();
+        int[] found = new int[4];
+        int foundCount = 0;
+
+        for (int slot = home(hash); slots[slot] != EMPTY; slot = (slot + 1) & (slots.length - 1)) {
+            int id = slots[slot];
+            if (hashes[id] == hash) {
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, found.length * 2);
+                }
+                found[foundCount++] = id;
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+}
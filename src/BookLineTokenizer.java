@@ -0,0 +1,284 @@
+import java.util.Objects;
+
+/**
+ * Tokenizer for single lines of book data.
+ *
+ * A line is scanned exactly once and only the offsets of its data values
+ * are recorded. Numeric values are parsed directly from the characters and
+ * Strings are only created for values which end up inside a BookEntry.
+ *
+ * Data values are obtained as if the line was split at each data separator
+ * and author names were split at each author separator using String.split.
+ *
+ * NOTE: Instances are reusable but must not be shared between threads.
+ */
+public class BookLineTokenizer {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Character used to separate data values in file. */
+    private static final char DATA_SEPARATOR = ',';
+    /** Character used to separate author names. */
+    private static final char AUTHOR_SEPARATOR = '-';
+
+    /** Number of data values per line. */
+    private static final int VALUE_COUNT = DataOrder.values().length;
+
+    /** Maximum number of digits of a rating which can be parsed exactly using float arithmetic. */
+    private static final int MAX_FAST_RATING_DIGITS = 7;
+    /** Maximum number of digits of a page number which cannot overflow an int. */
+    private static final int MAX_FAST_PAGES_DIGITS = 9;
+    /** Powers of ten which are exactly representable as float. */
+    private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f };
+
+    /** Characters of the line currently tokenized. */
+    private char[] text;
+    /** Start offsets of the data values of the current line. */
+    private final int[] valueStarts;
+    /** End offsets (exclusive) of the data values of the current line. */
+    private final int[] valueEnds;
+    /** Number of data values available in the current line. */
+    private int valueCount;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new tokenizer. No line has been tokenized yet. */
+    public BookLineTokenizer() {
+        text = null;
+        valueStarts = new int[VALUE_COUNT];
+        valueEnds = new int[VALUE_COUNT];
+        valueCount = 0;
+    }
+
+    // -------------- ERROR CHECKING ------------------------------------------
+
+    /**
+     * Check that the current line contains the given data value.
+     *
+     * @param value requested data value.
+     * @throws IndexOutOfBoundsException if the current line is missing the data value.
+     */
+    private void checkValue(DataOrder value) {
+        Objects.checkIndex(value.ordinal(), valueCount);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Create a String from the given data value.
+     *
+     * @param value requested data value.
+     * @return data value as String.
+     */
+    private String valueToString(DataOrder value) {
+        checkValue(value);
+        int start = valueStarts[value.ordinal()];
+        return new String(text, start, valueEnds[value.ordinal()] - start);
+    }
+
+    /**
+     * Parse a rating without creating intermediate objects, if it is a plain
+     * decimal number with at most {@value #MAX_FAST_RATING_DIGITS} digits.
+     *
+     * Both the digits and the power of ten are exactly representable as float
+     * in this case, so a single float division yields the same correctly rounded
+     * result as Float.parseFloat.
+     *
+     * @param start start of the rating.
+     * @param end end of the rating (exclusive).
+     * @return parsed rating or NaN if the rating is not a plain decimal number.
+     */
+    private float parsePlainRating(int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (text[position] == '-' || text[position] == '+')) {
+            negative = text[position] == '-';
+            position++;
+        }
+
+        int mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; position < end; position++) {
+            char current = text[position];
+
+            if (current >= '0' && current <= '9') {
+                mantissa = mantissa * 10 + (current - '0');
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (current == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return Float.NaN;
+            }
+        }
+
+        if (digits == 0 || digits > MAX_FAST_RATING_DIGITS) {
+            return Float.NaN;
+        }
+        float rating = mantissa / FLOAT_POWERS_OF_TEN[fractionDigits];
+        return negative ? -rating : rating;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Tokenize the given range of characters as a single line of book data.
+     *
+     * The given array is referenced until the next call of this method
+     * and must not be changed in the meantime.
+     *
+     * @param text characters containing the line.
+     * @param from start of the line.
+     * @param to end of the line (exclusive), not including a line break.
+     * @throws NullPointerException if the given text is null.
+     * @throws IndexOutOfBoundsException if the given range is out of bounds.
+     */
+    public void tokenize(char[] text, int from, int to) {
+        Objects.requireNonNull(text, "Given text must not be null.");
+        Objects.checkFromToIndex(from, to, text.length);
+        this.text = text;
+
+        int tokenCount = 0;
+        int lastNonEmptyToken = -1;
+        int tokenStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || text[i] == DATA_SEPARATOR) {
+                if (tokenCount < VALUE_COUNT) {
+                    valueStarts[tokenCount] = tokenStart;
+                    valueEnds[tokenCount] = i;
+                }
+                if (i > tokenStart) {
+                    lastNonEmptyToken = tokenCount;
+                }
+                tokenCount++;
+                tokenStart = i + 1;
+            }
+        }
+
+        // String.split leaves out trailing empty values unless there is no separator at all
+        int splitCount = (tokenCount == 1) ? 1 : lastNonEmptyToken + 1;
+        valueCount = Math.min(splitCount, VALUE_COUNT);
+    }
+
+    /**
+     * Get title of the current line.
+     *
+     * @return title.
+     * @throws IndexOutOfBoundsException if the current line is missing the title.
+     */
+    public String getTitle() {
+        return valueToString(DataOrder.TITLE);
+    }
+
+    /**
+     * Get author(s) of the current line.
+     *
+     * @return author(s).
+     * @throws IndexOutOfBoundsException if the current line is missing the authors.
+     */
+    public String[] getAuthors() {
+        return getAuthors(null);
+    }
+
+    /**
+     * Get author(s) of the current line as canonical instances of the given dictionary.
+     * Author names already in the dictionary are looked up without creating new Strings.
+     *
+     * @param authorDictionary dictionary providing canonical author names,
+     * null to create new Strings instead.
+     * @return author(s).
+     * @throws IndexOutOfBoundsException if the current line is missing the authors.
+     */
+    public String[] getAuthors(AuthorDictionary authorDictionary) {
+        checkValue(DataOrder.AUTHORS);
+        int start = valueStarts[DataOrder.AUTHORS.ordinal()];
+        int end = valueEnds[DataOrder.AUTHORS.ordinal()];
+
+        int nameCount = 0;
+        int lastNonEmptyName = -1;
+        int nameStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text[i] == AUTHOR_SEPARATOR) {
+                if (i > nameStart) {
+                    lastNonEmptyName = nameCount;
+                }
+                nameCount++;
+                nameStart = i + 1;
+            }
+        }
+
+        // String.split leaves out trailing empty names unless there is no separator at all
+        String[] authors = new String[(nameCount == 1) ? 1 : lastNonEmptyName + 1];
+        nameStart = start;
+        int nameIndex = 0;
+        for (int i = start; nameIndex < authors.length; i++) {
+            if (i == end || text[i] == AUTHOR_SEPARATOR) {
+                authors[nameIndex++] = (authorDictionary == null)
+                        ? new String(text, nameStart, i - nameStart) : authorDictionary.intern(text, nameStart, i);
+                nameStart = i + 1;
+            }
+        }
+        return authors;
+    }
+
+    /**
+     * Get rating of the current line.
+     *
+     * @return rating.
+     * @throws IndexOutOfBoundsException if the current line is missing the rating.
+     * @throws NumberFormatException if the rating is not a valid number.
+     */
+    public float getRating() {
+        checkValue(DataOrder.RATING);
+        int start = valueStarts[DataOrder.RATING.ordinal()];
+        int end = valueEnds[DataOrder.RATING.ordinal()];
+
+        float rating = parsePlainRating(start, end);
+        if (Float.isNaN(rating)) {      // rare formats are left to the standard parser
+            rating = Float.parseFloat(new String(text, start, end - start));
+        }
+        return rating;
+    }
+
+    /**
+     * Get ISBN of the current line.
+     *
+     * @return ISBN.
+     * @throws IndexOutOfBoundsException if the current line is missing the ISBN.
+     */
+    public String getISBN() {
+        return valueToString(DataOrder.ISBN);
+    }
+
+    /**
+     * Get page number of the current line.
+     *
+     * @return page number.
+     * @throws IndexOutOfBoundsException if the current line is missing the page number.
+     * @throws NumberFormatException if the page number is not a valid integer.
+     */
+    public int getPages() {
+        checkValue(DataOrder.PAGES);
+        int start = valueStarts[DataOrder.PAGES.ordinal()];
+        int end = valueEnds[DataOrder.PAGES.ordinal()];
+
+        int digits = end - start;
+        if (digits == 0 || digits > MAX_FAST_PAGES_DIGITS) {
+            return Integer.parseInt(new String(text, start, digits));
+        }
+
+        int pages = 0;
+        for (int i = start; i < end; i++) {
+            char current = text[i];
+            if (current < '0' || current > '9') {       // signs and errors are left to the standard parser
+                return Integer.parseInt(new String(text, start, digits));
+            }
+            pages = pages * 10 + (current - '0');
+        }
+        return pages;
+    }
+}
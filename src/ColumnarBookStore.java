@@ -0,0 +1,638 @@
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of book entries which stores each data value in its own column.
+ *
+ * Instead of one BookEntry object per book, ratings, ISBNs and page numbers
+ * are held in one array each, indexed by the position of the book.
+ * Authors are replaced by ids into an {@link AuthorDictionary}, which may be
+ * shared with other stores, and the ids of all books are kept in a single
+ * shared pool. Scanning a single
+ * data value of all books therefore walks one array sequentially.
+ *
+ * Titles are encoded into a single shared byte pool as well, taking one byte
+ * per character for all titles which only consist of ISO-8859-1 (Latin-1)
+ * characters. ISBNs consisting of up to {@value #MAX_PACKED_ISBN_DIGITS}
+ * digits are packed into a long, only other ISBNs are kept as Strings.
+ * Title and ISBN Strings are only created on request.
+ *
+ * Books are only materialised as BookEntry objects when requested through
+ * the List interface. Such entries are copies: they are equal to the stored
+ * book but not identical to the entry which was originally added.
+ *
+ * NOTE: Instances are not thread-safe.
+ */
+public class ColumnarBookStore extends AbstractList<BookEntry> implements RandomAccess {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of books the columns can hold initially. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Maximum length of an array, including some space reserved by the JVM. */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /** Maximum number of digits of an ISBN packed into a long. */
+    private static final int MAX_PACKED_ISBN_DIGITS = 16;
+    /** Position of the digit count within a packed ISBN, above the value of all digits. */
+    private static final int ISBN_DIGITS_SHIFT = 56;
+    /** Bits of a packed ISBN holding the value of all digits. */
+    private static final long ISBN_VALUE_MASK = (1L << ISBN_DIGITS_SHIFT) - 1;
+    /** Packed ISBN of books whose ISBN is kept as String. */
+    private static final long UNPACKED_ISBN = -1;
+
+    /** Position of the title of each book within the title pool. */
+    private int[] titleStarts;
+    /** Encoded length of the title of each book, bitwise complemented for titles encoded in UTF-8. */
+    private int[] titleLengths;
+    /** Rating of each book. */
+    private float[] ratings;
+    /** Packed ISBN of each book, {@value #UNPACKED_ISBN} if kept as String. */
+    private long[] isbns;
+    /** ISBN of each book which cannot be packed, null until the first such book is stored. */
+    private String[] unpackedIsbns;
+    /** Number of pages of each book. */
+    private int[] pages;
+    /** Hash code of each book, as returned by BookEntry.hashCode. */
+    private int[] hashes;
+    /** Position of the first author id of each book within the author pool. */
+    private int[] authorStarts;
+    /** Number of authors of each book. */
+    private int[] authorCounts;
+    /** Number of books stored. */
+    private int size;
+
+    /**
+     * Author ids of all books. The ids of a single book are stored consecutively.
+     * Ids of removed or replaced books are left behind until the pool is compacted.
+     */
+    private int[] authorPool;
+    /** Number of used positions within the author pool. */
+    private int authorPoolSize;
+    /** Number of used positions within the author pool which belong to stored books. */
+    private int liveAuthorIds;
+
+    /**
+     * Encoded titles of all books, in ISO-8859-1 if all characters of a title fit,
+     * in UTF-8 otherwise. The bytes of a single title are stored consecutively.
+     * Titles of removed or replaced books are left behind until the pool is compacted.
+     */
+    private byte[] titlePool;
+    /** Number of used bytes within the title pool. */
+    private int titlePoolSize;
+    /** Number of used bytes within the title pool which belong to stored books. */
+    private int liveTitleBytes;
+
+    /** Dictionary of the author names, may be shared with other stores. */
+    private final AuthorDictionary authorDictionary;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty store with its own author dictionary. */
+    public ColumnarBookStore() {
+        this(new AuthorDictionary());
+    }
+
+    /**
+     * Create a new and empty store.
+     *
+     * @param authorDictionary dictionary receiving the author names of the books.
+     * @throws NullPointerException if the given dictionary is null.
+     */
+    public ColumnarBookStore(AuthorDictionary authorDictionary) {
+        this.authorDictionary = Objects.requireNonNull(authorDictionary, "Given author dictionary must not be null.");
+
+        titleStarts = new int[INITIAL_CAPACITY];
+        titleLengths = new int[INITIAL_CAPACITY];
+        ratings = new float[INITIAL_CAPACITY];
+        isbns = new long[INITIAL_CAPACITY];
+        unpackedIsbns = null;
+        pages = new int[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        authorStarts = new int[INITIAL_CAPACITY];
+        authorCounts = new int[INITIAL_CAPACITY];
+        size = 0;
+
+        authorPool = new int[INITIAL_CAPACITY];
+        authorPoolSize = 0;
+        liveAuthorIds = 0;
+
+        titlePool = new byte[INITIAL_CAPACITY];
+        titlePoolSize = 0;
+        liveTitleBytes = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Make sure all columns can hold the given number of books.
+     *
+     * @param capacity number of books to be held.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > isbns.length) {
+            int newCapacity = Math.max(capacity, isbns.length * 2);
+
+            titleStarts = Arrays.copyOf(titleStarts, newCapacity);
+            titleLengths = Arrays.copyOf(titleLengths, newCapacity);
+            ratings = Arrays.copyOf(ratings, newCapacity);
+            isbns = Arrays.copyOf(isbns, newCapacity);
+            if (unpackedIsbns != null) {
+                unpackedIsbns = Arrays.copyOf(unpackedIsbns, newCapacity);
+            }
+            pages = Arrays.copyOf(pages, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+            authorStarts = Arrays.copyOf(authorStarts, newCapacity);
+            authorCounts = Arrays.copyOf(authorCounts, newCapacity);
+        }
+    }
+
+    /**
+     * Move the books starting at the given position within all columns.
+     *
+     * @param from position of the first book to be moved.
+     * @param to new position of the first book to be moved.
+     */
+    private void moveBooks(int from, int to) {
+        int count = size - from;
+
+        System.arraycopy(titleStarts, from, titleStarts, to, count);
+        System.arraycopy(titleLengths, from, titleLengths, to, count);
+        System.arraycopy(ratings, from, ratings, to, count);
+        System.arraycopy(isbns, from, isbns, to, count);
+        if (unpackedIsbns != null) {
+            System.arraycopy(unpackedIsbns, from, unpackedIsbns, to, count);
+        }
+        System.arraycopy(pages, from, pages, to, count);
+        System.arraycopy(hashes, from, hashes, to, count);
+        System.arraycopy(authorStarts, from, authorStarts, to, count);
+        System.arraycopy(authorCounts, from, authorCounts, to, count);
+    }
+
+    /**
+     * Make sure the author pool can hold the given number of additional ids.
+     *
+     * When the pool is full, the ids of all stored books are copied into a new
+     * pool, leaving behind the ids of removed and replaced books.
+     *
+     * @param additional number of ids to be added.
+     */
+    private void ensureAuthorPoolCapacity(int additional) {
+        if (authorPoolSize + additional <= authorPool.length) {
+            return;
+        }
+
+        int[] compacted = new int[Math.max((liveAuthorIds + additional) * 2, INITIAL_CAPACITY)];
+        int poolPosition = 0;
+        for (int i = 0; i < size; i++) {
+            int count = authorCounts[i];
+            System.arraycopy(authorPool, authorStarts[i], compacted, poolPosition, count);
+            authorStarts[i] = poolPosition;
+            poolPosition += count;
+        }
+
+        authorPool = compacted;
+        authorPoolSize = poolPosition;
+    }
+
+    /**
+     * Get the number of bytes the encoded title of the book at the given position takes.
+     *
+     * @param index position of the book.
+     * @return number of bytes within the title pool.
+     */
+    private int titleByteCount(int index) {
+        int length = titleLengths[index];
+        return (length >= 0) ? length : ~length;
+    }
+
+    /**
+     * Make sure the title pool can hold the given number of additional bytes.
+     *
+     * When the pool is full, the titles of all stored books are copied into a new
+     * pool, leaving behind the titles of removed and replaced books.
+     *
+     * @param additional number of bytes to be added.
+     * @throws OutOfMemoryError if the titles of all books exceed the maximum array length.
+     */
+    private void ensureTitlePoolCapacity(int additional) {
+        if ((long) titlePoolSize + additional <= titlePool.length) {
+            return;
+        }
+
+        long needed = (long) liveTitleBytes + additional;
+        if (needed > MAX_ARRAY_LENGTH) {
+            throw new OutOfMemoryError("Titles of all books exceed the maximum size of the title pool.");
+        }
+
+        byte[] compacted = new byte[(int) Math.min(Math.max(needed * 2, INITIAL_CAPACITY), MAX_ARRAY_LENGTH)];
+        int poolPosition = 0;
+        for (int i = 0; i < size; i++) {
+            int count = titleByteCount(i);
+            System.arraycopy(titlePool, titleStarts[i], compacted, poolPosition, count);
+            titleStarts[i] = poolPosition;
+            poolPosition += count;
+        }
+
+        titlePool = compacted;
+        titlePoolSize = poolPosition;
+    }
+
+    /**
+     * Check whether all characters of the given text are ISO-8859-1 characters.
+     *
+     * @param text text to be checked.
+     * @return true if each character fits into a single byte, false otherwise.
+     */
+    private static boolean isLatin1(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode the given title into the title pool at the given position.
+     *
+     * Any title previously stored for the position must have been released.
+     *
+     * @param index position of the book.
+     * @param title title to be stored.
+     */
+    private void writeTitle(int index, String title) {
+        titleStarts[index] = 0;         // the position must not take part in compacting the pool
+        titleLengths[index] = 0;
+
+        if (isLatin1(title)) {
+            ensureTitlePoolCapacity(title.length());
+            titleStarts[index] = titlePoolSize;
+            for (int i = 0; i < title.length(); i++) {
+                titlePool[titlePoolSize++] = (byte) title.charAt(i);
+            }
+            titleLengths[index] = title.length();
+            liveTitleBytes += title.length();
+        } else {
+            byte[] encoded = title.getBytes(StandardCharsets.UTF_8);
+            ensureTitlePoolCapacity(encoded.length);
+            titleStarts[index] = titlePoolSize;
+            System.arraycopy(encoded, 0, titlePool, titlePoolSize, encoded.length);
+            titlePoolSize += encoded.length;
+            titleLengths[index] = ~encoded.length;
+            liveTitleBytes += encoded.length;
+        }
+    }
+
+    /**
+     * Pack the given ISBN into a long, keeping leading zeros.
+     *
+     * @param isbn ISBN to be packed.
+     * @return digit count and value of the ISBN, {@value #UNPACKED_ISBN} if it
+     * does not only consist of up to {@value #MAX_PACKED_ISBN_DIGITS} digits.
+     */
+    private static long packIsbn(String isbn) {
+        if (isbn.length() > MAX_PACKED_ISBN_DIGITS) {
+            return UNPACKED_ISBN;
+        }
+
+        long value = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char digit = isbn.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return UNPACKED_ISBN;
+            }
+            value = value * 10 + (digit - '0');
+        }
+        return ((long) isbn.length() << ISBN_DIGITS_SHIFT) | value;
+    }
+
+    /**
+     * Restore an ISBN packed by {@link #packIsbn(String)}.
+     *
+     * @param packed packed ISBN, not {@value #UNPACKED_ISBN}.
+     * @return ISBN consisting of digits only.
+     */
+    private static String unpackIsbn(long packed) {
+        char[] digits = new char[(int) (packed >>> ISBN_DIGITS_SHIFT)];
+        long value = packed & ISBN_VALUE_MASK;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Store the given ISBN at the given position.
+     *
+     * @param index position of the book.
+     * @param isbn ISBN to be stored.
+     */
+    private void writeIsbn(int index, String isbn) {
+        long packed = packIsbn(isbn);
+        isbns[index] = packed;
+
+        if (packed == UNPACKED_ISBN) {
+            if (unpackedIsbns == null) {
+                unpackedIsbns = new String[isbns.length];
+            }
+            unpackedIsbns[index] = isbn;
+        } else if (unpackedIsbns != null) {
+            unpackedIsbns[index] = null;
+        }
+    }
+
+    /**
+     * Store the data values of the given book at the given position.
+     *
+     * Any author ids and title previously stored for the position must have been released.
+     *
+     * @param index position of the book.
+     * @param book book to be stored.
+     */
+    private void writeBook(int index, BookEntry book) {
+        String[] authors = book.authorsView();
+        authorStarts[index] = 0;        // the position must not take part in compacting the pool
+        authorCounts[index] = 0;
+        ensureAuthorPoolCapacity(authors.length);
+
+        authorStarts[index] = authorPoolSize;
+        for (String author : authors) {
+            authorPool[authorPoolSize++] = authorDictionary.getId(author);
+        }
+        authorCounts[index] = authors.length;
+        liveAuthorIds += authors.length;
+
+        writeTitle(index, book.getTitle());
+        ratings[index] = book.getRating();
+        writeIsbn(index, book.getISBN());
+        pages[index] = book.getPages();
+        hashes[index] = book.hashCode();
+    }
+
+    /**
+     * Find the position of the given book.
+     *
+     * Only the hash column is scanned until a book with matching hash code is found.
+     *
+     * @param o book to search for.
+     * @param fromEnd true to search from the last book backwards.
+     * @return position of the book or -1 if it is not stored.
+     */
+    private int findBook(Object o, boolean fromEnd) {
+        if (!(o instanceof BookEntry)) {
+            return -1;
+        }
+
+        int hash = o.hashCode();
+        for (int n = 0; n < size; n++) {
+            int i = fromEnd ? size - 1 - n : n;
+
+            if (hashes[i] == hash && get(i).equals(o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the number of books stored.
+     *
+     * @return number of books.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materialise the book at the given position.
+     *
+     * @param index position of the book.
+     * @return new book entry equal to the stored book.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    @Override
+    public BookEntry get(int index) {
+        return new BookEntry(getTitle(index), getAuthors(index), ratings[index], getISBN(index), pages[index]);
+    }
+
+    /**
+     * Replace the book at the given position.
+     *
+     * @param index position of the book.
+     * @param book new book.
+     * @return book previously stored at the position.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     * @throws NullPointerException if the given book is null.
+     */
+    @Override
+    public BookEntry set(int index, BookEntry book) {
+        Objects.requireNonNull(book, "Given book must not be null.");
+        BookEntry previous = get(index);
+
+        liveAuthorIds -= authorCounts[index];
+        liveTitleBytes -= titleByteCount(index);
+        writeBook(index, book);
+        return previous;
+    }
+
+    /**
+     * Insert a book at the given position.
+     *
+     * @param index position of the new book.
+     * @param book book to be inserted.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     * @throws NullPointerException if the given book is null.
+     */
+    @Override
+    public void add(int index, BookEntry book) {
+        Objects.checkIndex(index, size + 1);
+        Objects.requireNonNull(book, "Given book must not be null.");
+
+        ensureCapacity(size + 1);
+        moveBooks(index, index + 1);
+        size++;
+        writeBook(index, book);
+        modCount++;
+    }
+
+    /**
+     * Remove the book at the given position.
+     *
+     * @param index position of the book.
+     * @return removed book.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    @Override
+    public BookEntry remove(int index) {
+        BookEntry removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Remove all books within the given range of positions at once.
+     *
+     * @param fromIndex position of the first book to be removed.
+     * @param toIndex position after the last book to be removed.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            liveAuthorIds -= authorCounts[i];
+            liveTitleBytes -= titleByteCount(i);
+        }
+
+        int newSize = size - (toIndex - fromIndex);
+        moveBooks(toIndex, fromIndex);
+        if (unpackedIsbns != null) {
+            Arrays.fill(unpackedIsbns, newSize, size, null);
+        }
+        size = newSize;
+        modCount++;
+    }
+
+    /** Remove all books. Their author names stay in the author dictionary. */
+    @Override
+    public void clear() {
+        if (unpackedIsbns != null) {
+            Arrays.fill(unpackedIsbns, 0, size, null);
+        }
+        size = 0;
+        authorPoolSize = 0;
+        liveAuthorIds = 0;
+        titlePoolSize = 0;
+        liveTitleBytes = 0;
+        modCount++;
+    }
+
+    /**
+     * Check whether an equal book is stored.
+     *
+     * @param o book to search for.
+     * @return true if an equal book is stored, false otherwise.
+     */
+    @Override
+    public boolean contains(Object o) {
+        return findBook(o, false) >= 0;
+    }
+
+    /**
+     * Find the position of the first equal book.
+     *
+     * @param o book to search for.
+     * @return position of the book or -1 if it is not stored.
+     */
+    @Override
+    public int indexOf(Object o) {
+        return findBook(o, false);
+    }
+
+    /**
+     * Find the position of the last equal book.
+     *
+     * @param o book to search for.
+     * @return position of the book or -1 if it is not stored.
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        return findBook(o, true);
+    }
+
+    /**
+     * Get the title of the book at the given position without materialising it.
+     *
+     * @param index position of the book.
+     * @return new String holding the title.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    public String getTitle(int index) {
+        Objects.checkIndex(index, size);
+
+        int length = titleLengths[index];
+        if (length >= 0) {
+            return new String(titlePool, titleStarts[index], length, StandardCharsets.ISO_8859_1);
+        }
+        return new String(titlePool, titleStarts[index], ~length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the ISBN of the book at the given position without materialising it.
+     *
+     * @param index position of the book.
+     * @return ISBN.
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    public String getISBN(int index) {
+        Objects.checkIndex(index, size);
+
+        long packed = isbns[index];
+        return (packed == UNPACKED_ISBN) ? unpackedIsbns[index] : unpackIsbn(packed);
+    }
+
+    /**
+     * Get the author(s) of the book at the given position without materialising it.
+     *
+     * @param index position of the book.
+     * @return new array with the author(s).
+     * @throws IndexOutOfBoundsException if the given position is out of bounds.
+     */
+    public String[] getAuthors(int index) {
+        Objects.checkIndex(index, size);
+
+        String[] authors = new String[authorCounts[index]];
+        int start = authorStarts[index];
+        for (int i = 0; i < authors.length; i++) {
+            authors[i] = authorDictionary.getAuthor(authorPool[start + i]);
+        }
+        return authors;
+    }
+
+    /**
+     * Get a view of the titles of all books in list order.
+     *
+     * The view is backed by the title column and reflects later changes of the store.
+     *
+     * @return unmodifiable list of titles.
+     */
+    public List<String> getTitles() {
+        return new TitleView();
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Unmodifiable list view of the title column. */
+    private final class TitleView extends AbstractList<String> implements RandomAccess {
+
+        /**
+         * Get the title of the book at the given position.
+         *
+         * @param index position of the book.
+         * @return title.
+         */
+        @Override
+        public String get(int index) {
+            return getTitle(index);
+        }
+
+        /**
+         * Get the number of books stored.
+         *
+         * @return number of titles.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -34,6 +34,9 @@ public final class CommandFactory { // the final keyword prevents subclassing of
                 case SEARCH: return new SearchCmd(argumentInput);
                 case REMOVE: return new RemoveCmd(argumentInput);
                 case GROUP: return new GroupCmd(argumentInput);
+                case SAVE: return new SaveCmd(argumentInput);
+                case RESTORE: return new RestoreCmd(argumentInput);
+                case METRICS: return new MetricsCmd(argumentInput);
             }
         } catch (IllegalArgumentException e) {
             System.err.println();
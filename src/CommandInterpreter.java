@@ -48,10 +48,44 @@ public class CommandInterpreter {
      * @throws NullPointerException If one of the given parameters is null.
      */
     public void executeCommand(LibraryCommand command, LibraryData data) {
+        executeCommand(command, data, OutputSink.standard());
+    }
+
+    /**
+     * Execute the given command, directing all of its output to the given sink.
+     * 
+     * The execution time and handled rows are recorded in the command metrics
+     * of the given library, even if the command fails, and reported to Flight
+     * Recorder as a {@link LibraryCommandEvent}.
+     * 
+     * @param command Command to be executed.
+     * @param data book data to be considered for command execution.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException If one of the given parameters is null.
+     */
+    public void executeCommand(LibraryCommand command, LibraryData data, OutputSink output) {
         Objects.requireNonNull(command, "Given command must not be null.");
         Objects.requireNonNull(data, "Given data must not be null.");
+        Objects.requireNonNull(output, "Given output sink must not be null.");
 
-        command.execute(data);
+        LibraryCommandEvent event = new LibraryCommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            command.execute(data, output);
+        } finally {
+            if (command.getType() != null) {
+                data.getCommandMetrics().record(command.getType(), System.nanoTime() - start,
+                        command.getRowsScanned(), command.getRowsEmitted());
+            }
+            if (event.shouldCommit()) {
+                event.type = String.valueOf(command.getType());
+                event.arguments = command.getArgumentInput();
+                event.rowsScanned = command.getRowsScanned();
+                event.resultSize = command.getRowsEmitted();
+                event.commit();
+            }
+        }
     }
 
     /**
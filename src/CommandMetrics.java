@@ -0,0 +1,148 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of library commands, kept separately for each command type.
+ *
+ * For each type, the number of executions, a latency histogram and the
+ * number of rows scanned and emitted are recorded. Recording is lock-free and
+ * allocation-free, so metrics are always collected and may be recorded from
+ * any number of threads.
+ */
+public class CommandMetrics {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Metrics of each command type, created for all types up front. */
+    private final Map<CommandType, CommandStats> stats;
+    /** Value of System.nanoTime() when collecting metrics started. */
+    private final long startNanos;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create metrics without any recorded execution. */
+    public CommandMetrics() {
+        stats = new EnumMap<>(CommandType.class);
+        for (CommandType type : CommandType.values()) {
+            stats.put(type, new CommandStats());
+        }
+        startNanos = System.nanoTime();
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Record an execution of a command.
+     *
+     * @param type type of the executed command.
+     * @param nanos execution time in nanoseconds.
+     * @param rowsScanned number of book entries read by the command.
+     * @param rowsEmitted number of book entries produced by the command.
+     * @throws NullPointerException if the given type is null.
+     */
+    public void record(CommandType type, long nanos, long rowsScanned, long rowsEmitted) {
+        Objects.requireNonNull(type, "Given command type must not be null.");
+
+        CommandStats typeStats = stats.get(type);
+        typeStats.executions.increment();
+        typeStats.totalNanos.add(nanos);
+        typeStats.rowsScanned.add(rowsScanned);
+        typeStats.rowsEmitted.add(rowsEmitted);
+        typeStats.latency.record(nanos);
+    }
+
+    /**
+     * Get the metrics of the given command type.
+     *
+     * @param type command type.
+     * @return metrics of the type, updated by later executions.
+     * @throws NullPointerException if the given type is null.
+     */
+    public CommandStats getStats(CommandType type) {
+        Objects.requireNonNull(type, "Given command type must not be null.");
+
+        return stats.get(type);
+    }
+
+    /**
+     * Get the time since collecting metrics started.
+     *
+     * @return elapsed time in nanoseconds.
+     */
+    public long getUptimeNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Execution metrics of a single command type. */
+    public static final class CommandStats {
+
+        /** Number of executions. */
+        private final LongAdder executions;
+        /** Sum of all execution times in nanoseconds. */
+        private final LongAdder totalNanos;
+        /** Number of book entries read by all executions. */
+        private final LongAdder rowsScanned;
+        /** Number of book entries produced by all executions. */
+        private final LongAdder rowsEmitted;
+        /** Execution times in nanoseconds. */
+        private final LatencyHistogram latency;
+
+        /** Create metrics without any recorded execution. */
+        private CommandStats() {
+            executions = new LongAdder();
+            totalNanos = new LongAdder();
+            rowsScanned = new LongAdder();
+            rowsEmitted = new LongAdder();
+            latency = new LatencyHistogram();
+        }
+
+        /**
+         * Get the number of executions.
+         *
+         * @return number of recorded executions.
+         */
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        /**
+         * Get the sum of all execution times.
+         *
+         * @return total execution time in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Get the number of book entries read by all executions.
+         *
+         * @return number of rows scanned.
+         */
+        public long getRowsScanned() {
+            return rowsScanned.sum();
+        }
+
+        /**
+         * Get the number of book entries produced by all executions.
+         *
+         * @return number of rows emitted.
+         */
+        public long getRowsEmitted() {
+            return rowsEmitted.sum();
+        }
+
+        /**
+         * Get the histogram of execution times.
+         *
+         * @return execution times in nanoseconds.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+}
@@ -1,10 +1,36 @@
 /** All available command types. */
 public enum CommandType {
-    HELP,
-    EXIT,
-    ADD,
-    SEARCH,
-    LIST,
-    REMOVE,
-    GROUP
+    HELP(false),
+    EXIT(false),
+    ADD(true),
+    SEARCH(false),
+    LIST(false),
+    REMOVE(true),
+    GROUP(false),
+    SAVE(false),
+    RESTORE(true),
+    METRICS(false);
+
+    /** True if commands of this type change the library. */
+    private final boolean modifying;
+
+    /**
+     * Create a command type.
+     *
+     * @param modifying true if commands of this type change the library.
+     */
+    CommandType(boolean modifying) {
+        this.modifying = modifying;
+    }
+
+    /**
+     * Check whether commands of this type change the library.
+     *
+     * Commands which do not may safely be executed concurrently.
+     *
+     * @return true if the library is changed, false if it is only read.
+     */
+    public boolean isModifying() {
+        return modifying;
+    }
 }
@@ -4,7 +4,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.SortedMap;
 
 /**
  * Group command used as a varied list command.
@@ -39,19 +40,17 @@ public class GroupCmd extends LibraryCommand {
     /**
      * Group library by title.
      *
-     * @param books book entries.
+     * @param library library version containing book entries.
+     * @param output destination of the printed output.
      */
-    private void groupByTitle(List<BookEntry> books) {
+    private void groupByTitle(LibraryVersion library, OutputSink output) {
         HashMap<Character, ArrayList<String>> letterMap = initialiseLetterMap();
 
-        ArrayList<String> bookTitles = new ArrayList<>();
-        for (BookEntry book : books) {
-            bookTitles.add(book.getTitle());
-        }
-
+        List<String> bookTitles = library.getTitles();
+        recordRows(bookTitles.size(), bookTitles.size());
         assignTitlesToGroup(letterMap, bookTitles);
         removeEmptyGroups(letterMap);
-        printTitleGroups(letterMap);
+        printTitleGroups(letterMap, output);
     }
 
     /**
@@ -84,7 +83,7 @@ public class GroupCmd extends LibraryCommand {
      * @param letterMap HashMap with letters as key and title groups as value.
      * @param bookTitles list of all book titles in library.
      */
-    private void assignTitlesToGroup(HashMap<Character, ArrayList<String>> letterMap, ArrayList<String> bookTitles) {
+    private void assignTitlesToGroup(HashMap<Character, ArrayList<String>> letterMap, List<String> bookTitles) {
         for (String title : bookTitles) {
             ArrayList<String> letterGroup;
             char firstLetter = title.charAt(0);
@@ -120,8 +119,9 @@ public class GroupCmd extends LibraryCommand {
      * Print title groups.
      *
      * @param letterMap HashMap with letters as key and title groups as value.
+     * @param output destination of the printed output.
      */
-    private void printTitleGroups(HashMap<Character, ArrayList<String>> letterMap) {
+    private void printTitleGroups(HashMap<Character, ArrayList<String>> letterMap, OutputSink output) {
         Iterator<Map.Entry<Character, ArrayList<String>>> letterMapIterator = letterMap.entrySet().iterator();
         StringBuilder titleGroups = new StringBuilder();
 
@@ -137,7 +137,7 @@ public class GroupCmd extends LibraryCommand {
             }
         }
 
-        System.out.println(titleGroups);
+        output.println(titleGroups);
     }
 
     /**
@@ -162,50 +162,43 @@ public class GroupCmd extends LibraryCommand {
     /**
      * Group library by author.
      *
-     * @param books book entries.
+     * Authors and their books are taken from the author index of the
+     * library, which is already ordered by author name.
+     *
+     * @param library library version containing book entries.
+     * @param output destination of the printed output.
      */
-    private void groupByAuthor(List<BookEntry> books) {
-        TreeMap<String, ArrayList<String>> authorMap = new TreeMap<>();
-
-        for (BookEntry book : books) {
-            String[] bookAuthors = book.getAuthors();
-
-            for (String author : bookAuthors) {
-                ArrayList<String> authorBookGroup = new ArrayList<>();
-
-                if (!authorMap.containsKey(author)) { // Condition: There does not exist a book group for this author yet.
-                    authorBookGroup.add(book.getTitle());
-                    authorMap.put(author, authorBookGroup);
-                } else {
-                    authorBookGroup = authorMap.get(author);
-                    authorBookGroup.add(book.getTitle());
-                }
-            }
+    private void groupByAuthor(LibraryVersion library, OutputSink output) {
+        SortedMap<String, Set<BookEntry>> authorGroups = library.getAuthorGroups();
+
+        long groupedBooks = 0;
+        for (Set<BookEntry> group : authorGroups.values()) {
+            groupedBooks += group.size();
         }
+        recordRows(library.getBookCount(), groupedBooks);
 
-        printAuthorGroups(authorMap);
+        printAuthorGroups(authorGroups, output);
     }
 
     /**
      * Print author groups.
      *
-     * @param authorMap TreeMap with author names as key and their books as value.
+     * @param authorMap SortedMap with author names as key and their books as value.
+     * @param output destination of the printed output.
      */
-    private void printAuthorGroups(TreeMap<String, ArrayList<String>> authorMap) {
+    private void printAuthorGroups(SortedMap<String, Set<BookEntry>> authorMap, OutputSink output) {
         StringBuilder authorGroups = new StringBuilder();
 
-        for (Map.Entry<String, ArrayList<String>> entry : authorMap.entrySet()) {
+        for (Map.Entry<String, Set<BookEntry>> entry : authorMap.entrySet()) {
             String groupHeader = String.format("## %s", entry.getKey());
             authorGroups.append("\n").append(groupHeader);
 
-            Object[] titles = entry.getValue().toArray();
-
-            for (Object title : titles) {
-                authorGroups.append("\n\t").append(title);
+            for (BookEntry book : entry.getValue()) {
+                authorGroups.append("\n\t").append(book.getTitle());
             }
         }
 
-        System.out.println(authorGroups);
+        output.println(authorGroups);
     }
 
 
@@ -231,27 +224,29 @@ public class GroupCmd extends LibraryCommand {
     }
 
     /**
-     * Execute group command.
+     * Execute group command on the version of the library current at its start.
      *
      * @param data library data containing book entries.
-     * @throws NullPointerException if given data is null.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
      */
     @Override
-    public void execute(LibraryData data) {
+    public void execute(LibraryData data, OutputSink output) {
         Objects.requireNonNull(data, "Provided data for GroupCmd execution must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for GroupCmd execution must not be null.");
 
-        List<BookEntry> library = data.getBookData();
+        LibraryVersion library = data.getCurrentVersion();
 
-        if (library.isEmpty()) {
-            System.out.println("The library has no book entries.");
+        if (library.getBookCount() == 0) {
+            output.println("The library has no book entries.");
         } else {
-            System.out.printf("Grouped data by %s", groupBy);
+            output.printf("Grouped data by %s", groupBy);
             switch (groupBy) {
                 case TITLE:
-                    groupByTitle(library);
+                    groupByTitle(library, output);
                     break;
                 case AUTHOR:
-                    groupByAuthor(library);
+                    groupByAuthor(library, output);
             }
         }
     }
@@ -24,10 +24,11 @@ public class HelpCmd extends LibraryCommand {
      * and corresponding usage to the console.
      *
      * @param data book data to be considered for command execution.
+     * @param output destination of all output produced by the command.
      */    
     @Override
-    public void execute(LibraryData data) {       
-        System.out.println(helpOutput);
+    public void execute(LibraryData data, OutputSink output) {       
+        output.println(helpOutput);
     }
 
     private String buildHelpOutput() {
@@ -36,11 +37,14 @@ public class HelpCmd extends LibraryCommand {
 
         bld.append(padding).append(CommandType.HELP);
         bld.append(padding).append(CommandType.EXIT);
-        bld.append(padding).append(CommandType.ADD).append(" path/to/book/data.csv");
+        bld.append(padding).append(CommandType.ADD).append(" path/to/book/data.csv[.gz]|path/to/directory|path/to/part-*.csv");
         bld.append(padding).append(CommandType.LIST).append(" [short|long]");
         bld.append(padding).append(CommandType.SEARCH).append(" <value>");
         bld.append(padding).append(CommandType.REMOVE).append(" TITLE|AUTHOR <value>");
         bld.append(padding).append(CommandType.GROUP).append(" TITLE|AUTHOR");
+        bld.append(padding).append(CommandType.SAVE).append(" path/to/library.snapshot");
+        bld.append(padding).append(CommandType.RESTORE).append(" path/to/library.snapshot");
+        bld.append(padding).append(CommandType.METRICS).append(" [text|json]");
 
         return bld.toString();
     }
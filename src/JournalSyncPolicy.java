@@ -0,0 +1,9 @@
+/** Available policies for forcing library journal records to the storage device. */
+public enum JournalSyncPolicy {
+    /** Every change waits until its record has been forced. Concurrent changes share one force. */
+    ALWAYS,
+    /** Records are forced periodically, so a crash loses at most the changes of the last interval. */
+    INTERVAL,
+    /** Records are never forced, writing them to the device is left to the operating system. */
+    NEVER
+}
@@ -0,0 +1,149 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Histogram of latencies in nanoseconds with a bounded relative error.
+ *
+ * Values are counted in log-linear buckets in the style of HdrHistogram:
+ * every power of two is split into {@value #SUB_BUCKET_HALF_COUNT} buckets of
+ * equal width, so a reported percentile exceeds the recorded value by at most
+ * 1/{@value #SUB_BUCKET_HALF_COUNT} of it. Values below
+ * {@value #SUB_BUCKET_COUNT} are counted exactly.
+ *
+ * Recording takes a few atomic increments without locking or allocation,
+ * so it may be done permanently and from any number of threads. Percentiles
+ * read while values are recorded may miss the most recent values.
+ */
+public class LatencyHistogram {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of bits of a value used to select its bucket within a power of two. */
+    private static final int SUB_BUCKET_BITS = 6;
+    /** Number of values counted exactly. */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** Number of buckets per power of two above the exactly counted values. */
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    /** Number of buckets needed to cover all non-negative long values. */
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    /** Number of recorded values per bucket. */
+    private final AtomicLongArray buckets;
+    /** Number of recorded values. */
+    private final LongAdder count;
+    /** Largest recorded value. */
+    private final LongAccumulator max;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new and empty histogram. */
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKET_COUNT);
+        count = new LongAdder();
+        max = new LongAccumulator(new LongBinaryOperator() {
+            @Override
+            public long applyAsLong(long left, long right) {
+                return Math.max(left, right);
+            }
+        }, 0);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Get the bucket counting the given value.
+     *
+     * @param value non-negative value.
+     * @return bucket index.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * Get the largest value counted by the given bucket.
+     *
+     * @param index bucket index.
+     * @return largest value of the bucket.
+     */
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Record a latency. Negative values are recorded as 0.
+     *
+     * @param nanos latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        max.accumulate(value);
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return number of recorded latencies.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the largest recorded value.
+     *
+     * @return largest latency in nanoseconds, 0 if none has been recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the value below or at which the given percentage of recorded values lie.
+     *
+     * @param percentile percentage between 0 and 100.
+     * @return latency in nanoseconds, never above the largest recorded value,
+     * 0 if none has been recorded.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Given percentile must be between 0 and 100: " + percentile);
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -1,3 +1,8 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
 import java.util.Scanner;
 
 /**
@@ -21,55 +26,149 @@ public class LibraryBrowser {
      * Create library browser.
      */
     public LibraryBrowser() {
-        data = new LibraryData();
+        this(StorageLayout.OBJECTS);
+    }
+
+    /**
+     * Create library browser holding book data in the given memory layout.
+     *
+     * @param layout memory layout of the book data.
+     * @throws NullPointerException if the given layout is null.
+     */
+    public LibraryBrowser(StorageLayout layout) {
+        this(new LibraryData(layout));
+    }
+
+    /**
+     * Create library browser for the given book data.
+     *
+     * @param data book data to be browsed, e.g. recovered from a journal.
+     * @throws NullPointerException if the given data is null.
+     */
+    public LibraryBrowser(LibraryData data) {
+        this.data = Objects.requireNonNull(data, "Given data must not be null.");
         cmdIntrp = new CommandInterpreter();
         stdInScan = new Scanner(System.in);
     }
 
-    /** Run the library browser and start the corresponding main loop. */
+    /**
+     * Run the library browser and start the corresponding main loop.
+     *
+     * Regular output is buffered and written once per command, error
+     * messages are written in order with it as soon as they occur.
+     */
     public void run() {
-        mainLoop();
+        OutputSink output = OutputSink.interactive(System.out, System.err);
+        try {
+            mainLoop(output);
+        } finally {
+            output.flush();
+        }
         stdInScan.close();
     }
 
+    /**
+     * Run the library browser on the commands of the given file without user interaction.
+     *
+     * Commands are executed line by line until an EXIT command or the end of
+     * the file is reached. Blank lines are skipped. No prompts are displayed and
+     * output is buffered until all commands have been executed, which avoids
+     * flushing after every printed line.
+     *
+     * @param commandFile file containing one command per line.
+     * @return true if the command file could be read completely, false otherwise.
+     * @throws NullPointerException if the given path is null.
+     */
+    public boolean runBatch(Path commandFile) {
+        Objects.requireNonNull(commandFile, "Given command file must not be null.");
+
+        OutputSink output = OutputSink.buffered(System.out, System.err);
+        try (BufferedReader commandReader = Files.newBufferedReader(commandFile)) {
+            batchLoop(commandReader, output);
+            return true;
+        } catch (IOException | SecurityException e) {
+            output.error("ERROR: Reading command file failed: " + e);
+            return false;
+        } finally {
+            output.flush();
+        }
+    }
+
     /**
      * Main loop of the library browser programme.
      * 
      * It asks for user input via a command prompt, creates a 
      * corresponding command and executes it.
+     *
+     * @param output destination of all output, flushed before each prompt.
      */
-    private void mainLoop() {
+    private void mainLoop(OutputSink output) {
         boolean exit = false; 
 
-        System.out.println("\nEnter a library command or type " + CommandType.HELP + " for command overview.");
+        output.println("\nEnter a library command or type " + CommandType.HELP + " for command overview.");
         
         while(!exit) {
-            String inputLine = promptUser();
+            String inputLine = promptUser(output);
             if (inputLine == null) {
-                System.err.println("ERROR: User input could not be read successfully.");
+                output.error("ERROR: User input could not be read successfully.");
                 continue;
             }
             
-            LibraryCommand command = cmdIntrp.parseCommand(inputLine);
-            if (command == null) {
-                System.err.println("ERROR: Given command input is invalid: " + inputLine);
+            exit = processInput(inputLine, output);
+        }
+    }
+
+    /**
+     * Batch loop of the library browser programme.
+     *
+     * It reads commands line by line from the given reader and executes them.
+     *
+     * @param commandReader reader providing one command per line.
+     * @param output destination of all output.
+     * @throws IOException if reading fails.
+     */
+    private void batchLoop(BufferedReader commandReader, OutputSink output) throws IOException {
+        boolean exit = false;
+        String inputLine;
+
+        while (!exit && (inputLine = commandReader.readLine()) != null) {
+            if (!inputLine.isBlank()) {
+                exit = processInput(inputLine, output);
+            }
+        }
+    }
+
+    /**
+     * Create a command from the given input and execute it.
+     *
+     * @param inputLine single line of command input.
+     * @param output destination of all output produced by the command.
+     * @return true if the input was an exit command, false otherwise.
+     */
+    private boolean processInput(String inputLine, OutputSink output) {
+        LibraryCommand command = cmdIntrp.parseCommand(inputLine);
+        if (command == null) {
+            output.error("ERROR: Given command input is invalid: " + inputLine);
+        } else {
+            if (command instanceof ExitCmd) {
+                return true;
             } else {
-                if (command instanceof ExitCmd) {
-                    exit = true;
-                } else {
-                    cmdIntrp.executeCommand(command, data);
-                }
-            }           
+                cmdIntrp.executeCommand(command, data, output);
+            }
         }
+        return false;
     }
 
     /**
      * Display user command prompt and 
      * read corresponding input from StdIn.
+     * All output buffered so far is written before waiting for input.
+     * @param output destination of the prompt
      * @return provided user input or null if stream problem
      */
-    private String promptUser() {
-        System.out.print("> ");
+    private String promptUser(OutputSink output) {
+        output.print("> ");
+        output.flush();
         if (stdInScan.hasNextLine()) {
             return stdInScan.nextLine();
         } else {
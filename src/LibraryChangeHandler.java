@@ -0,0 +1,36 @@
+import java.util.List;
+
+/**
+ * Receiver for library changes which are replayed
+ * from a library journal during recovery.
+ */
+public interface LibraryChangeHandler {
+
+    /**
+     * Handle books which had been added to the library.
+     *
+     * @param added added books in library order, free of duplicates.
+     */
+    void booksAdded(List<BookEntry> added);
+
+    /**
+     * Handle the removal of the first book with the given title.
+     *
+     * @param title title of the removed book.
+     */
+    void titleRemoved(String title);
+
+    /**
+     * Handle the removal of all books of the given author.
+     *
+     * @param author author whose books were removed.
+     */
+    void authorRemoved(String author);
+
+    /**
+     * Handle the replacement of all books of the library.
+     *
+     * @param restored books held by the library afterwards, in library order.
+     */
+    void booksRestored(List<BookEntry> restored);
+}
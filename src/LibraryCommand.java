@@ -8,6 +8,13 @@ public abstract class LibraryCommand {
 
 	/** This commands specific type. */
 	private CommandType type;
+	/** Argument input this command has been initialised with. */
+	private String argumentInput;
+
+	/** Number of book entries read by the last execution. */
+	private long rowsScanned;
+	/** Number of book entries produced by the last execution. */
+	private long rowsEmitted;
 
 	/**
 	 * Create the specified command and initialise it with 
@@ -22,6 +29,7 @@ public abstract class LibraryCommand {
 		Objects.requireNonNull(type, "Given type must not be null.");
 		Objects.requireNonNull(argumentInput, "Given argument input must not be null.");
 		this.type = type;
+		this.argumentInput = argumentInput;
 
 		if (!parseArguments(argumentInput)) {
 		    throw new IllegalArgumentException("Invalid argument for " + type + " command: " + argumentInput);
@@ -40,14 +48,63 @@ public abstract class LibraryCommand {
 		return type;
 	}
 
+	/**
+	 * The argument input this command has been initialised with.
+	 * @return argument input, null if the command has been created without arguments
+	 */
+	public String getArgumentInput() {
+		return argumentInput;
+	}
+
+	/**
+	 * Number of book entries read by the last execution, as reported in command metrics.
+	 * @return rows scanned, 0 if not recorded
+	 */
+	public long getRowsScanned() {
+		return rowsScanned;
+	}
+
+	/**
+	 * Number of book entries produced by the last execution, as reported in command metrics.
+	 * @return rows emitted, 0 if not recorded
+	 */
+	public long getRowsEmitted() {
+		return rowsEmitted;
+	}
+
+	/**
+	 * Record the book entries handled by the current execution.
+	 * 
+	 * Subclasses should call this method during execution if they read or
+	 * produce book entries, so their cost shows up in command metrics.
+	 * 
+	 * @param scanned number of book entries read.
+	 * @param emitted number of book entries produced, e.g. listed, saved, added or removed.
+	 */
+	protected void recordRows(long scanned, long emitted) {
+		rowsScanned = scanned;
+		rowsEmitted = emitted;
+	}
+
+	/**
+	 * Execute the specific command, writing its output straight
+	 * through to System.out and System.err.
+	 * 
+	 * @param data book data to be considered for command execution.
+	 */
+	public void execute(LibraryData data) {
+		execute(data, OutputSink.standard());
+	}
+
 	/**
 	 * Execute the specific command.
 	 * 
 	 * Subclasses must override this method to specify corresponding behaviour.
 	 * 
 	 * @param data book data to be considered for command execution.
+	 * @param output destination of all output produced by the command.
 	 */
-	public abstract void execute(LibraryData data);
+	public abstract void execute(LibraryData data, OutputSink output);
 
 	/**
 	 * Parses the given command arguments and initialised necessary
@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for the execution of a library command. */
+@Name("library.Command")
+@Label("Library Command")
+@Category({ "Library", "Commands" })
+@Description("Library command executed by the command interpreter")
+public final class LibraryCommandEvent extends Event {
+
+    /** Type of the command. */
+    @Label("Type")
+    String type;
+
+    /** Argument input of the command. */
+    @Label("Arguments")
+    String arguments;
+
+    /** Number of book entries read by the command. */
+    @Label("Rows Scanned")
+    long rowsScanned;
+
+    /** Number of book entries produced by the command. */
+    @Label("Result Size")
+    long resultSize;
+}
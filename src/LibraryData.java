@@ -1,75 +1,916 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
 
-/** 
+/**
  * Class responsible for handling currently loaded
  * book data and loading additional data from file.
+ *
+ * All methods are safe to be called from multiple threads. The library is
+ * held as an immutable version which is replaced as a whole by every change,
+ * see {@link LibraryVersion}. Changes are made one at a time, readers never
+ * wait for them. Each change becomes visible at once when it is complete, so
+ * readers never see a partly loaded file or partly removed author.
+ *
+ * If a journal has been opened, every change is recorded in it before
+ * it becomes visible, see {@link LibraryJournal}. Once writing the journal
+ * has failed, changes are reported as not journaled: changes which cannot
+ * be recorded anymore are not made, changes which have been made but did
+ * not become durable are reported as such.
  */
 public class LibraryData {
 
-    /** Currently loaded book data. */
-    private final List<BookEntry> books;
+    /** Maximum number of book entries parsed ahead of merging them during loading. */
+    private static final int LOAD_BATCH_SIZE = 4096;
+    /** File size in bytes from which book data files are parsed in parallel. */
+    private static final long PARALLEL_LOAD_THRESHOLD = 8 * 1024 * 1024;
+    /** Number of files per parser thread which may be parsed ahead of merging them when loading several files. */
+    private static final int MAX_FILES_PARSED_AHEAD = 2;
+    /** Journal sequence number standing for a change which has not been recorded. */
+    private static final long NOT_RECORDED = 0;
 
-    /** Create a new and empty book library. */
+    /** Memory layout of the book data. */
+    private final StorageLayout layout;
+    /**
+     * Dictionary of all author names ever held by the library, so books sharing
+     * an author share a single instance of the name. Author ids are taken from it.
+     */
+    private final AuthorDictionary authorDictionary;
+    /** Current version of the library, replaced by every change. Only replaced while holding the write lock. */
+    private volatile LibraryVersion currentVersion;
+
+    /**
+     * Hash index containing fingerprints of the same book entries as the current
+     * version. Allows for duplicate detection without keeping the entries alive;
+     * books are only looked up and compared if their fingerprints match. Only
+     * used while holding the write lock.
+     */
+    private final BookFingerprintSet bookIndex;
+    /** Held while changing the library, so changes are made one at a time. */
+    private final ReentrantLock writeLock;
+    /** Journal recording every change, null if changes are not recorded. Only replaced while holding the write lock. */
+    private volatile LibraryJournal journal;
+    /** Execution metrics of the commands executed on this library. */
+    private final CommandMetrics commandMetrics;
+
+    /** Create a new and empty book library holding one object per book. */
     public LibraryData() {
-        books = new ArrayList<>();
+        this(StorageLayout.OBJECTS);
+    }
+
+    /**
+     * Create a new and empty book library.
+     *
+     * @param layout memory layout of the book data.
+     * @throws NullPointerException if the given layout is null.
+     */
+    public LibraryData(StorageLayout layout) {
+        this.layout = Objects.requireNonNull(layout, "Given storage layout must not be null.");
+
+        authorDictionary = new AuthorDictionary();
+        bookIndex = new BookFingerprintSet();
+        writeLock = new ReentrantLock();
+        commandMetrics = new CommandMetrics();
+        publish(LibraryVersion.empty());
+    }
+
+    /**
+     * Make the given version the current one.
+     *
+     * NOTE: Requires the write lock to be held, except during construction.
+     *
+     * @param version new current version.
+     */
+    private void publish(LibraryVersion version) {
+        currentVersion = version;
+    }
+
+    /**
+     * Make the given changed version the current one, starting a
+     * checkpoint of the journal if it has grown large.
+     *
+     * NOTE: Requires the write lock to be held and the change to be appended to the journal.
+     *
+     * @param version new current version.
+     */
+    private void publishChange(LibraryVersion version) {
+        publish(version);
+        if (journal != null && journal.isCheckpointDue()) {
+            journal.checkpoint(version.getBookData());
+        }
+    }
+
+    /**
+     * Wait until the given journal record is durable as required by the sync policy of the journal.
+     *
+     * NOTE: Must be called after releasing the write lock, so other changes can be appended meanwhile.
+     *
+     * @param record journal sequence number of a change, {@value #NOT_RECORDED} if it has not been recorded.
+     * @param change description of the change, which has been made already.
+     * @throws UncheckedIOException if the change is not durable since writing the journal has failed.
+     */
+    private void awaitRecorded(long record, String change) {
+        LibraryJournal recording = journal;
+        if (recording != null && record != NOT_RECORDED) {
+            try {
+                recording.awaitDurable(record);
+            } catch (UncheckedIOException e) {
+                throw notJournaled(change + ", but", e);
+            }
+        }
+    }
+
+    /**
+     * Create the exception reporting a change which has not been journaled.
+     *
+     * @param change description of the change, completed by "not journaled".
+     * @param failure failure of the journal.
+     * @return exception whose message describes the change and the failure.
+     */
+    private static UncheckedIOException notJournaled(String change, UncheckedIOException failure) {
+        return new UncheckedIOException(change + " not journaled: " + failure.getCause(), failure.getCause());
+    }
+
+    /**
+     * Open the journal in the given directory, recovering all changes recorded in it,
+     * and record all further changes in it.
+     *
+     * Recovered changes are not printed. If the journal has grown large,
+     * a checkpoint is started right away.
+     *
+     * @param directory directory holding the journal, created if missing.
+     * @param syncPolicy policy for forcing journal records to the storage device.
+     * @throws IOException if the journal cannot be read or opened.
+     * @throws IllegalStateException if a journal has already been opened or the library is not empty.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public void openJournal(Path directory, JournalSyncPolicy syncPolicy) throws IOException {
+        Objects.requireNonNull(directory, "Given directory must not be null.");
+        Objects.requireNonNull(syncPolicy, "Given sync policy must not be null.");
+
+        writeLock.lock();
+        try {
+            if (journal != null) {
+                throw new IllegalStateException("A journal has already been opened.");
+            }
+            if (currentVersion.getBookCount() > 0) {
+                throw new IllegalStateException("A journal must be opened before loading any book data.");
+            }
+
+            journal = LibraryJournal.open(directory, syncPolicy, new JournalReplayer());
+            if (journal.isCheckpointDue()) {
+                journal.checkpoint(currentVersion.getBookData());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stop recording changes and close the journal after writing all recorded changes.
+     * Has no effect if no journal has been opened.
+     */
+    public void closeJournal() {
+        LibraryJournal closing;
+        writeLock.lock();
+        try {
+            closing = journal;
+            journal = null;
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (closing != null) {
+            closing.close();
+        }
+    }
+
+    /**
+     * Get the current version of the library.
+     *
+     * Commands should read a single version throughout their execution, so
+     * their output is consistent even if the library is changed meanwhile.
+     *
+     * @return immutable current version.
+     */
+    public LibraryVersion getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Get the execution metrics of the commands executed on this library.
+     *
+     * @return command metrics, updated by later executions.
+     */
+    public CommandMetrics getCommandMetrics() {
+        return commandMetrics;
     }
 
-    /** 
+    /**
      * Get all available book entries.
      *
-     * @return available book entries
+     * @return unmodifiable book entries of the current version, unaffected by later changes of the library
      */
     public List<BookEntry> getBookData() {
-        return books;
+        return getCurrentVersion().getBookData();
+    }
+
+    /**
+     * Get the number of available book entries.
+     *
+     * @return number of book entries in the library.
+     */
+    public int getBookCount() {
+        return getCurrentVersion().getBookCount();
+    }
+
+    /**
+     * Get the titles of all available book entries in library order.
+     *
+     * For a columnar library, the titles are read directly from
+     * the title column without materialising any book entries.
+     *
+     * @return unmodifiable titles of the current version, unaffected by later changes of the library.
+     */
+    public List<String> getTitles() {
+        return getCurrentVersion().getTitles();
+    }
+
+    /**
+     * Find all books whose title contains the given search value, ignoring case.
+     *
+     * @param searchValue value to search for.
+     * @return matching books in library order.
+     * @throws NullPointerException if the given search value is null.
+     */
+    public List<BookEntry> searchByTitle(String searchValue) {
+        return getCurrentVersion().searchByTitle(searchValue);
+    }
+
+    /**
+     * Get all authors with their books.
+     *
+     * @return unmodifiable books of each author in library order,
+     * in alphabetical order of authors, unaffected by later changes of the library.
+     */
+    public SortedMap<String, Set<BookEntry>> getAuthorGroups() {
+        return getCurrentVersion().getAuthorGroups();
+    }
+
+    /**
+     * Check whether the given file is large enough to be parsed in parallel.
+     *
+     * @param libraryFile path to book data file.
+     * @return true if parallel parsing is worthwhile, false otherwise or if the
+     * file size cannot be determined.
+     */
+    private boolean isLargeFile(Path libraryFile) {
+        try {
+            return Files.size(libraryFile) >= PARALLEL_LOAD_THRESHOLD;
+        } catch (IOException | SecurityException e) {
+            return false;       // sequential loading will report the problem
+        }
     }
 
     /**
      * Initiate book data loading for the given path.
      *
+     * Large files are parsed in parallel, smaller files sequentially.
+     *
      * @param libraryFile specified path to book data file
      * @return true if loading was successful, false otherwise
      * @throws NullPointerException if the given path is null
      */
     public boolean loadData(Path libraryFile) {
+        return loadData(libraryFile, OutputSink.standard());
+    }
+
+    /**
+     * Initiate book data loading for the given path.
+     *
+     * Large files are read, parsed in parallel and merged in overlapping
+     * pipeline stages, see {@link ParallelFileLoader}, smaller files are
+     * loaded sequentially. The loaded books become visible at once when the whole file has been
+     * loaded. If loading fails or throws an exception, the library stays
+     * unchanged and none of the file's books are taken as loaded. Loading
+     * is reported as failed as well if the change has not been journaled.
+     *
+     * @param libraryFile specified path to book data file
+     * @param output destination of messages about loaded, duplicate and invalid book entries
+     * @return true if loading was successful, false otherwise
+     * @throws NullPointerException if any of the given parameters is null
+     */
+    public boolean loadData(Path libraryFile, OutputSink output) {
+        return loadData(libraryFile, output, new LoadCounts());
+    }
+
+    /**
+     * Initiate book data loading for the given path, like
+     * {@link #loadData(Path, OutputSink)}, counting parsed lines and added
+     * book entries in the given counts.
+     *
+     * @param libraryFile specified path to book data file
+     * @param output destination of messages about loaded, duplicate and invalid book entries
+     * @param counts counts receiving the numbers of parsed lines and added book entries
+     * @return true if loading was successful, false otherwise
+     * @throws NullPointerException if any of the given parameters is null
+     */
+    public boolean loadData(Path libraryFile, OutputSink output, LoadCounts counts) {
         Objects.requireNonNull(libraryFile, "Given file path must not be null.");
-               
-        LibraryFileLoader loader = new LibraryFileLoader();
-        boolean success = loader.loadFileContent(libraryFile);
+        Objects.requireNonNull(output, "Given output sink must not be null.");
+        Objects.requireNonNull(counts, "Given load counts must not be null.");
+
+        BatchMerger merger = new BatchMerger(output);
+        boolean success;
+        long lines;
+        long record = NOT_RECORDED;
 
+        writeLock.lock();
+        try {
+            LibraryVersion version = currentVersion;
+
+            if (isLargeFile(libraryFile)) {
+                ParallelFileLoader loader =
+                        new ParallelFileLoader(ForkJoinPool.commonPool(), output, authorDictionary);
+                success = loader.streamFileContent(libraryFile, merger);
+                lines = loader.getLinesParsed();
+            } else {
+                LibraryFileLoader loader = new LibraryFileLoader(output, authorDictionary);
+                success = loader.streamFileContent(libraryFile, LOAD_BATCH_SIZE, merger);
+                lines = loader.getLinesParsed();
+            }
+
+            if (success) {
+                record = merger.publish(version);
+            }
+        } finally {
+            merger.rollBackUnpublished();
+            writeLock.unlock();
+        }
+        merger.awaitRecorded(record);
+        counts.set(lines, merger.published ? merger.added : 0);
+
+        if (merger.notJournaled != null) {
+            output.error("ERROR: " + merger.notJournaled.getMessage());
+            return false;
+        }
         if (success) {
-            List<BookEntry> loaded = loader.parseFileContent();
-            int added = mergeEntries(loaded);
-            System.out.println(added + " new book entries added.");
+            output.println(merger.added + " new book entries added.");
         } else {
-            System.err.println("ERROR: Loading book data failed for file: " + libraryFile);
+            output.error("ERROR: Loading book data failed for file: " + libraryFile);
         }
 
         return success;
     }
 
     /**
-     * Merge the list of book entries with the
-     * entries already loaded.
-     * 
+     * Initiate book data loading for all given paths as a single change.
+     *
+     * Files are read and parsed concurrently on a pool of at most as many
+     * threads as there are processors, but merged in the given order, so
+     * which books are reported as duplicates does not depend on which file is
+     * parsed first. Parsing is kept at most a few files ahead of merging,
+     * which bounds the memory held by parsed but unmerged books. Messages
+     * about each file are printed in the given order as well, followed by a
+     * single summary line. If any file cannot be loaded or loading throws
+     * an exception, the library stays unchanged. Loading is reported as
+     * failed as well if the change has not been journaled.
+     *
+     * @param libraryFiles paths to book data files in merge order
+     * @param output destination of messages about loaded, duplicate and invalid book entries
+     * @return true if loading was successful, false otherwise
+     * @throws NullPointerException if any of the given parameters or paths is null
+     * @throws IllegalArgumentException if no path is given
+     */
+    public boolean loadData(List<Path> libraryFiles, OutputSink output) {
+        return loadData(libraryFiles, output, new LoadCounts());
+    }
+
+    /**
+     * Initiate book data loading for all given paths as a single change, like
+     * {@link #loadData(List, OutputSink)}, counting parsed lines and added
+     * book entries in the given counts.
+     *
+     * @param libraryFiles paths to book data files in merge order
+     * @param output destination of messages about loaded, duplicate and invalid book entries
+     * @param counts counts receiving the numbers of parsed lines and added book entries
+     * @return true if loading was successful, false otherwise
+     * @throws NullPointerException if any of the given parameters or paths is null
+     * @throws IllegalArgumentException if no path is given
+     */
+    public boolean loadData(List<Path> libraryFiles, OutputSink output, LoadCounts counts) {
+        Objects.requireNonNull(libraryFiles, "Given file paths must not be null.");
+        Objects.requireNonNull(output, "Given output sink must not be null.");
+        Objects.requireNonNull(counts, "Given load counts must not be null.");
+        for (Path libraryFile : libraryFiles) {
+            Objects.requireNonNull(libraryFile, "Given file path must not be null.");
+        }
+        if (libraryFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one file path must be given.");
+        }
+
+        int threads = Math.min(libraryFiles.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService parsers = Executors.newFixedThreadPool(threads);
+        Deque<Future<FileParser>> parsing = new ArrayDeque<>();
+        Iterator<Path> unparsedFiles = libraryFiles.iterator();
+
+        BatchMerger merger = new BatchMerger(output);
+        Path failedFile = null;
+        long lines = 0;
+        long record = NOT_RECORDED;
+
+        writeLock.lock();
+        try {
+            LibraryVersion version = currentVersion;
+
+            for (Path libraryFile : libraryFiles) {
+                while (parsing.size() < MAX_FILES_PARSED_AHEAD * threads && unparsedFiles.hasNext()) {
+                    parsing.add(parsers.submit(new FileParser(unparsedFiles.next())));
+                }
+
+                FileParser parsed = awaitParsed(parsing.remove());
+                if (parsed == null || !parsed.report(output)) {
+                    failedFile = libraryFile;
+                    break;
+                }
+                lines += parsed.lines;
+                merger.handleBatch(parsed.books);
+            }
+
+            if (failedFile == null) {
+                record = merger.publish(version);
+            }
+        } finally {
+            merger.rollBackUnpublished();
+            writeLock.unlock();
+            parsers.shutdownNow();
+        }
+        merger.awaitRecorded(record);
+        counts.set(lines, merger.published ? merger.added : 0);
+
+        if (merger.notJournaled != null) {
+            output.error("ERROR: " + merger.notJournaled.getMessage());
+            return false;
+        }
+        if (failedFile == null) {
+            output.println(merger.added + " new book entries added from " + libraryFiles.size() + " files.");
+        } else {
+            output.error("ERROR: Loading book data failed for file: " + failedFile);
+        }
+
+        return failedFile == null;
+    }
+
+    /**
+     * Wait for a file to be parsed.
+     *
+     * @param parsing pending result of parsing the file.
+     * @return parser holding the result, null if interrupted while waiting.
+     * @throws IllegalStateException if parsing failed with an unexpected exception.
+     */
+    private static FileParser awaitParsed(Future<FileParser> parsing) {
+        try {
+            return parsing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parsing book data failed unexpectedly.", e.getCause());
+        }
+    }
+
+    /**
+     * Append all given book entries which are not loaded yet to the given segment.
+     *
      * Duplicate entries will be discarded (This requires .equals to be
-     * implemented for BookEntry).
-     * 
+     * implemented for BookEntry). Appended entries refer to the canonical
+     * author names of the library. Each call is reported to Flight Recorder
+     * as a {@link LibraryMergeEvent}.
+     *
+     * NOTE: Requires the write lock to be held.
+     *
      * @param loaded list of book entries to be merged with data already loaded
-     * @return number of book entries added to the library
+     * @param segment segment receiving new book entries
+     * @param output destination of messages about duplicate entries
+     * @return number of book entries appended to the segment
      */
-    private int mergeEntries(List<BookEntry> loaded) {
+    private int appendNewEntries(List<BookEntry> loaded, LibrarySegment.Builder segment, OutputSink output) {
+        LibraryMergeEvent event = new LibraryMergeEvent();
+        event.begin();
+
         int count = 0;
-        for (BookEntry entry : loaded) {
-            if (!books.contains(entry)) {
-                books.add(entry);
+        StoredBooks stored = new StoredBooks(segment);
+        for (BookEntry loadedEntry : loaded) {
+            BookEntry entry = loadedEntry.withCanonicalAuthors(authorDictionary);
+            if (bookIndex.add(entry, stored)) {
+                segment.add(entry);
                 count++;
             } else {
-                System.out.println("Duplicate entry found for book: " + entry);
+                output.println("Duplicate entry found for book: " + entry);
             }
         }
+
+        if (event.shouldCommit()) {
+            event.added = count;
+            event.duplicates = loaded.size() - count;
+            event.commit();
+        }
         return count;
     }
+
+    /**
+     * Merge the list of book entries with the
+     * entries already loaded.
+     *
+     * Duplicate entries will be discarded (This requires .equals to be
+     * implemented for BookEntry).
+     *
+     * @param loaded list of book entries to be merged with data already loaded
+     * @param output destination of messages about duplicate entries
+     * @return number of book entries added to the library
+     */
+    private int mergeEntries(List<BookEntry> loaded, OutputSink output) {
+        BatchMerger merger = new BatchMerger(output);
+        long record;
+
+        writeLock.lock();
+        try {
+            LibraryVersion version = currentVersion;
+
+            merger.handleBatch(loaded);
+            record = merger.publish(version);
+        } finally {
+            merger.rollBackUnpublished();
+            writeLock.unlock();
+        }
+        merger.awaitRecorded(record);
+        return merger.added;
+    }
+
+    /**
+     * Replace all currently loaded book data with the given books.
+     *
+     * The given books are expected to be free of duplicates, e.g. because
+     * they were taken from a library before, so no duplicate checks are done.
+     * The library holds equal books referring to its canonical author names.
+     *
+     * @param restored books to be held by the library, in library order.
+     * @throws NullPointerException if the given list is null.
+     * @throws UncheckedIOException if the change has not been journaled, the message telling whether it has been made.
+     */
+    public void restoreData(List<BookEntry> restored) {
+        Objects.requireNonNull(restored, "Given book list must not be null.");
+        long record = NOT_RECORDED;
+
+        writeLock.lock();
+        try {
+            LibraryVersion version = currentVersion;
+
+            List<BookEntry> canonical = new ArrayList<>(restored.size());
+            for (BookEntry book : restored) {
+                canonical.add(book.withCanonicalAuthors(authorDictionary));
+            }
+            if (journal != null) {
+                try {
+                    record = journal.appendBooksRestored(canonical);
+                } catch (UncheckedIOException e) {
+                    throw notJournaled("Books not restored as the change was", e);
+                }
+            }
+            bookIndex.clear();
+            bookIndex.addAll(canonical);
+            publishChange(version.replacedBy(LibrarySegment.of(layout, authorDictionary, canonical)));
+        } finally {
+            writeLock.unlock();
+        }
+        awaitRecorded(record, restored.size() + " books restored");
+    }
+
+    /**
+     * Remove the first book with the given title.
+     *
+     * @param title title of the book to be removed.
+     * @return true if a book was removed, false if no book has the given title.
+     * @throws NullPointerException if the given title is null.
+     * @throws UncheckedIOException if the change has not been journaled, the message telling whether it has been made.
+     */
+    public boolean removeByTitle(String title) {
+        Objects.requireNonNull(title, "Given title must not be null.");
+        long record = NOT_RECORDED;
+
+        writeLock.lock();
+        try {
+            List<BookEntry> removed = new ArrayList<>();
+            LibraryVersion version = currentVersion.withoutTitle(title, removed);
+
+            // Removing first match is sufficient: Title is unique in library.
+            if (removed.isEmpty()) {
+                return false;
+            }
+            if (journal != null) {
+                try {
+                    record = journal.appendTitleRemoved(title);
+                } catch (UncheckedIOException e) {
+                    throw notJournaled("Book not removed as the change was", e);
+                }
+            }
+            bookIndex.removeAll(removed);
+            publishChange(version);
+        } finally {
+            writeLock.unlock();
+        }
+        awaitRecorded(record, "Book removed");
+        return true;
+    }
+
+    /**
+     * Remove all books written by the given author.
+     *
+     * @param author author whose books are to be removed.
+     * @return number of removed books.
+     * @throws NullPointerException if the given author is null.
+     * @throws UncheckedIOException if the change has not been journaled, the message telling whether it has been made.
+     */
+    public int removeByAuthor(String author) {
+        Objects.requireNonNull(author, "Given author must not be null.");
+        List<BookEntry> removed = new ArrayList<>();
+        long record = NOT_RECORDED;
+
+        writeLock.lock();
+        try {
+            LibraryVersion version = currentVersion;
+            int authorId = authorDictionary.idOf(author);
+            if (authorId != AuthorDictionary.NO_ID) {   // unknown authors have no books
+                version = version.withoutAuthor(authorId, removed);
+            }
+
+            if (!removed.isEmpty()) {
+                if (journal != null) {
+                    try {
+                        record = journal.appendAuthorRemoved(author);
+                    } catch (UncheckedIOException e) {
+                        throw notJournaled("Books not removed as the change was", e);
+                    }
+                }
+                bookIndex.removeAll(removed);
+                publishChange(version);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        awaitRecorded(record, removed.size() + " books removed");
+        return removed.size();
+    }
+
+    /** Applies changes replayed from a journal, which is not set yet and thus records nothing. */
+    private class JournalReplayer implements LibraryChangeHandler {
+
+        /**
+         * Add the given books.
+         *
+         * @param added added books in library order, free of duplicates.
+         */
+        @Override
+        public void booksAdded(List<BookEntry> added) {
+            mergeEntries(added, OutputSink.standard());
+        }
+
+        /**
+         * Remove the first book with the given title.
+         *
+         * @param title title of the removed book.
+         */
+        @Override
+        public void titleRemoved(String title) {
+            removeByTitle(title);
+        }
+
+        /**
+         * Remove all books of the given author.
+         *
+         * @param author author whose books were removed.
+         */
+        @Override
+        public void authorRemoved(String author) {
+            removeByAuthor(author);
+        }
+
+        /**
+         * Replace all books.
+         *
+         * @param restored books held by the library afterwards, in library order.
+         */
+        @Override
+        public void booksRestored(List<BookEntry> restored) {
+            restoreData(restored);
+        }
+    }
+
+    /** Merges streamed book batches into a new segment while counting added entries. */
+    private class BatchMerger implements BookBatchHandler {
+
+        /** Destination of messages about duplicate entries. */
+        private final OutputSink output;
+        /** Segment receiving new book entries. */
+        private final LibrarySegment.Builder segment;
+        /** Number of book entries added so far. */
+        private int added = 0;
+        /** Whether the merged book entries have become part of the library. */
+        private boolean published = false;
+        /** Failure reporting that the merged book entries have not been journaled, null if none. */
+        private UncheckedIOException notJournaled = null;
+
+        /**
+         * Create a merger.
+         *
+         * @param output destination of messages about duplicate entries.
+         */
+        private BatchMerger(OutputSink output) {
+            this.output = output;
+            segment = new LibrarySegment.Builder(layout, authorDictionary);
+        }
+
+        /**
+         * Merge the given batch into the new segment.
+         *
+         * @param batch parsed book entries in file order.
+         */
+        @Override
+        public void handleBatch(List<BookEntry> batch) {
+            added += appendNewEntries(batch, segment, output);
+        }
+
+        /**
+         * Record all merged book entries in the journal and make them part of the library.
+         * If they cannot be recorded, they are not published and the failure is kept.
+         *
+         * NOTE: Requires the write lock to be held.
+         *
+         * @param version current version, which the entries are added to.
+         * @return journal sequence number of the change, {@value LibraryData#NOT_RECORDED} if it has not been recorded.
+         */
+        private long publish(LibraryVersion version) {
+            long record = NOT_RECORDED;
+            if (journal != null && added > 0) {
+                try {
+                    record = journal.appendBooksAdded(segment.getBooks());
+                } catch (UncheckedIOException e) {
+                    notJournaled = notJournaled("Book entries not added as the change was", e);
+                    return NOT_RECORDED;
+                }
+            }
+            LibraryVersion changed = version.withBooks(segment.build());
+
+            published = true;
+            publishChange(changed);
+            return record;
+        }
+
+        /**
+         * Remove all merged book entries from the duplicate index again, unless they
+         * have been published. Must be called once merging has ended, whether it
+         * failed, threw an exception or succeeded, so books of a failed load can be
+         * added later on.
+         *
+         * NOTE: Requires the write lock to be held.
+         */
+        private void rollBackUnpublished() {
+            if (!published) {
+                bookIndex.removeAll(segment.getBooks());
+            }
+        }
+
+        /**
+         * Wait until the published change is durable as required by the sync policy
+         * of the journal, keeping the failure if it is not.
+         *
+         * NOTE: Must be called after releasing the write lock.
+         *
+         * @param record journal sequence number of the change, {@value LibraryData#NOT_RECORDED} if it has not been recorded.
+         */
+        private void awaitRecorded(long record) {
+            try {
+                LibraryData.this.awaitRecorded(record, added + " new book entries added");
+            } catch (UncheckedIOException e) {
+                notJournaled = e;
+            }
+        }
+    }
+
+    /**
+     * Books of the current version together with the books merged into a new
+     * segment so far, compared by the duplicate index when fingerprints match.
+     *
+     * NOTE: Requires the write lock to be held while in use.
+     */
+    private final class StoredBooks implements BookFingerprintSet.StoredBooks {
+
+        /** Segment receiving new book entries. */
+        private final LibrarySegment.Builder segment;
+
+        /**
+         * Create a view of the stored books.
+         *
+         * @param segment segment receiving new book entries.
+         */
+        private StoredBooks(LibrarySegment.Builder segment) {
+            this.segment = segment;
+        }
+
+        /**
+         * Check whether a book equal to the given book is held by the library or has been merged.
+         *
+         * @param book book to be found.
+         * @return true if an equal book is stored, false otherwise.
+         */
+        @Override
+        public boolean contains(BookEntry book) {
+            return currentVersion.contains(book) || segment.contains(book);
+        }
+    }
+
+    /**
+     * Parses a single book data file on a parser thread, holding all of its
+     * book entries and messages until they are merged in file order.
+     */
+    private final class FileParser implements Callable<FileParser>, BookBatchHandler {
+
+        /** Path to the book data file. */
+        private final Path libraryFile;
+        /** Parsed book entries in file order. */
+        private final List<BookEntry> books;
+        /** Messages about invalid book entries and read failures, printed when merging. */
+        private final ByteArrayOutputStream messages;
+        /** Whether the file has been loaded successfully. */
+        private boolean success;
+        /** Number of parsed lines, excluding the header line. */
+        private long lines;
+
+        /**
+         * Create a parser.
+         *
+         * @param libraryFile path to the book data file.
+         */
+        private FileParser(Path libraryFile) {
+            this.libraryFile = libraryFile;
+            books = new ArrayList<>();
+            messages = new ByteArrayOutputStream();
+        }
+
+        /**
+         * Parse the whole file.
+         *
+         * @return this parser holding the result.
+         */
+        @Override
+        public FileParser call() {
+            OutputSink parserOutput = OutputSink.buffered(messages, messages);
+            LibraryFileLoader loader = new LibraryFileLoader(parserOutput, authorDictionary);
+            success = loader.streamFileContent(libraryFile, LOAD_BATCH_SIZE, this);
+            lines = loader.getLinesParsed();
+            parserOutput.flush();
+            return this;
+        }
+
+        /**
+         * Keep the given batch until the file is merged.
+         *
+         * @param batch parsed book entries in file order.
+         */
+        @Override
+        public void handleBatch(List<BookEntry> batch) {
+            books.addAll(batch);
+        }
+
+        /**
+         * Print all messages produced while parsing.
+         *
+         * @param output destination of the messages.
+         * @return true if the file has been loaded successfully, false otherwise.
+         */
+        private boolean report(OutputSink output) {
+            String text = messages.toString();
+            if (!text.isEmpty()) {
+                output.error(text.stripTrailing());
+            }
+            return success;
+        }
+    }
 }
@@ -0,0 +1,45 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for reading and parsing a single book data file.
+ *
+ * The duration includes merging the parsed books into the library, which
+ * happens while the file is streamed and is recorded by nested
+ * {@link LibraryMergeEvent}s.
+ */
+@Name("library.FileLoad")
+@Label("Library File Load")
+@Category({ "Library", "Loading" })
+@Description("Book data file read and parsed")
+public final class LibraryFileLoadEvent extends Event {
+
+    /** Path of the loaded file. */
+    @Label("Path")
+    String path;
+
+    /** Size of the file. */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /** Number of parsed lines, excluding the header line. */
+    @Label("Lines")
+    long lines;
+
+    /** Number of lines containing invalid book data. */
+    @Label("Invalid Rows")
+    long invalidRows;
+
+    /** True if the file was parsed in parallel. */
+    @Label("Parallel")
+    boolean parallel;
+
+    /** True if the file could be read completely. */
+    @Label("Success")
+    boolean success;
+}
@@ -1,4 +1,8 @@
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -10,15 +14,32 @@ import java.util.Objects;
 /**
  * Class responsible for loading
  * book data from file.
+ *
+ * Gzip compressed files are recognised by their content and decompressed
+ * on the fly, see {@link BackgroundGzipInputStream}.
  */
 public class LibraryFileLoader {
 
     // -------------- CONSTANTS AND FIELDS ------------------------------------
 
-    /** Character used to separate data values in file. */
-    private static final char DATA_SEPARATOR = ',';
-    /** Character used to separate author names. */
-    private static final char AUTHOR_SEPARATOR = '-';
+    /** Number of characters read from file at once while streaming. */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /** Line feed character as used in line breaks. */
+    private static final char LINE_FEED = '\n';
+    /** Carriage return character as used in line breaks. */
+    private static final char CARRIAGE_RETURN = '\r';
+    /** First byte of gzip compressed data. */
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    /** Second byte of gzip compressed data. */
+    private static final int GZIP_MAGIC_2 = 0x8B;
+
+    /** Tokenizer used to separate data values within file lines. */
+    private final BookLineTokenizer tokenizer;
+    /** Destination of error messages. */
+    private final OutputSink output;
+    /** Dictionary providing canonical instances of author names. */
+    private final AuthorDictionary authorDictionary;
 
     /**
      * Contains all lines read from a book data file using
@@ -32,11 +53,43 @@ public class LibraryFileLoader {
      */
     private List<String> fileContent;
 
+    /** Number of lines parsed by the last call of streamFileContent, excluding the header line. */
+    private long linesParsed;
+
     // -------------- CONSTRUCTOR(S) ------------------------------------------
 
     /** Create a new loader. No file content has been loaded yet. */
     public LibraryFileLoader() { 
+        this(OutputSink.standard());
+    }
+
+    /**
+     * Create a new loader reporting errors to the given sink.
+     * No file content has been loaded yet.
+     *
+     * @param output destination of error messages.
+     * @throws NullPointerException if the given sink is null.
+     */
+    public LibraryFileLoader(OutputSink output) {
+        this(output, new AuthorDictionary());
+    }
+
+    /**
+     * Create a new loader reporting errors to the given sink. Books refer to
+     * the canonical author names of the given dictionary, so each name is held
+     * only once however many books and files share it.
+     * No file content has been loaded yet.
+     *
+     * @param output destination of error messages.
+     * @param authorDictionary dictionary providing canonical instances of author names.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public LibraryFileLoader(OutputSink output, AuthorDictionary authorDictionary) {
+        this.output = Objects.requireNonNull(output, "Given output sink must not be null.");
+        this.authorDictionary = Objects.requireNonNull(authorDictionary, "Given author dictionary must not be null.");
         fileContent = null;
+        linesParsed = 0;
+        tokenizer = new BookLineTokenizer();
     }
 
     // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
@@ -51,66 +104,128 @@ public class LibraryFileLoader {
     }
 
     /**
-     * Separate data values within a file line.
+     * Get the number of lines parsed by the last call of streamFileContent.
      *
-     * @param line file line to be parsed.
-     * @return list containing separated data values.
+     * @return number of parsed lines, excluding the header line, including invalid ones.
      */
-    private ArrayList<String> separateLineContent(String line) {
-        return new ArrayList<>(Arrays.asList(line.split(DATA_SEPARATOR + "")));
+    public long getLinesParsed() {
+        return linesParsed;
     }
 
     /**
-     * Get title from a file line.
+     * Find the next line break within the given range of characters.
      *
-     * @param line file line.
-     * @return title.
+     * @param text characters to be searched.
+     * @param from position to start searching from.
+     * @param to position up to which is searched (exclusive).
+     * @return position of the next line feed or carriage return, or -1 if there is none.
      */
-    private String getLineTitle(ArrayList<String> line) {
-        return line.get(DataOrder.TITLE.ordinal());
+    public static int findLineBreak(char[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text[i] == LINE_FEED || text[i] == CARRIAGE_RETURN) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Get author(s) from a file line.
+     * Find the start of the line following the given line break.
      *
-     * @param line file line.
-     * @return author(s).
+     * @param text characters containing the line break.
+     * @param lineBreak position of the line break.
+     * @param to end of the available characters (exclusive).
+     * @return position after the line break, including the line feed of a
+     * carriage return line feed pair if available.
      */
-    private String[] getLineAuthors(ArrayList<String> line) {
-        int authorIndex = DataOrder.AUTHORS.ordinal();
-        return line.get(authorIndex).split(AUTHOR_SEPARATOR + "");
+    public static int skipLineBreak(char[] text, int lineBreak, int to) {
+        if (text[lineBreak] == CARRIAGE_RETURN && lineBreak + 1 < to && text[lineBreak + 1] == LINE_FEED) {
+            return lineBreak + 2;
+        }
+        return lineBreak + 1;
     }
 
     /**
-     * Get rating from a file line.
+     * Check whether the given file holds gzip compressed data, judging by its first bytes.
      *
-     * @param line file line.
-     * @return rating.
+     * @param fileName file path to be checked.
+     * @return true if the file starts like gzip data, false otherwise.
+     * @throws IOException if the file cannot be read.
+     * @throws NullPointerException if the given file name is null.
      */
-    private float getLineRating(ArrayList<String> line) {
-        int ratingIndex = DataOrder.RATING.ordinal();
-        return Float.parseFloat(line.get(ratingIndex));
+    public static boolean isGzipFile(Path fileName) throws IOException {
+        Objects.requireNonNull(fileName, "Given filename must not be null.");
+
+        try (InputStream in = Files.newInputStream(fileName)) {
+            return in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+        }
     }
 
     /**
-     * Get ISBN from a file line.
+     * Open a reader for the UTF-8 text held by the given file, decompressing gzip data on the fly.
      *
-     * @param line file line.
-     * @return ISBN.
+     * @param fileName file path with book data.
+     * @return reader for the possibly decompressed text.
+     * @throws IOException if the file cannot be opened.
      */
-    private String getLineISBN(ArrayList<String> line) {
-        return line.get(DataOrder.ISBN.ordinal());
+    private static BufferedReader newBufferedReader(Path fileName) throws IOException {
+        if (isGzipFile(fileName)) {
+            return new BufferedReader(new InputStreamReader(
+                    new BackgroundGzipInputStream(Files.newInputStream(fileName)),
+                    StandardCharsets.UTF_8.newDecoder()));
+        }
+        return Files.newBufferedReader(fileName);
+    }
+
+    /**
+     * Print the given error message for invalid book data, if any.
+     *
+     * @param errorMessage error message as returned by parseLine or null.
+     * @return true if an error message was printed, false otherwise.
+     */
+    private boolean reportInvalidBook(String errorMessage) {
+        if (errorMessage != null) {
+            output.error(errorMessage);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parse a line of streamed book data, counting it in the given event.
+     *
+     * @param text characters containing the line.
+     * @param from start of the line.
+     * @param to end of the line (exclusive), not including a line break.
+     * @param batch batch receiving the parsed book.
+     * @param event event counting lines and invalid rows.
+     */
+    private void streamLine(char[] text, int from, int to, List<BookEntry> batch, LibraryFileLoadEvent event) {
+        event.lines++;
+        if (reportInvalidBook(parseLine(text, from, to, batch))) {
+            event.invalidRows++;
+        }
     }
 
     /**
-     * Get page number from a file line.
+     * Add the book of the line currently held by the tokenizer to the provided library.
      *
-     * @param line file line.
-     * @return page number.
+     * @param library library where the book will be added.
+     * @return error message if the book data is invalid, null otherwise.
      */
-    private int getLinePages(ArrayList<String> line) {
-        int pagesIndex = DataOrder.PAGES.ordinal();
-        return Integer.parseInt(line.get(pagesIndex));
+    private String addBook(List<BookEntry> library) {
+        String title = tokenizer.getTitle();
+        String[] authors = tokenizer.getAuthors(authorDictionary);
+        float rating = tokenizer.getRating();
+        String ISBN = tokenizer.getISBN();
+        int pages = tokenizer.getPages();
+
+        try {               // prevents program from crashing when invalid book data is given
+            library.add(new BookEntry(title, authors, rating, ISBN, pages));
+        } catch (IllegalArgumentException e) {
+            return "Illegal argument for book: " + title + ": " + e;
+        }
+        return null;
     }
 
     // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
@@ -130,17 +245,127 @@ public class LibraryFileLoader {
         Objects.requireNonNull(fileName, "Given filename must not be null.");
         boolean success = false;
 
-        try {
-            fileContent = Files.readAllLines(fileName);
+        try (BufferedReader reader = newBufferedReader(fileName)) {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            fileContent = lines;
 
             success = true;
         } catch (IOException | SecurityException e) {
-            System.err.println("ERROR: Reading file content failed: " + e);
+            output.error("ERROR: Reading file content failed: " + e);
         }
         return success;
     }
 
 
+    /**
+     * Stream book data from the specified file without keeping all
+     * file lines in memory.
+     *
+     * Lines are read and parsed one after another and the resulting books
+     * are handed to the given handler in batches of at most the given size.
+     * Peak memory is therefore proportional to the batch size rather than
+     * to the file size. Each call is reported to Flight Recorder as a
+     * {@link LibraryFileLoadEvent}.
+     *
+     * NOTE: If reading fails part way through the file, batches handed
+     * over before the failure are not revoked.
+     *
+     * @param fileName file path with book data.
+     * @param batchSize maximum number of books handed over per batch.
+     * @param handler receiver of parsed book batches.
+     * @return true if book data could be read completely, false otherwise.
+     * @throws NullPointerException if the given file name or handler is null.
+     * @throws IllegalArgumentException if the given batch size is not positive.
+     */
+    public boolean streamFileContent(Path fileName, int batchSize, BookBatchHandler handler) {
+        Objects.requireNonNull(fileName, "Given filename must not be null.");
+        Objects.requireNonNull(handler, "Given batch handler must not be null.");
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        boolean success = false;
+        LibraryFileLoadEvent event = new LibraryFileLoadEvent();
+        event.begin();
+
+        try (BufferedReader reader = newBufferedReader(fileName)) {
+            ArrayList<BookEntry> batch = new ArrayList<>(batchSize);
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int length = 0;
+            int position = 0;
+            boolean headerSkipped = false;  // Leave out header line in file
+            boolean skipLineFeed = false;   // Line feed of a line break split across reads
+            boolean endOfInput = false;
+
+            while (!endOfInput) {
+                if (position > 0) {         // keep incomplete line at start of buffer
+                    length -= position;
+                    System.arraycopy(buffer, position, buffer, 0, length);
+                    position = 0;
+                } else if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+
+                int read = reader.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    length += read;
+                }
+
+                if (skipLineFeed && position < length) {
+                    if (buffer[position] == LINE_FEED) {
+                        position++;
+                    }
+                    skipLineFeed = false;
+                }
+
+                int lineBreak;
+                while ((lineBreak = findLineBreak(buffer, position, length)) >= 0) {
+                    if (headerSkipped) {
+                        streamLine(buffer, position, lineBreak, batch, event);
+                    }
+                    headerSkipped = true;
+
+                    skipLineFeed = buffer[lineBreak] == CARRIAGE_RETURN && lineBreak + 1 == length;
+                    position = skipLineBreak(buffer, lineBreak, length);
+
+                    if (batch.size() >= batchSize) {
+                        handler.handleBatch(batch);
+                        batch.clear();
+                    }
+                }
+
+                if (endOfInput && position < length && headerSkipped) {   // last line without line break
+                    streamLine(buffer, position, length, batch, event);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                handler.handleBatch(batch);
+            }
+            success = true;
+        } catch (IOException | SecurityException e) {
+            output.error("ERROR: Reading file content failed: " + e);
+        }
+        linesParsed = event.lines;
+
+        if (event.shouldCommit()) {
+            event.path = fileName.toString();
+            try {
+                event.bytes = Files.size(fileName);
+            } catch (IOException | SecurityException e) {
+                // size stays unknown, reading has already reported the problem
+            }
+            event.success = success;
+            event.commit();
+        }
+        return success;
+    }
+
     /**
      * Parse file content loaded previously with the loadFileContent method.
      * 
@@ -151,14 +376,13 @@ public class LibraryFileLoader {
         ArrayList<BookEntry> newLibrary = new ArrayList<>();
 
         if (!contentLoaded()) {
-            System.err.println("ERROR: No content loaded before parsing.");
+            output.error("ERROR: No content loaded before parsing.");
         } else {
             Iterator<String> lineIterator = fileContent.iterator();
             lineIterator.next(); // Leave out header line in file
 
             while (lineIterator.hasNext()) {
-                ArrayList<String> bookValues = separateLineContent(lineIterator.next());
-                addBook(newLibrary, bookValues);
+                reportInvalidBook(parseLine(lineIterator.next(), newLibrary));
             }
         }
 
@@ -166,23 +390,41 @@ public class LibraryFileLoader {
     }
 
     /**
-     * Add a book to the provided library.
-     * Parses book data from a list.
+     * Parse a single line of book data and add the resulting book
+     * to the provided library.
      *
+     * Invalid book data is not added. Instead, a corresponding error
+     * message is returned so that callers parsing several lines at once
+     * can report errors in file order.
+     *
+     * @param line file line to be parsed, not including a line break.
      * @param library library where the book will be added.
-     * @param bookValues list containing required book data values for a BookEntry.
+     * @return error message if the line contains invalid book data, null otherwise.
      */
-    private void addBook(ArrayList<BookEntry> library, ArrayList<String> bookValues) {
-        String title = getLineTitle(bookValues);
-        String[] authors = getLineAuthors(bookValues);
-        float rating = getLineRating(bookValues);
-        String ISBN = getLineISBN(bookValues);
-        int pages = getLinePages(bookValues);
+    public String parseLine(String line, List<BookEntry> library) {
+        char[] text = line.toCharArray();
+        return parseLine(text, 0, text.length, library);
+    }
 
-        try {               // prevents program from crashing when invalid book data is given
-            library.add(new BookEntry(title, authors, rating, ISBN, pages));
-        } catch (IllegalArgumentException e) {
-            System.err.println("Illegal argument for book: " + title + ": " + e);
-        }
+    /**
+     * Parse a single line of book data from the given range of characters
+     * and add the resulting book to the provided library.
+     *
+     * Apart from the resulting book, no objects are created while parsing.
+     * Invalid book data is not added. Instead, a corresponding error
+     * message is returned so that callers parsing several lines at once
+     * can report errors in file order.
+     *
+     * NOTE: Loader instances must not be used by several threads at the same time.
+     *
+     * @param text characters containing the line.
+     * @param from start of the line.
+     * @param to end of the line (exclusive), not including a line break.
+     * @param library library where the book will be added.
+     * @return error message if the line contains invalid book data, null otherwise.
+     */
+    public String parseLine(char[] text, int from, int to, List<BookEntry> library) {
+        tokenizer.tokenize(text, from, to);
+        return addBook(library);
     }
 }
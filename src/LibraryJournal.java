@@ -0,0 +1,942 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of library changes, allowing the library
+ * to be recovered after the program has been terminated.
+ *
+ * Every change is appended as a record numbered by its log sequence number
+ * (LSN), starting at 1. Appending only queues the record; a background thread
+ * writes all queued records with a single gathering write, so concurrent
+ * changes are committed as a group. Whether and when records are forced to the
+ * storage device is decided by the {@link JournalSyncPolicy}.
+ *
+ * Once the journal has grown large, the complete library is written as a
+ * checkpoint in snapshot format (see {@link LibrarySnapshot}) on another
+ * background thread, and journal files only holding older changes are deleted.
+ * Recovery reads the newest checkpoint and replays all later records.
+ *
+ * Journal directory content:
+ * <pre>
+ * checkpoint-LSN.snapshot   all books after the change with the given LSN
+ * journal-LSN.log           records from the given LSN on
+ * </pre>
+ * Record layout (all numbers in big-endian byte order):
+ * <pre>
+ * int     length of the record body
+ * int     CRC-32 checksum of the record body
+ * long    LSN                     (record body)
+ * byte    type of change          (record body)
+ * ...     data of the change      (record body)
+ * </pre>
+ * A record torn by a crash fails its checksum and ends recovery.
+ *
+ * Changes must be appended one at a time, e.g. while holding the write lock
+ * of a library. Waiting for records to become durable is thread safe.
+ */
+public class LibraryJournal implements Closeable {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** File name prefix of journal files, followed by the LSN of their first record. */
+    private static final String JOURNAL_PREFIX = "journal-";
+    /** File name suffix of journal files. */
+    private static final String JOURNAL_SUFFIX = ".log";
+    /** File name prefix of checkpoint files, followed by the LSN of the last change they contain. */
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    /** File name suffix of checkpoint files. */
+    private static final String CHECKPOINT_SUFFIX = ".snapshot";
+    /** File name suffix of checkpoint files which have not been completely written yet. */
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /** Record type of added books. */
+    private static final byte BOOKS_ADDED = 1;
+    /** Record type of the removal of a book by title. */
+    private static final byte TITLE_REMOVED = 2;
+    /** Record type of the removal of all books of an author. */
+    private static final byte AUTHOR_REMOVED = 3;
+    /** Record type of the replacement of all books. */
+    private static final byte BOOKS_RESTORED = 4;
+
+    /** Size of the record length and checksum preceding each record body. */
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    /** Size of the LSN and record type starting each record body. */
+    private static final int BODY_HEADER_SIZE = Long.BYTES + Byte.BYTES;
+
+    /** Size of the journal files from which a checkpoint is written. */
+    private static final long CHECKPOINT_THRESHOLD = 64L * 1024 * 1024;
+    /** Time between forcing records to the device with the INTERVAL policy. */
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** Size of the buffer used for reading journal files. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** Directory holding journal and checkpoint files. */
+    private final Path directory;
+    /** Policy for forcing records to the storage device. */
+    private final JournalSyncPolicy syncPolicy;
+
+    /** Guards the queue and the progress of the background threads. */
+    private final ReentrantLock lock;
+    /** Signalled when records have been queued or the journal is closed. */
+    private final Condition workAvailable;
+    /** Signalled when records have been written or forced, or a journal file has been started. */
+    private final Condition progress;
+    /** Records waiting to be written, in LSN order. */
+    private final ArrayDeque<PendingWrite> pending;
+    /** LSN of the last record written to the current journal file. */
+    private long writtenLsn;
+    /** LSN of the last record forced to the device. */
+    private long syncedLsn;
+    /** LSN of the first record of the journal file currently written. */
+    private long currentFileLsn;
+    /** True if a checkpoint is currently being written. */
+    private boolean checkpointRunning;
+    /** True once the journal has been closed. */
+    private boolean closed;
+    /** True once the background writer has terminated. */
+    private boolean stopped;
+    /** First failure of writing records, after which no more records are written. */
+    private IOException failure;
+
+    /** LSN of the last appended record. Only used by the appending thread. */
+    private long lastLsn;
+    /** Size of the records appended since the last checkpoint. Only used by the appending thread. */
+    private long uncheckpointedBytes;
+
+    /** Background thread writing queued records. */
+    private final Thread writer;
+    /** Journal file currently written. Only used by the background writer. */
+    private FileChannel journalFile;
+    /** Background thread writing the current checkpoint, null if none has been started. */
+    private volatile Thread checkpointWriter;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a journal continuing after the given record.
+     *
+     * @param directory directory holding journal and checkpoint files.
+     * @param syncPolicy policy for forcing records to the storage device.
+     * @param lastLsn LSN of the last recovered record.
+     * @param uncheckpointedBytes size of the recovered journal files.
+     * @throws IOException if the journal file cannot be opened.
+     */
+    private LibraryJournal(Path directory, JournalSyncPolicy syncPolicy, long lastLsn,
+            long uncheckpointedBytes) throws IOException {
+        this.directory = directory;
+        this.syncPolicy = syncPolicy;
+        this.lastLsn = lastLsn;
+        this.uncheckpointedBytes = uncheckpointedBytes;
+
+        lock = new ReentrantLock();
+        workAvailable = lock.newCondition();
+        progress = lock.newCondition();
+        pending = new ArrayDeque<>();
+        writtenLsn = lastLsn;
+        syncedLsn = lastLsn;
+        currentFileLsn = lastLsn + 1;
+
+        journalFile = openJournalFile(currentFileLsn);
+        writer = new RecordWriter();
+        writer.start();
+    }
+
+    /**
+     * Open the journal in the given directory, replaying all changes recorded in it.
+     *
+     * The newest checkpoint is handed over as restored books, followed by all
+     * later changes in LSN order. A record torn by a crash is cut off the
+     * journal together with any later records.
+     *
+     * @param directory directory holding journal and checkpoint files, created if missing.
+     * @param syncPolicy policy for forcing records to the storage device.
+     * @param handler receiver of the recorded changes.
+     * @return journal appending after the last recorded change.
+     * @throws IOException if the journal cannot be read or opened.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public static LibraryJournal open(Path directory, JournalSyncPolicy syncPolicy,
+            LibraryChangeHandler handler) throws IOException {
+        Objects.requireNonNull(directory, "Given directory must not be null.");
+        Objects.requireNonNull(syncPolicy, "Given sync policy must not be null.");
+        Objects.requireNonNull(handler, "Given handler must not be null.");
+
+        Files.createDirectories(directory);
+        deleteTemporaryFiles(directory);
+
+        long[] checkpoints = listLsns(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        long lastLsn = 0;
+        if (checkpoints.length > 0) {
+            lastLsn = checkpoints[checkpoints.length - 1];
+            handler.booksRestored(LibrarySnapshot.read(checkpointPath(directory, lastLsn)));
+        }
+        deleteObsoleteFiles(directory, lastLsn);
+
+        long[] journals = listLsns(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        long journalBytes = 0;
+        for (int i = 0; i < journals.length; i++) {
+            Path journal = journalPath(directory, journals[i]);
+            long size = Files.size(journal);
+            long validSize = 0;
+
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(journal), BUFFER_SIZE))) {
+                byte[] body;
+                while ((body = readRecord(in, size - validSize)) != null) {
+                    long lsn = ByteBuffer.wrap(body).getLong();
+                    if (lsn > lastLsn) {
+                        if (lsn != lastLsn + 1) {
+                            throw new IOException("Library journal is missing changes before LSN " + lsn);
+                        }
+                        replayRecord(body, handler);
+                        lastLsn = lsn;
+                    }
+                    validSize += HEADER_SIZE + body.length;
+                }
+            }
+            journalBytes += validSize;
+
+            if (validSize < size) {     // Condition: Torn or damaged record, the journal ends here.
+                try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                    channel.truncate(validSize);
+                }
+                for (int j = i + 1; j < journals.length; j++) {
+                    System.err.println("ERROR: Discarding library journal behind damaged record: "
+                            + journalPath(directory, journals[j]));
+                    Files.delete(journalPath(directory, journals[j]));
+                }
+                break;
+            }
+        }
+
+        return new LibraryJournal(directory, syncPolicy, lastLsn, journalBytes);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Get the path of the journal file starting with the given LSN.
+     *
+     * @param directory directory holding journal files.
+     * @param lsn LSN of the first record of the file.
+     * @return path of the journal file.
+     */
+    private static Path journalPath(Path directory, long lsn) {
+        return directory.resolve(JOURNAL_PREFIX + lsn + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Get the path of the checkpoint file ending with the given LSN.
+     *
+     * @param directory directory holding checkpoint files.
+     * @param lsn LSN of the last change contained in the checkpoint.
+     * @return path of the checkpoint file.
+     */
+    private static Path checkpointPath(Path directory, long lsn) {
+        return directory.resolve(CHECKPOINT_PREFIX + lsn + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * Get the LSNs of all files in the given directory with the given name prefix and suffix.
+     *
+     * @param directory directory to be listed.
+     * @param prefix file name prefix, followed by the LSN.
+     * @param suffix file name suffix.
+     * @return LSNs in ascending order.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private static long[] listLsns(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> lsns = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    lsns.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not a file of this journal
+                }
+            }
+        }
+
+        long[] sorted = new long[lsns.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = lsns.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Delete checkpoint files which have not been completely written.
+     *
+     * @param directory directory holding checkpoint files.
+     * @throws IOException if a file cannot be deleted.
+     */
+    private static void deleteTemporaryFiles(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMPORARY_SUFFIX)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Delete all checkpoints older than the given one and all journal files
+     * only holding changes contained in it.
+     *
+     * A journal file only holds such changes if the next journal file
+     * starts right after the checkpoint or earlier.
+     *
+     * @param directory directory holding journal and checkpoint files.
+     * @param checkpointLsn LSN of the last change contained in the newest checkpoint.
+     * @throws IOException if the directory cannot be listed or a file cannot be deleted.
+     */
+    private static void deleteObsoleteFiles(Path directory, long checkpointLsn) throws IOException {
+        for (long lsn : listLsns(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) {
+            if (lsn < checkpointLsn) {
+                Files.delete(checkpointPath(directory, lsn));
+            }
+        }
+
+        long[] journals = listLsns(directory, JOURNAL_PREFIX, JOURNAL_SUFFIX);
+        for (int i = 0; i + 1 < journals.length && journals[i + 1] <= checkpointLsn + 1; i++) {
+            Files.delete(journalPath(directory, journals[i]));
+        }
+    }
+
+    /**
+     * Read the next record from a journal file.
+     *
+     * @param in stream positioned at the start of a record.
+     * @param available number of bytes left in the file.
+     * @return record body, null at the end of the file or if the record is torn or damaged.
+     * @throws IOException if reading fails.
+     */
+    private static byte[] readRecord(DataInputStream in, long available) throws IOException {
+        try {
+            if (available < HEADER_SIZE) {
+                return null;
+            }
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < BODY_HEADER_SIZE || length > available - HEADER_SIZE) {
+                return null;
+            }
+
+            byte[] body = new byte[length];
+            in.readFully(body);
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            return ((int) crc.getValue() == checksum) ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hand the change of the given record over to the given handler.
+     *
+     * @param body record body.
+     * @param handler receiver of the change.
+     * @throws IOException if the record is malformed.
+     */
+    private static void replayRecord(byte[] body, LibraryChangeHandler handler) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        long lsn = in.readLong();
+        byte type = in.readByte();
+
+        try {
+            switch (type) {
+                case BOOKS_ADDED:
+                    handler.booksAdded(readBooks(in));
+                    break;
+                case TITLE_REMOVED:
+                    handler.titleRemoved(LibrarySnapshot.readString(in));
+                    break;
+                case AUTHOR_REMOVED:
+                    handler.authorRemoved(LibrarySnapshot.readString(in));
+                    break;
+                case BOOKS_RESTORED:
+                    handler.booksRestored(readBooks(in));
+                    break;
+                default:
+                    throw new IOException("Malformed library journal: unknown record type " + type + " at LSN " + lsn);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Malformed library journal: truncated record at LSN " + lsn, e);
+        }
+    }
+
+    /**
+     * Write the given books to a record.
+     *
+     * @param out stream receiving the record body.
+     * @param books books in library order.
+     * @throws IOException if writing fails.
+     */
+    private static void writeBooks(DataOutputStream out, List<BookEntry> books) throws IOException {
+        LibrarySnapshot.writeVarInt(out, books.size());
+        for (BookEntry book : books) {
+            LibrarySnapshot.writeString(out, book.getTitle());
+
+            String[] authors = book.authorsView();
+            LibrarySnapshot.writeVarInt(out, authors.length);
+            for (String author : authors) {
+                LibrarySnapshot.writeString(out, author);
+            }
+
+            out.writeFloat(book.getRating());
+            LibrarySnapshot.writeString(out, book.getISBN());
+            LibrarySnapshot.writeVarInt(out, book.getPages());
+        }
+    }
+
+    /**
+     * Read books written by writeBooks.
+     *
+     * @param in stream positioned at the books of a record body.
+     * @return books in library order.
+     * @throws IOException if reading fails or a book is invalid.
+     */
+    private static List<BookEntry> readBooks(DataInputStream in) throws IOException {
+        int bookCount = LibrarySnapshot.readVarInt(in);
+        List<BookEntry> books = new ArrayList<>(Math.min(bookCount, in.available()));
+
+        for (int i = 0; i < bookCount; i++) {
+            String title = LibrarySnapshot.readString(in);
+            String[] authors = new String[LibrarySnapshot.readVarInt(in)];
+            for (int j = 0; j < authors.length; j++) {
+                authors[j] = LibrarySnapshot.readString(in);
+            }
+            float rating = in.readFloat();
+            String ISBN = LibrarySnapshot.readString(in);
+            int pages = LibrarySnapshot.readVarInt(in);
+
+            try {
+                books.add(new BookEntry(title, authors, rating, ISBN, pages));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed library journal: invalid book " + title + ": " + e.getMessage());
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Start a record of the next change.
+     *
+     * @param bytes buffer receiving the record.
+     * @param type record type.
+     * @return buffered stream for writing the data of the change, to be closed afterwards.
+     * @throws IOException if writing fails.
+     */
+    private DataOutputStream startRecord(ByteArrayOutputStream bytes, byte type) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes));
+        out.writeInt(0);        // length and checksum are filled in by append
+        out.writeInt(0);
+        out.writeLong(lastLsn + 1);
+        out.writeByte(type);
+        return out;
+    }
+
+    /**
+     * Check that writing the journal has not failed.
+     *
+     * NOTE: Requires the lock to be held.
+     *
+     * @throws UncheckedIOException wrapping the first failure if writing the journal has failed.
+     */
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Writing library journal failed.", failure);
+        }
+    }
+
+    /**
+     * Complete the given record and queue it for writing.
+     *
+     * @param bytes buffer holding the record.
+     * @return LSN of the record.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if writing the journal has failed before.
+     */
+    private long append(ByteArrayOutputStream bytes) {
+        byte[] record = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, record.length - HEADER_SIZE);
+        ByteBuffer.wrap(record).putInt(0, record.length - HEADER_SIZE).putInt(Integer.BYTES, (int) crc.getValue());
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Library journal has been closed.");
+            }
+            checkNotFailed();
+            lastLsn++;
+            pending.add(new PendingWrite(lastLsn, record));
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        uncheckpointedBytes += record.length;
+        return lastLsn;
+    }
+
+    /**
+     * Open the journal file starting with the given LSN for appending.
+     *
+     * @param lsn LSN of the first record of the file.
+     * @return channel positioned at the end of the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    private FileChannel openJournalFile(long lsn) throws IOException {
+        return FileChannel.open(journalPath(directory, lsn),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Write the given buffers completely to the current journal file.
+     *
+     * @param buffers records to be written.
+     * @throws IOException if writing fails.
+     */
+    private void writeFully(List<ByteBuffer> buffers) throws IOException {
+        ByteBuffer[] records = buffers.toArray(new ByteBuffer[0]);
+        while (records.length > 0 && records[records.length - 1].hasRemaining()) {
+            journalFile.write(records);
+        }
+    }
+
+    /**
+     * Write queued records until the journal is closed. Runs on the background writer.
+     *
+     * Each pass writes all records queued meanwhile with a single gathering
+     * write, so changes appended while a force is in progress share the next one.
+     */
+    private void writeRecords() {
+        long lastSync = System.nanoTime();
+        long written = writtenLsn;
+        long synced = syncedLsn;
+        long fileLsn = currentFileLsn;
+        boolean closing = false;
+
+        while (!closing) {
+            List<PendingWrite> batch = new ArrayList<>();
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    if (syncPolicy == JournalSyncPolicy.INTERVAL && synced < written) {
+                        long remaining = SYNC_INTERVAL_NANOS - (System.nanoTime() - lastSync);
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        workAvailable.awaitNanos(remaining);
+                    } else {
+                        workAvailable.await();
+                    }
+                }
+                batch.addAll(pending);
+                pending.clear();
+                closing = closed;
+            } catch (InterruptedException e) {
+                closing = true;     // not interrupted by the journal itself, stop writing
+            } finally {
+                lock.unlock();
+            }
+
+            IOException failed = null;
+            if (failure == null) {
+                try {
+                    List<ByteBuffer> buffers = new ArrayList<>();
+                    long buffered = written;
+                    for (PendingWrite write : batch) {
+                        if (write.record != null) {
+                            buffers.add(ByteBuffer.wrap(write.record));
+                            buffered = write.lsn;
+                        } else {        // Condition: Checkpoint started, continue in a new journal file.
+                            writeFully(buffers);
+                            buffers.clear();
+                            written = buffered;
+                            if (syncPolicy != JournalSyncPolicy.NEVER) {
+                                journalFile.force(false);
+                                synced = written;
+                            }
+                            journalFile.close();
+                            journalFile = openJournalFile(write.lsn);
+                            fileLsn = write.lsn;
+                        }
+                    }
+                    writeFully(buffers);
+                    written = buffered;
+
+                    boolean syncDue = syncPolicy == JournalSyncPolicy.ALWAYS
+                            || (syncPolicy == JournalSyncPolicy.INTERVAL
+                                && (closing || System.nanoTime() - lastSync >= SYNC_INTERVAL_NANOS));
+                    if (syncDue && synced < written) {
+                        journalFile.force(false);
+                        synced = written;
+                        lastSync = System.nanoTime();
+                    }
+                } catch (IOException e) {
+                    failed = e;
+                    System.err.println("ERROR: Writing library journal failed: " + e);
+                }
+            }
+
+            lock.lock();
+            try {
+                if (failed != null) {
+                    failure = failed;
+                }
+                writtenLsn = written;
+                syncedLsn = synced;
+                currentFileLsn = fileLsn;
+                if (closing) {
+                    stopped = true;
+                }
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        try {
+            journalFile.close();
+        } catch (IOException e) {
+            System.err.println("ERROR: Closing library journal failed: " + e);
+        }
+    }
+
+    /**
+     * Write a checkpoint and delete the files made obsolete by it. Runs on a background thread.
+     *
+     * @param books all books after the given change.
+     * @param lsn LSN of the last change contained in the books.
+     */
+    private void writeCheckpoint(List<BookEntry> books, long lsn) {
+        try {
+            Path checkpoint = checkpointPath(directory, lsn);
+            Path temporary = directory.resolve(checkpoint.getFileName() + TEMPORARY_SUFFIX);
+
+            LibrarySnapshot.write(temporary, books);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE);
+
+            boolean rotated;
+            lock.lock();
+            try {
+                while (currentFileLsn <= lsn && failure == null && !stopped) {
+                    progress.awaitUninterruptibly();
+                }
+                rotated = currentFileLsn > lsn;
+            } finally {
+                lock.unlock();
+            }
+            if (rotated) {      // Condition: Older journal files are complete and closed.
+                deleteObsoleteFiles(directory, lsn);
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR: Writing library checkpoint failed: " + e);
+        } finally {
+            lock.lock();
+            try {
+                checkpointRunning = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Append a record of books added to the library.
+     *
+     * @param added added books in library order.
+     * @return LSN of the record.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if writing the journal has failed before, so the record is not queued.
+     * @throws NullPointerException if the given list is null.
+     */
+    public long appendBooksAdded(List<BookEntry> added) {
+        Objects.requireNonNull(added, "Given book list must not be null.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = startRecord(bytes, BOOKS_ADDED)) {
+            writeBooks(out, added);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // not thrown by in-memory streams
+        }
+        return append(bytes);
+    }
+
+    /**
+     * Append a record of the removal of the first book with the given title.
+     *
+     * @param title title of the removed book.
+     * @return LSN of the record.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if writing the journal has failed before, so the record is not queued.
+     * @throws NullPointerException if the given title is null.
+     */
+    public long appendTitleRemoved(String title) {
+        Objects.requireNonNull(title, "Given title must not be null.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = startRecord(bytes, TITLE_REMOVED)) {
+            LibrarySnapshot.writeString(out, title);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // not thrown by in-memory streams
+        }
+        return append(bytes);
+    }
+
+    /**
+     * Append a record of the removal of all books of the given author.
+     *
+     * @param author author whose books were removed.
+     * @return LSN of the record.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if writing the journal has failed before, so the record is not queued.
+     * @throws NullPointerException if the given author is null.
+     */
+    public long appendAuthorRemoved(String author) {
+        Objects.requireNonNull(author, "Given author must not be null.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = startRecord(bytes, AUTHOR_REMOVED)) {
+            LibrarySnapshot.writeString(out, author);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // not thrown by in-memory streams
+        }
+        return append(bytes);
+    }
+
+    /**
+     * Append a record of the replacement of all books of the library.
+     *
+     * @param restored books held by the library afterwards, in library order.
+     * @return LSN of the record.
+     * @throws IllegalStateException if the journal has been closed.
+     * @throws UncheckedIOException if writing the journal has failed before, so the record is not queued.
+     * @throws NullPointerException if the given list is null.
+     */
+    public long appendBooksRestored(List<BookEntry> restored) {
+        Objects.requireNonNull(restored, "Given book list must not be null.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = startRecord(bytes, BOOKS_RESTORED)) {
+            writeBooks(out, restored);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);      // not thrown by in-memory streams
+        }
+        return append(bytes);
+    }
+
+    /**
+     * Wait until the record with the given LSN is durable as required by the sync policy.
+     *
+     * Only the ALWAYS policy waits for the record to be forced to the device.
+     * With the other policies, the record is only known to be lost if writing
+     * the journal has failed before it has been written.
+     *
+     * @param lsn LSN of an appended record.
+     * @throws UncheckedIOException if writing the journal has failed before the record was durable.
+     * @throws IllegalStateException if the journal has been closed before the record was durable.
+     */
+    public void awaitDurable(long lsn) {
+        lock.lock();
+        try {
+            if (syncPolicy != JournalSyncPolicy.ALWAYS) {
+                if (writtenLsn < lsn) {
+                    checkNotFailed();
+                }
+                return;
+            }
+
+            while (syncedLsn < lsn && failure == null && !stopped) {
+                progress.awaitUninterruptibly();
+            }
+            if (syncedLsn < lsn) {
+                checkNotFailed();
+                throw new IllegalStateException("Library journal has been closed before LSN " + lsn + " was durable.");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether the journal has grown large enough for a checkpoint
+     * and no checkpoint is currently being written.
+     *
+     * @return true if a checkpoint should be started, false otherwise.
+     */
+    public boolean isCheckpointDue() {
+        lock.lock();
+        try {
+            return uncheckpointedBytes >= CHECKPOINT_THRESHOLD && !checkpointRunning && !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start writing a checkpoint of the given books in the background.
+     *
+     * The given books must be the library after the last appended change, so no
+     * change may be appended before this method returns. Later changes go to a
+     * new journal file. Once the checkpoint is complete, older checkpoints and
+     * journal files are deleted.
+     *
+     * @param books all books of the library, not to be changed anymore.
+     * @throws IllegalStateException if the journal has been closed or a checkpoint is already being written.
+     * @throws NullPointerException if the given list is null.
+     */
+    public void checkpoint(List<BookEntry> books) {
+        Objects.requireNonNull(books, "Given book list must not be null.");
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Library journal has been closed.");
+            }
+            if (checkpointRunning) {
+                throw new IllegalStateException("A checkpoint is already being written.");
+            }
+            checkpointRunning = true;
+            pending.add(new PendingWrite(lastLsn + 1, null));
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        uncheckpointedBytes = 0;
+
+        checkpointWriter = new CheckpointWriter(books, lastLsn);
+        checkpointWriter.start();
+    }
+
+    /**
+     * Close the journal after writing all queued records and the current checkpoint.
+     *
+     * Records are forced to the device before closing unless the sync policy is NEVER.
+     * Closing an already closed journal has no effect.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        Thread[] threads = { writer, checkpointWriter };
+        for (Thread thread : threads) {
+            while (thread != null && thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Record queued for writing, or the start of a new journal file. */
+    private static final class PendingWrite {
+
+        /** LSN of the record, or of the first record of the new journal file. */
+        private final long lsn;
+        /** Complete record, null to start a new journal file. */
+        private final byte[] record;
+
+        /**
+         * Create a queued write.
+         *
+         * @param lsn LSN of the record, or of the first record of the new journal file.
+         * @param record complete record, null to start a new journal file.
+         */
+        private PendingWrite(long lsn, byte[] record) {
+            this.lsn = lsn;
+            this.record = record;
+        }
+    }
+
+    /** Background thread writing queued records. */
+    private final class RecordWriter extends Thread {
+
+        /** Create the writer. It does not keep the program running. */
+        private RecordWriter() {
+            super("library-journal-writer");
+            setDaemon(true);
+        }
+
+        /** Write queued records until the journal is closed. */
+        @Override
+        public void run() {
+            writeRecords();
+        }
+    }
+
+    /** Background thread writing a checkpoint. */
+    private final class CheckpointWriter extends Thread {
+
+        /** All books after the change with the given LSN. */
+        private final List<BookEntry> books;
+        /** LSN of the last change contained in the books. */
+        private final long lsn;
+
+        /**
+         * Create a checkpoint writer. It does not keep the program running.
+         *
+         * @param books all books after the change with the given LSN.
+         * @param lsn LSN of the last change contained in the books.
+         */
+        private CheckpointWriter(List<BookEntry> books, long lsn) {
+            super("library-checkpoint-writer");
+            setDaemon(true);
+            this.books = books;
+            this.lsn = lsn;
+        }
+
+        /** Write the checkpoint. */
+        @Override
+        public void run() {
+            writeCheckpoint(books, lsn);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event for merging a batch of parsed books into a library. */
+@Name("library.Merge")
+@Label("Library Merge")
+@Category({ "Library", "Loading" })
+@Description("Batch of book entries merged into the library, discarding duplicates")
+public final class LibraryMergeEvent extends Event {
+
+    /** Number of books added to the library. */
+    @Label("Added")
+    long added;
+
+    /** Number of books discarded as duplicates. */
+    @Label("Duplicates")
+    long duplicates;
+}
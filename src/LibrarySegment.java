@@ -0,0 +1,464 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable run of books in library order together with its own indexes.
+ *
+ * A library version consists of a sequence of segments. New books end up in
+ * a new segment, so versions share all existing segments instead of copying
+ * them. Removing books only creates a new list of remaining positions, which
+ * shares books and indexes with the original segment. Once less than half of
+ * the books of a segment remain, the remaining books are rebuilt into a
+ * smaller segment.
+ *
+ * Books are addressed by position within the segment, removed ones included,
+ * or by index among the remaining books only.
+ */
+public final class LibrarySegment {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Memory layout of the books. */
+    private final StorageLayout layout;
+    /** Dictionary of the author names of the books. */
+    private final AuthorDictionary authorDictionary;
+    /** All books by position, including removed ones. */
+    private final List<BookEntry> books;
+    /** Trigram index over the titles, ids being positions. */
+    private final TitleIndex titleIndex;
+    /** Author index by author id, book ids being positions. */
+    private final AuthorIndex authorIndex;
+    /** Index by book hash code, book ids being positions. */
+    private final BookHashIndex hashIndex;
+    /** Ascending positions of the remaining books, null if no book has been removed. */
+    private final int[] livePositions;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a segment.
+     *
+     * @param layout memory layout of the books.
+     * @param authorDictionary dictionary of the author names of the books.
+     * @param books all books by position, not to be changed anymore.
+     * @param titleIndex trigram index over the titles, not to be changed anymore.
+     * @param authorIndex author index, not to be changed anymore.
+     * @param hashIndex index by book hash code, not to be changed anymore.
+     * @param livePositions ascending positions of the remaining books, null if none has been removed.
+     */
+    private LibrarySegment(StorageLayout layout, AuthorDictionary authorDictionary, List<BookEntry> books,
+            TitleIndex titleIndex, AuthorIndex authorIndex, BookHashIndex hashIndex, int[] livePositions) {
+        this.layout = layout;
+        this.authorDictionary = authorDictionary;
+        this.books = books;
+        this.titleIndex = titleIndex;
+        this.authorIndex = authorIndex;
+        this.hashIndex = hashIndex;
+        this.livePositions = livePositions;
+    }
+
+    /**
+     * Create a segment holding the given books.
+     *
+     * @param layout memory layout of the books.
+     * @param authorDictionary dictionary receiving the author names of the books.
+     * @param books books in library order.
+     * @return new segment.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public static LibrarySegment of(StorageLayout layout, AuthorDictionary authorDictionary, List<BookEntry> books) {
+        Objects.requireNonNull(books, "Given book list must not be null.");
+
+        Builder builder = new Builder(layout, authorDictionary);
+        for (BookEntry book : books) {
+            builder.add(book);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a segment holding the remaining books of both given segments.
+     *
+     * @param first segment whose books come first.
+     * @param second segment whose books come second.
+     * @return new segment.
+     */
+    static LibrarySegment merge(LibrarySegment first, LibrarySegment second) {
+        Builder builder = new Builder(first.layout, first.authorDictionary);
+        first.addRemainingTo(builder);
+        second.addRemainingTo(builder);
+        return builder.build();
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Get the position of the remaining book with the given index.
+     *
+     * @param index index among the remaining books.
+     * @return position within the segment.
+     */
+    private int position(int index) {
+        return (livePositions == null) ? index : livePositions[index];
+    }
+
+    /**
+     * Get the index of the remaining book at the given position.
+     *
+     * @param position position of a remaining book within the segment.
+     * @return index among the remaining books.
+     */
+    private int index(int position) {
+        return (livePositions == null) ? position : Arrays.binarySearch(livePositions, position);
+    }
+
+    /**
+     * Check whether the book at the given position has not been removed.
+     *
+     * @param position position within the segment.
+     * @return true if the book remains, false if it has been removed.
+     */
+    private boolean isLive(int position) {
+        return livePositions == null || Arrays.binarySearch(livePositions, position) >= 0;
+    }
+
+    /**
+     * Get the title of the book at the given position.
+     *
+     * @param position position within the segment, including removed books.
+     * @return title.
+     */
+    private String getTitleAt(int position) {
+        if (books instanceof ColumnarBookStore) {
+            return ((ColumnarBookStore) books).getTitle(position);
+        }
+        return books.get(position).getTitle();
+    }
+
+    /**
+     * Add all remaining books to the given builder.
+     *
+     * @param builder builder of another segment.
+     */
+    private void addRemainingTo(Builder builder) {
+        for (int i = 0; i < size(); i++) {
+            builder.add(get(i));
+        }
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the number of remaining books.
+     *
+     * @return number of books which have not been removed.
+     */
+    public int size() {
+        return (livePositions == null) ? books.size() : livePositions.length;
+    }
+
+    /**
+     * Get a remaining book.
+     *
+     * @param index index among the remaining books.
+     * @return book.
+     * @throws IndexOutOfBoundsException if the index is not valid.
+     */
+    public BookEntry get(int index) {
+        Objects.checkIndex(index, size());
+        return books.get(position(index));
+    }
+
+    /**
+     * Get the title of a remaining book without materialising the book.
+     *
+     * @param index index among the remaining books.
+     * @return title.
+     * @throws IndexOutOfBoundsException if the index is not valid.
+     */
+    public String getTitle(int index) {
+        Objects.checkIndex(index, size());
+        return getTitleAt(position(index));
+    }
+
+    /**
+     * Add all remaining books whose title contains the given search value, ignoring case,
+     * to the given list.
+     *
+     * @param searchValue value to search for.
+     * @param found list receiving matching books in library order.
+     * @return number of candidate titles checked, including those of removed books.
+     */
+    int search(String searchValue, List<BookEntry> found) {
+        int[] candidates = titleIndex.findCandidates(searchValue);
+        for (int position : candidates) {
+            if (isLive(position) && titleIndex.matches(position, searchValue)) {
+                found.add(books.get(position));
+            }
+        }
+        return candidates.length;
+    }
+
+    /**
+     * Get the dictionary of the author names of the books.
+     *
+     * @return author dictionary, shared with the segments this one has been derived from.
+     */
+    AuthorDictionary getAuthorDictionary() {
+        return authorDictionary;
+    }
+
+    /**
+     * Add the remaining books of each author to the given author groups.
+     *
+     * @param authorGroups library indexes of the books of each author in ascending
+     * order by author id, null for authors without books so far.
+     * @param start library index of the first remaining book of this segment.
+     */
+    void addAuthorGroups(int[][] authorGroups, int start) {
+        for (int authorId : authorIndex.getAuthorIds()) {
+            int[] positions = findAuthor(authorId);
+            if (positions.length == 0) {
+                continue;
+            }
+
+            int[] group = authorGroups[authorId];
+            int offset = (group == null) ? 0 : group.length;
+            group = (group == null) ? new int[positions.length] : Arrays.copyOf(group, offset + positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                group[offset + i] = start + index(positions[i]);
+            }
+            authorGroups[authorId] = group;
+        }
+    }
+
+    /**
+     * Find the first remaining book with the given title.
+     *
+     * @param title title of the book.
+     * @return position of the book, -1 if there is none.
+     */
+    int findTitle(String title) {
+        for (int position : titleIndex.find(title)) {
+            if (isLive(position) && getTitleAt(position).equals(title)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether a remaining book is equal to the given book.
+     *
+     * Only books with an equal hash code are materialised and compared.
+     *
+     * @param book book to be found.
+     * @return true if an equal book remains, false otherwise.
+     */
+    boolean contains(BookEntry book) {
+        for (int position : hashIndex.find(book)) {
+            if (isLive(position) && books.get(position).equals(book)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all remaining books of the given author.
+     *
+     * @param authorId id of the author in the author dictionary.
+     * @return ascending positions of the books.
+     */
+    int[] findAuthor(int authorId) {
+        int[] positions = authorIndex.getBooks(authorId);
+        int found = 0;
+
+        for (int position : positions) {
+            if (isLive(position)) {
+                positions[found++] = position;
+            }
+        }
+        return Arrays.copyOf(positions, found);
+    }
+
+    /**
+     * Get the book at the given position.
+     *
+     * @param position position within the segment, including removed books.
+     * @return book.
+     */
+    BookEntry getAt(int position) {
+        return books.get(position);
+    }
+
+    /**
+     * Create a segment without the books at the given positions.
+     *
+     * Remaining books are kept in a single pass over the remaining positions.
+     *
+     * @param removed ascending positions of remaining books to be removed.
+     * @return new segment, sharing books and indexes with this one unless
+     * less than half of all books remain.
+     */
+    LibrarySegment without(int[] removed) {
+        int[] remaining = new int[size() - removed.length];
+        int removedIndex = 0;
+        int writePosition = 0;
+
+        for (int i = 0; i < size(); i++) {
+            int position = position(i);
+            if (removedIndex < removed.length && removed[removedIndex] == position) {
+                removedIndex++;
+            } else {
+                remaining[writePosition++] = position;
+            }
+        }
+
+        if (remaining.length * 2 < books.size()) {        // mostly removed books, rebuild
+            Builder builder = new Builder(layout, authorDictionary);
+            for (int position : remaining) {
+                builder.add(books.get(position));
+            }
+            return builder.build();
+        }
+        return new LibrarySegment(layout, authorDictionary, books, titleIndex, authorIndex, hashIndex, remaining);
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Collects books and builds their indexes for a new segment. */
+    public static final class Builder {
+
+        /** Memory layout of the books. */
+        private final StorageLayout layout;
+        /** Dictionary receiving the author names of the books. */
+        private final AuthorDictionary authorDictionary;
+        /** Books added so far. */
+        private final List<BookEntry> books;
+        /** Trigram index over the titles added so far. */
+        private final TitleIndex titleIndex;
+        /** Author index over the books added so far. */
+        private final AuthorIndex authorIndex;
+        /** Index by hash code over the books added so far. */
+        private final BookHashIndex hashIndex;
+
+        /**
+         * Create a builder of an empty segment.
+         *
+         * @param layout memory layout of the books.
+         * @param authorDictionary dictionary receiving the author names of the books.
+         * @throws NullPointerException if any of the given parameters is null.
+         */
+        public Builder(StorageLayout layout, AuthorDictionary authorDictionary) {
+            this.layout = Objects.requireNonNull(layout, "Given storage layout must not be null.");
+            this.authorDictionary = Objects.requireNonNull(authorDictionary, "Given author dictionary must not be null.");
+            books = (layout == StorageLayout.COLUMNAR)
+                    ? new ColumnarBookStore(authorDictionary) : new ArrayList<BookEntry>();
+            titleIndex = new TitleIndex((books instanceof ColumnarBookStore)
+                    ? ((ColumnarBookStore) books).getTitles() : new BookTitles(books));
+            authorIndex = new AuthorIndex();
+            hashIndex = new BookHashIndex();
+        }
+
+        /**
+         * Append a book.
+         *
+         * @param book book to be appended.
+         * @throws NullPointerException if the given book is null.
+         */
+        public void add(BookEntry book) {
+            Objects.requireNonNull(book, "Given book must not be null.");
+
+            books.add(book);
+            int position = titleIndex.add(book.getTitle());
+            for (String author : book.authorsView()) {
+                authorIndex.add(authorDictionary.getId(author), position);
+            }
+            hashIndex.add(book);
+        }
+
+        /**
+         * Check whether a book equal to the given book has been added.
+         *
+         * Only books with an equal hash code are materialised and compared.
+         *
+         * @param book book to be found.
+         * @return true if an equal book has been added, false otherwise.
+         * @throws NullPointerException if the given book is null.
+         */
+        public boolean contains(BookEntry book) {
+            Objects.requireNonNull(book, "Given book must not be null.");
+
+            for (int position : hashIndex.find(book)) {
+                if (books.get(position).equals(book)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Get the books added so far.
+         *
+         * @return unmodifiable view of the books.
+         */
+        public List<BookEntry> getBooks() {
+            return Collections.unmodifiableList(books);
+        }
+
+        /**
+         * Build the segment. The builder must not be used afterwards.
+         *
+         * @return segment holding all added books.
+         */
+        public LibrarySegment build() {
+            if (books instanceof ArrayList) {
+                ((ArrayList<BookEntry>) books).trimToSize();
+            }
+            return new LibrarySegment(layout, authorDictionary, books, titleIndex, authorIndex, hashIndex, null);
+        }
+    }
+
+    /** Unmodifiable list view of the titles of a list of book entries. */
+    private static final class BookTitles extends AbstractList<String> implements RandomAccess {
+
+        /** Books whose titles are viewed. */
+        private final List<BookEntry> books;
+
+        /**
+         * Create a view of the titles of the given books.
+         *
+         * @param books books whose titles are viewed.
+         */
+        private BookTitles(List<BookEntry> books) {
+            this.books = books;
+        }
+
+        /**
+         * Get the title of the book at the given position.
+         *
+         * @param index position of the book.
+         * @return title.
+         */
+        @Override
+        public String get(int index) {
+            return books.get(index).getTitle();
+        }
+
+        /**
+         * Get the number of books.
+         *
+         * @return number of titles.
+         */
+        @Override
+        public int size() {
+            return books.size();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves library commands to clients connecting via TCP on the loopback interface.
+ *
+ * All clients share a single library. Each connection is handled on its own
+ * thread, reading one command per line and answering with the command output
+ * followed by a line containing only {@value #END_OF_RESPONSE}. Commands which
+ * only read the library run concurrently without waiting for anything, commands
+ * changing it are executed one at a time by the library itself. The connection
+ * is closed on EXIT or when the client closes it.
+ */
+public class LibraryServer implements Closeable {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Line terminating the output of each command sent to a client. */
+    public static final String END_OF_RESPONSE = ".";
+
+    /** Maximum number of connections waiting to be accepted. */
+    private static final int CONNECTION_BACKLOG = 128;
+
+    /** Book data shared by all clients. */
+    private final LibraryData data;
+    /** Create and handle commands received from clients. */
+    private final CommandInterpreter cmdIntrp;
+    /** Socket accepting client connections. */
+    private final ServerSocket serverSocket;
+    /** Threads handling client connections, one per connection. */
+    private final ExecutorService connectionPool;
+    /** Currently connected clients, closed when the server is closed. */
+    private final Set<Socket> clients;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a server for the given library listening on the given port of the loopback interface.
+     *
+     * @param data book data shared by all clients.
+     * @param port port to listen on, 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     * @throws NullPointerException if the given data is null.
+     */
+    public LibraryServer(LibraryData data, int port) throws IOException {
+        this.data = Objects.requireNonNull(data, "Given data must not be null.");
+        cmdIntrp = new CommandInterpreter();
+        serverSocket = new ServerSocket(port, CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+        connectionPool = Executors.newCachedThreadPool();
+        clients = ConcurrentHashMap.newKeySet();
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Read commands from the given client and send back their output until the connection ends.
+     *
+     * @param client connected client.
+     */
+    private void handleConnection(Socket client) {
+        try (client;
+             BufferedReader commandReader = new BufferedReader(new InputStreamReader(client.getInputStream()))) {
+            OutputSink output = OutputSink.buffered(client.getOutputStream(), client.getOutputStream());
+
+            boolean exit = false;
+            String inputLine;
+            while (!exit && (inputLine = commandReader.readLine()) != null) {
+                if (!inputLine.isBlank()) {
+                    exit = processInput(inputLine, output);
+                    output.flush();         // error messages are buffered apart, so they have to precede the end line
+                    output.println(END_OF_RESPONSE);
+                    output.flush();
+                }
+            }
+        } catch (IOException e) {
+            // client went away, nothing left to answer
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    /**
+     * Create a command from the given input and execute it.
+     *
+     * A command failing unexpectedly is reported to the client like any other
+     * error, so the client still receives the end of the response and the
+     * connection stays usable.
+     *
+     * @param inputLine single line of command input.
+     * @param output destination of all output produced by the command.
+     * @return true if the input was an exit command, false otherwise.
+     */
+    private boolean processInput(String inputLine, OutputSink output) {
+        LibraryCommand command = cmdIntrp.parseCommand(inputLine);
+        if (command == null) {
+            output.error("ERROR: Given command input is invalid: " + inputLine);
+        } else {
+            if (command instanceof ExitCmd) {
+                return true;
+            } else {
+                try {
+                    cmdIntrp.executeCommand(command, data, output);
+                } catch (RuntimeException e) {
+                    output.error("ERROR: Executing command failed: " + inputLine + ": " + e);
+                }
+            }
+        }
+        return false;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the port the server is listening on.
+     *
+     * @return local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accept client connections until the server is closed.
+     *
+     * @throws IOException if accepting connections fails for other reasons than closing the server.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            final Socket client;
+            try {
+                client = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+
+            clients.add(client);
+            connectionPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    handleConnection(client);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop accepting connections and disconnect all clients.
+     *
+     * @throws IOException if closing the server socket fails.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // client is disconnected either way
+            }
+        }
+        connectionPool.shutdown();
+    }
+}
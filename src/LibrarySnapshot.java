@@ -0,0 +1,256 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Static utility for writing book data to a compact binary
+ * snapshot file and reading it back.
+ *
+ * Snapshot layout (all numbers in big-endian byte order):
+ * <pre>
+ * int     magic number
+ * int     format version
+ * varint  number of authors
+ * string  author name (repeated for each author)
+ * varint  number of books
+ * book    book data (repeated for each book)
+ * </pre>
+ * A book consists of its title (string), its number of authors (varint),
+ * an index into the author dictionary for each author (varint), its rating
+ * (float), its ISBN (string) and its number of pages (varint). Strings are
+ * stored as their UTF-8 byte length (varint) followed by the UTF-8 bytes.
+ */
+public final class LibrarySnapshot { // the final keyword prevents subclassing of this utility class
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Marks the start of a snapshot file. */
+    private static final int MAGIC_NUMBER = 0x4C494253;
+    /** Version of the snapshot layout written by this class. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the buffers used for reading and writing snapshot files. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** Upper bound for preallocated book list capacity, protecting against corrupt book counts. */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+    /** Bits of a byte used for the value in varint encoding. */
+    private static final int VARINT_VALUE_BITS = 0x7F;
+    /** Bit of a byte indicating that further varint bytes follow. */
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Not to be used. */
+    private LibrarySnapshot() {
+        // Utility classes do not need constructors and this is a way of preventing them
+        // from being instantiated accidentally.
+        throw new UnsupportedOperationException("This constructor should never be used.");
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Write a non-negative integer using as few bytes as possible.
+     * Also used for library journal records.
+     *
+     * @param out stream to write to.
+     * @param value non-negative value to be written.
+     * @throws IOException if writing fails.
+     */
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~VARINT_VALUE_BITS) != 0) {
+            out.writeByte((value & VARINT_VALUE_BITS) | VARINT_CONTINUATION_BIT);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read a non-negative integer written by writeVarInt.
+     *
+     * @param in stream to read from.
+     * @return value read.
+     * @throws IOException if reading fails or the value is malformed.
+     */
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int current = in.readUnsignedByte();
+            value |= (current & VARINT_VALUE_BITS) << shift;
+
+            if ((current & VARINT_CONTINUATION_BIT) == 0) {
+                if (value < 0) {
+                    throw new IOException("Malformed snapshot: negative length or index.");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed snapshot: varint too long.");
+    }
+
+    /**
+     * Write a String as UTF-8 bytes prefixed by their length.
+     * Also used for library journal records.
+     *
+     * @param out stream to write to.
+     * @param value String to be written.
+     * @throws IOException if writing fails.
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a String written by writeString.
+     *
+     * @param in stream to read from.
+     * @return String read.
+     * @throws IOException if reading fails.
+     */
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Assign a dictionary index to every distinct author of the given books.
+     *
+     * @param books books whose authors are collected.
+     * @return dictionary index for each author, in order of first appearance.
+     */
+    private static Map<String, Integer> buildAuthorDictionary(List<BookEntry> books) {
+        Map<String, Integer> dictionary = new HashMap<>();
+
+        for (BookEntry book : books) {
+            for (String author : book.authorsView()) {
+                if (!dictionary.containsKey(author)) {
+                    dictionary.put(author, dictionary.size());
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Write the given books to a snapshot file.
+     * An existing file is overwritten.
+     *
+     * @param snapshotFile path of the snapshot file.
+     * @param books books to be written, in library order.
+     * @throws IOException if writing fails.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public static void write(Path snapshotFile, List<BookEntry> books) throws IOException {
+        Objects.requireNonNull(snapshotFile, "Given snapshot file must not be null.");
+        Objects.requireNonNull(books, "Given books must not be null.");
+
+        Map<String, Integer> dictionary = buildAuthorDictionary(books);
+        String[] authors = new String[dictionary.size()];
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            authors[entry.getValue()] = entry.getKey();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(snapshotFile), BUFFER_SIZE))) {
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+
+            writeVarInt(out, authors.length);
+            for (String author : authors) {
+                writeString(out, author);
+            }
+
+            writeVarInt(out, books.size());
+            for (BookEntry book : books) {
+                writeString(out, book.getTitle());
+
+                String[] bookAuthors = book.authorsView();
+                writeVarInt(out, bookAuthors.length);
+                for (String author : bookAuthors) {
+                    writeVarInt(out, dictionary.get(author));
+                }
+
+                out.writeFloat(book.getRating());
+                writeString(out, book.getISBN());
+                writeVarInt(out, book.getPages());
+            }
+        }
+    }
+
+    /**
+     * Read all books from a snapshot file.
+     *
+     * Authors are shared between the read books, so each distinct
+     * author name is only held in memory once.
+     *
+     * @param snapshotFile path of the snapshot file.
+     * @return books in library order.
+     * @throws IOException if reading fails or the file is not a valid snapshot.
+     * @throws NullPointerException if the given path is null.
+     */
+    public static List<BookEntry> read(Path snapshotFile) throws IOException {
+        Objects.requireNonNull(snapshotFile, "Given snapshot file must not be null.");
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a library snapshot: " + snapshotFile);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+
+            String[] authors = new String[readVarInt(in)];
+            for (int i = 0; i < authors.length; i++) {
+                authors[i] = readString(in);
+            }
+
+            int bookCount = readVarInt(in);
+            List<BookEntry> books = new ArrayList<>(Math.min(bookCount, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < bookCount; i++) {
+                String title = readString(in);
+
+                String[] bookAuthors = new String[readVarInt(in)];
+                for (int j = 0; j < bookAuthors.length; j++) {
+                    int authorIndex = readVarInt(in);
+                    if (authorIndex >= authors.length) {
+                        throw new IOException("Malformed snapshot: unknown author index " + authorIndex);
+                    }
+                    bookAuthors[j] = authors[authorIndex];
+                }
+
+                float rating = in.readFloat();
+                String ISBN = readString(in);
+                int pages = readVarInt(in);
+
+                try {
+                    books.add(new BookEntry(title, bookAuthors, rating, ISBN, pages));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Malformed snapshot: invalid book " + title + ": " + e.getMessage());
+                }
+            }
+            return books;
+        } catch (EOFException e) {
+            throw new IOException("Malformed snapshot: unexpected end of file.", e);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable state of a library at one point in time.
+ *
+ * Every change of a library creates a new version instead of changing the
+ * current one. A new version shares all unchanged segments with the version
+ * it has been derived from, so creating it does not copy the whole library.
+ * Versions can be read by any number of threads without locking, and a
+ * command reading a single version sees a consistent library regardless of
+ * concurrent changes.
+ *
+ * To keep the number of segments small, a new segment is merged with the
+ * preceding one as long as it holds at least half as many books.
+ */
+public final class LibraryVersion {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Version of a newly created library. */
+    private static final LibraryVersion EMPTY = new LibraryVersion(0, new LibrarySegment[0]);
+
+    /** Number of changes made to the library up to this version. */
+    private final long number;
+    /** Segments holding the books in library order. */
+    private final LibrarySegment[] segments;
+    /** Library index of the first book of each segment, followed by the total number of books. */
+    private final int[] segmentStarts;
+    /** Unmodifiable list view of all books. */
+    private final List<BookEntry> bookList;
+    /** Unmodifiable list view of all titles. */
+    private final List<String> titleList;
+    /** Books of each author in alphabetical order of authors, null until first requested. */
+    private volatile SortedMap<String, Set<BookEntry>> authorGroups;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a version.
+     *
+     * @param number number of changes made to the library up to this version.
+     * @param segments non-empty segments holding the books in library order, not to be changed anymore.
+     */
+    private LibraryVersion(long number, LibrarySegment[] segments) {
+        this.number = number;
+        this.segments = segments;
+
+        segmentStarts = new int[segments.length + 1];
+        for (int i = 0; i < segments.length; i++) {
+            segmentStarts[i + 1] = segmentStarts[i] + segments[i].size();
+        }
+        bookList = new BookList();
+        titleList = new TitleList();
+    }
+
+    /**
+     * Get the version of a newly created library.
+     *
+     * @return version without any books.
+     */
+    public static LibraryVersion empty() {
+        return EMPTY;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Find the segment holding the book at the given library index.
+     * Segments are never empty, so their starts are strictly increasing.
+     *
+     * @param index library index of a book.
+     * @return index of the segment.
+     */
+    private int segmentOf(int index) {
+        int found = Arrays.binarySearch(segmentStarts, index);
+        return (found >= 0) ? found : -found - 2;      // insertion point is behind the start of the segment
+    }
+
+    /**
+     * Build the books of each author from the author indexes of the segments.
+     *
+     * Books are collected by author id, so author names are
+     * only compared once to sort the groups.
+     *
+     * @return unmodifiable map of the books of each author in alphabetical order of authors.
+     */
+    private SortedMap<String, Set<BookEntry>> buildAuthorGroups() {
+        SortedMap<String, Set<BookEntry>> groups = new TreeMap<>();
+        if (segments.length == 0) {
+            return Collections.unmodifiableSortedMap(groups);
+        }
+
+        AuthorDictionary authorDictionary = segments[0].getAuthorDictionary();
+        int[][] groupsById = new int[authorDictionary.size()][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].addAuthorGroups(groupsById, segmentStarts[i]);
+        }
+        for (int authorId = 0; authorId < groupsById.length; authorId++) {
+            if (groupsById[authorId] != null) {
+                groups.put(authorDictionary.getAuthor(authorId), new AuthorBooks(groupsById[authorId]));
+            }
+        }
+        return Collections.unmodifiableSortedMap(groups);
+    }
+
+    /**
+     * Create the next version holding the given segments, dropping empty ones.
+     *
+     * @param changed segments holding the books in library order.
+     * @return next version.
+     */
+    private LibraryVersion next(List<LibrarySegment> changed) {
+        List<LibrarySegment> nonEmpty = new ArrayList<>(changed.size());
+        for (LibrarySegment segment : changed) {
+            if (segment.size() > 0) {
+                nonEmpty.add(segment);
+            }
+        }
+        return new LibraryVersion(number + 1, nonEmpty.toArray(new LibrarySegment[0]));
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the number of changes made to the library up to this version.
+     *
+     * @return version number, increasing with every change.
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the number of books.
+     *
+     * @return number of book entries in this version.
+     */
+    public int getBookCount() {
+        return segmentStarts[segments.length];
+    }
+
+    /**
+     * Get all books in library order.
+     *
+     * @return unmodifiable list of all book entries, which never changes.
+     */
+    public List<BookEntry> getBookData() {
+        return bookList;
+    }
+
+    /**
+     * Get the titles of all books in library order.
+     *
+     * For a columnar library, the titles are read directly from
+     * the title column without materialising any book entries.
+     *
+     * @return unmodifiable list of all titles, which never changes.
+     */
+    public List<String> getTitles() {
+        return titleList;
+    }
+
+    /**
+     * Find all books whose title contains the given search value, ignoring case.
+     *
+     * @param searchValue value to search for.
+     * @return matching books in library order.
+     * @throws NullPointerException if the given search value is null.
+     */
+    public List<BookEntry> searchByTitle(String searchValue) {
+        List<BookEntry> found = new ArrayList<>();
+        searchByTitle(searchValue, found);
+        return found;
+    }
+
+    /**
+     * Add all books whose title contains the given search value, ignoring case,
+     * to the given list.
+     *
+     * @param searchValue value to search for.
+     * @param found list receiving matching books in library order.
+     * @return number of candidate titles found in the title indexes and checked.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public long searchByTitle(String searchValue, List<BookEntry> found) {
+        Objects.requireNonNull(searchValue, "Given search value must not be null.");
+        Objects.requireNonNull(found, "Given result list must not be null.");
+
+        long checked = 0;
+        for (LibrarySegment segment : segments) {
+            checked += segment.search(searchValue, found);
+        }
+        return checked;
+    }
+
+    /**
+     * Check whether the version holds a book equal to the given book.
+     *
+     * @param book book to be found.
+     * @return true if an equal book is held, false otherwise.
+     * @throws NullPointerException if the given book is null.
+     */
+    public boolean contains(BookEntry book) {
+        Objects.requireNonNull(book, "Given book must not be null.");
+
+        for (LibrarySegment segment : segments) {
+            if (segment.contains(book)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get all authors with their books.
+     *
+     * The groups are built from the author indexes of the segments when
+     * first requested and kept for this version, so later calls only walk
+     * them. Each group holds library indexes and reads its books from this
+     * version while iterated, so no book is kept materialised.
+     *
+     * @return unmodifiable map of the books of each author in library order,
+     * in alphabetical order of authors.
+     */
+    public SortedMap<String, Set<BookEntry>> getAuthorGroups() {
+        SortedMap<String, Set<BookEntry>> groups = authorGroups;
+        if (groups == null) {       // versions are immutable, so racing readers build equal groups
+            groups = buildAuthorGroups();
+            authorGroups = groups;
+        }
+        return groups;
+    }
+
+    /**
+     * Create the next version with the given books appended.
+     *
+     * @param added segment holding the books to be appended.
+     * @return next version.
+     * @throws NullPointerException if the given segment is null.
+     */
+    public LibraryVersion withBooks(LibrarySegment added) {
+        Objects.requireNonNull(added, "Given segment must not be null.");
+
+        List<LibrarySegment> changed = new ArrayList<>(Arrays.asList(segments));
+        LibrarySegment last = added;
+        while (!changed.isEmpty() && last.size() * 2 >= changed.get(changed.size() - 1).size()) {
+            last = LibrarySegment.merge(changed.remove(changed.size() - 1), last);
+        }
+        changed.add(last);
+        return next(changed);
+    }
+
+    /**
+     * Create the next version holding only the given books.
+     *
+     * @param replacing segment holding all books of the next version.
+     * @return next version.
+     * @throws NullPointerException if the given segment is null.
+     */
+    public LibraryVersion replacedBy(LibrarySegment replacing) {
+        Objects.requireNonNull(replacing, "Given segment must not be null.");
+
+        return next(Collections.singletonList(replacing));
+    }
+
+    /**
+     * Create the next version without the first book with the given title.
+     *
+     * @param title title of the book to be removed.
+     * @param removed list receiving the removed book.
+     * @return next version, or this version if no book has the given title.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public LibraryVersion withoutTitle(String title, List<BookEntry> removed) {
+        Objects.requireNonNull(title, "Given title must not be null.");
+        Objects.requireNonNull(removed, "Given list must not be null.");
+
+        for (int i = 0; i < segments.length; i++) {
+            int position = segments[i].findTitle(title);
+
+            if (position >= 0) {
+                removed.add(segments[i].getAt(position));
+
+                List<LibrarySegment> changed = new ArrayList<>(Arrays.asList(segments));
+                changed.set(i, segments[i].without(new int[] { position }));
+                return next(changed);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Create the next version without any book written by the given author.
+     *
+     * @param authorId id of the author whose books are to be removed, in the
+     * author dictionary of the segments.
+     * @param removed list receiving the removed books.
+     * @return next version, or this version if the author has no books.
+     * @throws NullPointerException if the given list is null.
+     */
+    public LibraryVersion withoutAuthor(int authorId, List<BookEntry> removed) {
+        Objects.requireNonNull(removed, "Given list must not be null.");
+
+        List<LibrarySegment> changed = new ArrayList<>(Arrays.asList(segments));
+        int removedBefore = removed.size();
+
+        for (int i = 0; i < segments.length; i++) {
+            int[] positions = segments[i].findAuthor(authorId);
+
+            if (positions.length > 0) {
+                for (int position : positions) {
+                    removed.add(segments[i].getAt(position));
+                }
+                changed.set(i, segments[i].without(positions));
+            }
+        }
+        return (removed.size() == removedBefore) ? this : next(changed);
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Unmodifiable list view of all books of this version. */
+    private final class BookList extends AbstractList<BookEntry> implements RandomAccess {
+
+        /**
+         * Get the book at the given library index.
+         *
+         * @param index library index.
+         * @return book.
+         */
+        @Override
+        public BookEntry get(int index) {
+            Objects.checkIndex(index, size());
+            int segment = segmentOf(index);
+            return segments[segment].get(index - segmentStarts[segment]);
+        }
+
+        /**
+         * Get the number of books.
+         *
+         * @return number of books in this version.
+         */
+        @Override
+        public int size() {
+            return getBookCount();
+        }
+    }
+
+    /** Unmodifiable set view of the books of a single author in library order. */
+    private final class AuthorBooks extends AbstractSet<BookEntry> {
+
+        /** Library indexes of the books in ascending order. */
+        private final int[] indexes;
+
+        /**
+         * Create a view of the books at the given library indexes.
+         *
+         * @param indexes library indexes of the books in ascending order.
+         */
+        private AuthorBooks(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        /**
+         * Get an iterator over the books in library order.
+         *
+         * @return iterator, not supporting removal.
+         */
+        @Override
+        public Iterator<BookEntry> iterator() {
+            return new Iterator<BookEntry>() {
+
+                /** Position of the next book within the indexes. */
+                private int next = 0;
+
+                /**
+                 * Check whether books are left.
+                 *
+                 * @return true if another book follows, false otherwise.
+                 */
+                @Override
+                public boolean hasNext() {
+                    return next < indexes.length;
+                }
+
+                /**
+                 * Get the next book.
+                 *
+                 * @return next book.
+                 * @throws NoSuchElementException if no book is left.
+                 */
+                @Override
+                public BookEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return bookList.get(indexes[next++]);
+                }
+            };
+        }
+
+        /**
+         * Get the number of books.
+         *
+         * @return number of books of the author.
+         */
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
+
+    /** Unmodifiable list view of the titles of all books of this version. */
+    private final class TitleList extends AbstractList<String> implements RandomAccess {
+
+        /**
+         * Get the title of the book at the given library index.
+         *
+         * @param index library index.
+         * @return title.
+         */
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size());
+            int segment = segmentOf(index);
+            return segments[segment].getTitle(index - segmentStarts[segment]);
+        }
+
+        /**
+         * Get the number of books.
+         *
+         * @return number of titles in this version.
+         */
+        @Override
+        public int size() {
+            return getBookCount();
+        }
+    }
+}
@@ -32,17 +32,16 @@ public class ListCmd extends LibraryCommand {
     /**
      * Print a book list header according to book list size.
      *
-     * @param data book data in library.
+     * @param bookCount number of books in library.
+     * @param output destination of the printed output.
      * @return true if library contains books, otherwise false.
      */
-    private boolean listHeader(LibraryData data) {
-        int bookCount = data.getBookData().size();
-
+    private boolean listHeader(int bookCount, OutputSink output) {
         if (bookCount > 0) {
-            System.out.println(bookCount + " books in library:");
+            output.println(bookCount + " books in library:");
             return true;
         } else {
-            System.out.println("The library has no book entries.");
+            output.println("The library has no book entries.");
             return false;
         }
     }
@@ -50,27 +49,27 @@ public class ListCmd extends LibraryCommand {
     /**
      * Print short book list.
      *
-     * @param data book data in library.
+     * @param titles titles of all books in library.
+     * @param output destination of the printed output.
      */
-    private void displayShort(LibraryData data) {
-        List<BookEntry> books = data.getBookData();
+    private void displayShort(List<String> titles, OutputSink output) {
         StringBuilder shortList = new StringBuilder();
 
-        for (BookEntry book : books) {
-            shortList.append(book.getTitle());
+        for (String title : titles) {
+            shortList.append(title);
             shortList.append("\n");
         }
 
-        System.out.print(shortList);
+        output.print(shortList);
     }
 
     /**
      * Print long book list.
      *
-     * @param data book data in library.
+     * @param books all books in library.
+     * @param output destination of the printed output.
      */
-    private void displayLong(LibraryData data) {
-        List<BookEntry> books = data.getBookData();
+    private void displayLong(List<BookEntry> books, OutputSink output) {
         StringBuilder longList = new StringBuilder();
 
         for (BookEntry book : books) {
@@ -78,7 +77,7 @@ public class ListCmd extends LibraryCommand {
             longList.append("\n\n");
         }
 
-        System.out.print(longList);
+        output.print(longList);
     }
 
     // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
@@ -107,22 +106,33 @@ public class ListCmd extends LibraryCommand {
     /**
      * Execute the list command.
      * Prints according to listType either long or short book list.
+     * Header and list are taken from the same version of the library, so they
+     * agree even if the library is changed concurrently.
      *
      * @param data book data to be considered for command execution.
-     * @throws NullPointerException if given data is null.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
      */
     @Override
-    public void execute(LibraryData data) {
+    public void execute(LibraryData data, OutputSink output) {
         Objects.requireNonNull(data, "Provided library data for ListCmd execution must not be null.");
-
-        if (listHeader(data)) {
-            switch (listType) {
-                case SHORT_LIST_TYPE:
-                    displayShort(data);
-                    break;
-                case LONG_LIST_TYPE:
-                    displayLong(data);
-            }
+        Objects.requireNonNull(output, "Provided output sink for ListCmd execution must not be null.");
+
+        LibraryVersion version = data.getCurrentVersion();
+        switch (listType) {
+            case SHORT_LIST_TYPE:
+                List<String> titles = version.getTitles();
+                recordRows(titles.size(), titles.size());
+                if (listHeader(titles.size(), output)) {
+                    displayShort(titles, output);
+                }
+                break;
+            case LONG_LIST_TYPE:
+                List<BookEntry> books = version.getBookData();
+                recordRows(books.size(), books.size());
+                if (listHeader(books.size(), output)) {
+                    displayLong(books, output);
+                }
         }
     }
 }
@@ -0,0 +1,53 @@
+/**
+ * Numbers of lines parsed and book entries added by loading book data,
+ * filled in by {@link LibraryData#loadData(java.nio.file.Path, OutputSink, LoadCounts)}.
+ *
+ * Unlike comparing the book count before and after loading, the numbers
+ * are exact even if other clients change the library at the same time.
+ */
+public class LoadCounts {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of parsed lines of all loaded files, excluding header lines. */
+    private long linesParsed;
+    /** Number of book entries added to the library. */
+    private int booksAdded;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create counts of a load which has not happened yet. */
+    public LoadCounts() {
+        linesParsed = 0;
+        booksAdded = 0;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Set the counts of a finished load.
+     *
+     * @param linesParsed number of parsed lines of all loaded files, excluding header lines.
+     * @param booksAdded number of book entries added to the library.
+     */
+    void set(long linesParsed, int booksAdded) {
+        this.linesParsed = linesParsed;
+        this.booksAdded = booksAdded;
+    }
+
+    /**
+     * Getter method for the number of parsed lines.
+     * @return number of parsed lines of all loaded files, excluding header lines, including invalid ones.
+     */
+    public long getLinesParsed() {
+        return linesParsed;
+    }
+
+    /**
+     * Getter method for the number of added book entries.
+     * @return number of book entries added to the library, not counting duplicates and invalid lines.
+     */
+    public int getBooksAdded() {
+        return booksAdded;
+    }
+}
@@ -1,12 +1,145 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /** Main entry point into the library browser program. */
 public class Main {
 
+    /** Program argument selecting the columnar memory layout for book data. */
+    private static final String COLUMNAR_ARGUMENT = "--columnar";
+    /** Program argument followed by a command file to be executed without user interaction. */
+    private static final String BATCH_ARGUMENT = "--batch";
+    /** Program argument followed by a port on which library commands are served to local clients. */
+    private static final String SERVER_ARGUMENT = "--server";
+    /** Program argument followed by a directory in which all changes are journaled and recovered from. */
+    private static final String JOURNAL_ARGUMENT = "--journal";
+    /** Program argument followed by the policy for forcing journal records to the storage device. */
+    private static final String JOURNAL_SYNC_ARGUMENT = "--journal-sync";
+
+    /**
+     * Open the journal in the given directory for the given library, recovering its changes.
+     * The journal is closed when the program terminates.
+     * @param data empty book data
+     * @param directory directory holding the journal
+     * @param syncPolicy policy for forcing journal records to the storage device
+     * @return true if the journal was opened, false otherwise
+     */
+    private static boolean openJournal(final LibraryData data, Path directory, JournalSyncPolicy syncPolicy) {
+        try {
+            data.openJournal(directory, syncPolicy);
+        } catch (IOException | SecurityException e) {
+            System.err.println("ERROR: Opening library journal failed: " + e);
+            return false;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                data.closeJournal();
+            }
+        });
+        System.out.println(data.getBookCount() + " book entries recovered from journal.");
+        return true;
+    }
+
+    /**
+     * Serve the given library until the program is terminated.
+     * @param data book data to be served
+     * @param port port on the loopback interface to listen on
+     * @return true if serving ended normally, false if the server failed
+     */
+    private static boolean serve(LibraryData data, int port) {
+        try (LibraryServer server = new LibraryServer(data, port)) {
+            System.out.println("Library server listening on port " + server.getPort());
+            server.serve();
+            return true;
+        } catch (IOException e) {
+            System.err.println("ERROR: Library server failed: " + e);
+            return false;
+        }
+    }
+
     /**
      * Start the library browser program.
-     * @param args not used for arguments
+     * @param args optionally {@value #COLUMNAR_ARGUMENT} to store book data column by column
+     * and {@value #BATCH_ARGUMENT} followed by a command file to execute its commands
+     * or {@value #SERVER_ARGUMENT} followed by a port to serve commands to local clients,
+     * {@value #JOURNAL_ARGUMENT} followed by a directory to journal all changes and recover them on startup
+     * and {@value #JOURNAL_SYNC_ARGUMENT} followed by ALWAYS, INTERVAL (default) or NEVER
      */
     public static void main(String[] args) {
-        LibraryBrowser browser = new LibraryBrowser();
-        browser.run();
+        StorageLayout layout = StorageLayout.OBJECTS;
+        Path commandFile = null;
+        Integer serverPort = null;
+        Path journalDirectory = null;
+        JournalSyncPolicy syncPolicy = JournalSyncPolicy.INTERVAL;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(COLUMNAR_ARGUMENT)) {
+                layout = StorageLayout.COLUMNAR;
+            } else if (args[i].equals(BATCH_ARGUMENT) && i + 1 < args.length) {
+                commandFile = Paths.get(args[++i]);
+            } else if (args[i].equals(SERVER_ARGUMENT) && i + 1 < args.length && isPort(args[i + 1])) {
+                serverPort = Integer.parseInt(args[++i]);
+            } else if (args[i].equals(JOURNAL_ARGUMENT) && i + 1 < args.length) {
+                journalDirectory = Paths.get(args[++i]);
+            } else if (args[i].equals(JOURNAL_SYNC_ARGUMENT) && i + 1 < args.length
+                    && parseSyncPolicy(args[i + 1]) != null) {
+                syncPolicy = parseSyncPolicy(args[++i]);
+            } else {
+                System.err.println("ERROR: Unknown program argument: " + args[i]);
+                return;
+            }
+        }
+
+        LibraryData data = new LibraryData(layout);
+        if (journalDirectory != null && !openJournal(data, journalDirectory, syncPolicy)) {
+            System.exit(1);
+        }
+
+        if (serverPort != null) {
+            if (!serve(data, serverPort)) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        LibraryBrowser browser = new LibraryBrowser(data);
+        if (commandFile == null) {
+            browser.run();
+        } else if (!browser.runBatch(commandFile)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Get the journal sync policy named by the given program argument, ignoring case.
+     * @param arg program argument
+     * @return sync policy, null if the argument does not name one
+     */
+    private static JournalSyncPolicy parseSyncPolicy(String arg) {
+        for (JournalSyncPolicy policy : JournalSyncPolicy.values()) {
+            if (policy.name().equalsIgnoreCase(arg)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the given program argument is a valid port number.
+     * @param arg program argument
+     * @return true if the argument is a number between 0 and 65535, false otherwise
+     */
+    private static boolean isPort(String arg) {
+        if (arg.isEmpty() || arg.length() > 5) {
+            return false;
+        }
+        for (int i = 0; i < arg.length(); i++) {
+            if (!Character.isDigit(arg.charAt(i))) {
+                return false;
+            }
+        }
+        return Integer.parseInt(arg) <= 65535;
     }
 }
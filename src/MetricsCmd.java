@@ -0,0 +1,178 @@
+import java.util.Locale;
+import java.util.Objects;
+
+/** Metrics command used to display execution metrics of all commands. */
+public class MetricsCmd extends LibraryCommand {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Specifies command argument for displaying a table. */
+    private static final String TEXT_FORMAT = "text";
+    /** Specifies command argument for a machine-readable JSON dump. */
+    private static final String JSON_FORMAT = "json";
+
+    /** Nanoseconds per millisecond. */
+    private static final double NANOS_PER_MILLI = 1e6;
+    /** Nanoseconds per second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Format of the table rows. */
+    private static final String ROW_FORMAT = "%-8s %10s %10s %10s %10s %10s %10s %14s %14s%n";
+
+    /** Format in which metrics are displayed. */
+    private String format;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a metrics command.
+     *
+     * @param argumentInput is expected to be either "text", "json", or blank.
+     * @throws IllegalArgumentException if given argument is invalid.
+     * @throws NullPointerException if given argument is null.
+     */
+    public MetricsCmd(String argumentInput) {
+        super(CommandType.METRICS, argumentInput);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Format a latency in milliseconds.
+     *
+     * @param nanos latency in nanoseconds.
+     * @return milliseconds with three decimals.
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Get the number of executions per second.
+     *
+     * @param executions number of executions.
+     * @param uptimeNanos time in which they happened, in nanoseconds.
+     * @return executions per second.
+     */
+    private static double perSecond(long executions, long uptimeNanos) {
+        return executions / Math.max(uptimeNanos / NANOS_PER_SECOND, Double.MIN_VALUE);
+    }
+
+    /**
+     * Print the metrics of all executed command types as a table, latencies in milliseconds.
+     *
+     * @param metrics command metrics.
+     * @param output destination of the printed output.
+     */
+    private void displayTable(CommandMetrics metrics, OutputSink output) {
+        long uptime = metrics.getUptimeNanos();
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "Command metrics over %.1f s:%n", uptime / NANOS_PER_SECOND));
+        table.append(String.format(Locale.ROOT, ROW_FORMAT, "COMMAND", "COUNT", "OPS/S",
+                "P50 ms", "P99 ms", "P99.9 ms", "MAX ms", "ROWS SCANNED", "ROWS EMITTED"));
+
+        boolean executed = false;
+        for (CommandType type : CommandType.values()) {
+            CommandMetrics.CommandStats stats = metrics.getStats(type);
+            if (stats.getExecutions() == 0) {
+                continue;
+            }
+            executed = true;
+
+            LatencyHistogram latency = stats.getLatency();
+            table.append(String.format(Locale.ROOT, ROW_FORMAT, type, stats.getExecutions(),
+                    String.format(Locale.ROOT, "%.2f", perSecond(stats.getExecutions(), uptime)),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMax()),
+                    stats.getRowsScanned(), stats.getRowsEmitted()));
+        }
+
+        if (executed) {
+            output.print(table);
+        } else {
+            output.println("No commands have been executed yet.");
+        }
+    }
+
+    /**
+     * Print the metrics of all command types as a single line of JSON, latencies in nanoseconds.
+     *
+     * @param metrics command metrics.
+     * @param output destination of the printed output.
+     */
+    private void displayJson(CommandMetrics metrics, OutputSink output) {
+        long uptime = metrics.getUptimeNanos();
+        StringBuilder json = new StringBuilder();
+        json.append("{\"uptimeNanos\":").append(uptime).append(",\"commands\":[");
+
+        CommandType[] types = CommandType.values();
+        for (int i = 0; i < types.length; i++) {
+            CommandMetrics.CommandStats stats = metrics.getStats(types[i]);
+            LatencyHistogram latency = stats.getLatency();
+
+            json.append((i == 0) ? "{" : ",{");
+            json.append("\"type\":\"").append(types[i]).append('"');
+            json.append(",\"count\":").append(stats.getExecutions());
+            json.append(",\"opsPerSecond\":").append(String.format(Locale.ROOT, "%.3f",
+                    perSecond(stats.getExecutions(), uptime)));
+            json.append(",\"latencyNanos\":{");
+            json.append("\"p50\":").append(latency.getValueAtPercentile(50));
+            json.append(",\"p99\":").append(latency.getValueAtPercentile(99));
+            json.append(",\"p999\":").append(latency.getValueAtPercentile(99.9));
+            json.append(",\"max\":").append(latency.getMax());
+            json.append(",\"total\":").append(stats.getTotalNanos());
+            json.append("},\"rowsScanned\":").append(stats.getRowsScanned());
+            json.append(",\"rowsEmitted\":").append(stats.getRowsEmitted());
+            json.append('}');
+        }
+        json.append("]}");
+
+        output.println(json);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Check for validity of input and remember it in class field if valid.
+     *
+     * Input is expected to equal either {@value TEXT_FORMAT} or {@value JSON_FORMAT},
+     * or be entirely blank.
+     *
+     * @param argumentInput argument input for this command.
+     * @return true if valid input, otherwise false.
+     */
+    @Override
+    protected boolean parseArguments(String argumentInput) {
+        if (argumentInput.equals(TEXT_FORMAT) || argumentInput.isBlank()) {
+            format = TEXT_FORMAT;
+            return true;
+        } else if (argumentInput.equals(JSON_FORMAT)) {
+            format = JSON_FORMAT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Execute the metrics command.
+     * Prints the metrics of all commands executed on the library so far,
+     * according to format either as a table or as JSON.
+     *
+     * @param data book data whose command metrics are displayed.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
+     */
+    @Override
+    public void execute(LibraryData data, OutputSink output) {
+        Objects.requireNonNull(data, "Provided library data for MetricsCmd execution must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for MetricsCmd execution must not be null.");
+
+        switch (format) {
+            case TEXT_FORMAT:
+                displayTable(data.getCommandMetrics(), output);
+                break;
+            case JSON_FORMAT:
+                displayJson(data.getCommandMetrics(), output);
+        }
+    }
+}
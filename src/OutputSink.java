@@ -0,0 +1,159 @@
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Objects;
+
+/**
+ * Destination of all output produced while executing commands.
+ *
+ * Regular output and error messages are kept apart, like standard output
+ * and standard error. A sink either writes straight through to whatever
+ * System.out and System.err currently are, or collects output in large
+ * buffers which are only written when the sink is flushed. The latter
+ * avoids flushing after every single line when a lot of output is produced.
+ *
+ * NOTE: Regular output and error messages are buffered separately, so their
+ * relative order is only kept by sinks which do not buffer error messages.
+ * Interactive sinks do so, flushing regular output before each error message.
+ */
+public class OutputSink {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Size of the buffers of a buffered sink. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** Stream for regular output, null to use the current System.out. */
+    private final PrintStream out;
+    /** Stream for error messages, null to use the current System.err. */
+    private final PrintStream err;
+    /** Whether regular output is flushed before each error message. */
+    private final boolean flushBeforeError;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a sink writing to the given streams.
+     *
+     * @param out stream for regular output, null to use the current System.out.
+     * @param err stream for error messages, null to use the current System.err.
+     * @param flushBeforeError whether regular output is flushed before each error message.
+     */
+    private OutputSink(PrintStream out, PrintStream err, boolean flushBeforeError) {
+        this.out = out;
+        this.err = err;
+        this.flushBeforeError = flushBeforeError;
+    }
+
+    /**
+     * Create a sink writing straight through to the streams which are
+     * System.out and System.err at the time of writing.
+     *
+     * @return unbuffered sink.
+     */
+    public static OutputSink standard() {
+        return new OutputSink(null, null, false);
+    }
+
+    /**
+     * Create a sink buffering output before writing it to the given streams.
+     *
+     * @param out stream receiving regular output.
+     * @param err stream receiving error messages.
+     * @return buffered sink, which has to be flushed for output to appear.
+     * @throws NullPointerException if any of the given streams is null.
+     */
+    public static OutputSink buffered(OutputStream out, OutputStream err) {
+        Objects.requireNonNull(out, "Given output stream must not be null.");
+        Objects.requireNonNull(err, "Given error stream must not be null.");
+
+        return new OutputSink(new PrintStream(new BufferedOutputStream(out, BUFFER_SIZE), false),
+                new PrintStream(new BufferedOutputStream(err, BUFFER_SIZE), false), false);
+    }
+
+    /**
+     * Create a sink buffering regular output, but writing error messages
+     * straight through after flushing the regular output written before.
+     * Both therefore appear in the order they were written, e.g. on a terminal.
+     *
+     * @param out stream receiving regular output.
+     * @param err stream receiving error messages.
+     * @return sink which has to be flushed for regular output to appear.
+     * @throws NullPointerException if any of the given streams is null.
+     */
+    public static OutputSink interactive(OutputStream out, OutputStream err) {
+        Objects.requireNonNull(out, "Given output stream must not be null.");
+        Objects.requireNonNull(err, "Given error stream must not be null.");
+
+        return new OutputSink(new PrintStream(new BufferedOutputStream(out, BUFFER_SIZE), false),
+                new PrintStream(err, true), true);
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Get the stream for regular output.
+     *
+     * @return stream for regular output.
+     */
+    private PrintStream out() {
+        return (out == null) ? System.out : out;
+    }
+
+    /**
+     * Get the stream for error messages.
+     *
+     * @return stream for error messages.
+     */
+    private PrintStream err() {
+        return (err == null) ? System.err : err;
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Write regular output.
+     *
+     * @param text text to be written.
+     */
+    public void print(Object text) {
+        out().print(text);
+    }
+
+    /**
+     * Write regular output followed by a line break.
+     *
+     * @param text text to be written.
+     */
+    public void println(Object text) {
+        out().println(text);
+    }
+
+    /**
+     * Write formatted regular output.
+     *
+     * @param format format string as used by String.format.
+     * @param args arguments referenced by the format string.
+     */
+    public void printf(String format, Object... args) {
+        out().printf(format, args);
+    }
+
+    /**
+     * Write an error message followed by a line break.
+     *
+     * @param message message to be written.
+     */
+    public void error(Object message) {
+        if (flushBeforeError) {
+            out().flush();
+        }
+        err().println(message);
+    }
+
+    /** Write all buffered output to the underlying streams. */
+    public void flush() {
+        out().flush();
+        err().flush();
+    }
+}
@@ -0,0 +1,556 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Class responsible for loading large book data files
+ * using all available processor cores.
+ *
+ * Loading is a pipeline of three stages which work at the same time: a
+ * reader thread reads the file block by block, cutting blocks at line
+ * boundaries, the blocks are decoded and parsed in parallel on a
+ * ForkJoinPool, and the calling thread hands the parsed books and error
+ * messages on in file order, so the result equals the one of the sequential
+ * LibraryFileLoader.
+ *
+ * The stages are connected by a bounded queue of blocks being parsed. If
+ * the handler falls behind, the queue fills up and the reader waits, so
+ * memory usage is bounded by the queue capacity rather than the file size.
+ *
+ * Gzip compressed files are decompressed by the reader thread, so
+ * decompressing overlaps with parsing as well.
+ */
+public class ParallelFileLoader {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of bytes read and parsed as a single block, unless a line is longer. */
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    /** Number of blocks per pool thread which may be read ahead of handing them on. */
+    private static final int BLOCKS_AHEAD_PER_THREAD = 4;
+    /** Milliseconds after which the loading thread checks whether the reader is still running while waiting. */
+    private static final long READER_CHECK_INTERVAL_MILLIS = 100;
+
+    /** Number of compressed bytes read at once from gzip compressed files. */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /** Line feed byte as used in line breaks. */
+    private static final byte LINE_FEED = '\n';
+    /** Carriage return byte as used in line breaks. */
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /** Pool on which blocks are parsed. */
+    private final ForkJoinPool pool;
+    /** Destination of error messages. */
+    private final OutputSink output;
+    /** Dictionary providing canonical instances of author names. */
+    private final AuthorDictionary authorDictionary;
+    /** Number of lines parsed by the last call of streamFileContent, excluding the header line. */
+    private long linesParsed;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /** Create a new loader parsing on the common ForkJoinPool. */
+    public ParallelFileLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new loader parsing on the given pool.
+     *
+     * @param pool pool on which blocks are parsed.
+     * @throws NullPointerException if the given pool is null.
+     */
+    public ParallelFileLoader(ForkJoinPool pool) {
+        this(pool, OutputSink.standard());
+    }
+
+    /**
+     * Create a new loader parsing on the given pool and reporting errors to the given sink.
+     *
+     * @param pool pool on which blocks are parsed.
+     * @param output destination of error messages.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public ParallelFileLoader(ForkJoinPool pool, OutputSink output) {
+        this(pool, output, new AuthorDictionary());
+    }
+
+    /**
+     * Create a new loader parsing on the given pool and reporting errors to the given sink,
+     * whose books refer to the canonical author names of the given dictionary.
+     *
+     * @param pool pool on which blocks are parsed.
+     * @param output destination of error messages.
+     * @param authorDictionary dictionary providing canonical instances of author names.
+     * @throws NullPointerException if any of the given parameters is null.
+     */
+    public ParallelFileLoader(ForkJoinPool pool, OutputSink output, AuthorDictionary authorDictionary) {
+        this.pool = Objects.requireNonNull(pool, "Given pool must not be null.");
+        this.output = Objects.requireNonNull(output, "Given output sink must not be null.");
+        this.authorDictionary = Objects.requireNonNull(authorDictionary, "Given author dictionary must not be null.");
+        linesParsed = 0;
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Find the end of the line which contains the given position.
+     *
+     * @param buffer buffer to be searched.
+     * @param from position to start searching from.
+     * @param to position up to which is searched (exclusive).
+     * @return position after the line break, or the given end position if no line break is found.
+     */
+    private static int nextLineStart(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte current = buffer.get(i);
+
+            if (current == LINE_FEED) {
+                return i + 1;
+            } else if (current == CARRIAGE_RETURN) {
+                return (i + 1 < to && buffer.get(i + 1) == LINE_FEED) ? i + 2 : i + 1;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Find the position after the last complete line break in the given range.
+     *
+     * A carriage return at the very end of the range is not considered complete
+     * since it might be followed by a line feed outside of the range.
+     *
+     * @param buffer buffer to be searched.
+     * @param from position to search back to.
+     * @param to position from which is searched backwards (exclusive).
+     * @return position after the last line break or -1 if there is none.
+     */
+    private static int lastLineStart(ByteBuffer buffer, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            byte current = buffer.get(i);
+
+            if (current == LINE_FEED || (current == CARRIAGE_RETURN && i + 1 < to)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode and parse all lines within the given byte range.
+     *
+     * @param block block content.
+     * @param from position of the first line to be parsed.
+     * @param to end of the last line to be parsed.
+     * @return parsed books and error messages.
+     * @throws UncheckedIOException if the range is not valid UTF-8.
+     */
+    private BlockResult parseBlock(ByteBuffer block, int from, int to) {
+        CharBuffer content;
+        try {
+            content = StandardCharsets.UTF_8.newDecoder().decode(block.slice(from, to - from));
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        BlockResult result = new BlockResult();
+        LibraryFileLoader lineParser = new LibraryFileLoader(output, authorDictionary);
+        char[] text = content.array();
+        int end = content.arrayOffset() + content.limit();
+        int lineStart = content.arrayOffset() + content.position();
+
+        int lineBreak;
+        while ((lineBreak = LibraryFileLoader.findLineBreak(text, lineStart, end)) >= 0) {
+            result.recordLine(lineParser.parseLine(text, lineStart, lineBreak, result.books));
+            lineStart = LibraryFileLoader.skipLineBreak(text, lineBreak, end);
+        }
+        if (lineStart < end) {
+            result.recordLine(lineParser.parseLine(text, lineStart, end, result.books));
+        }
+        return result;
+    }
+
+    /**
+     * Wait for the next block to be parsed.
+     *
+     * @param parsing pending result of parsing the block.
+     * @return parsed books and error messages, null if the end of the file is reached.
+     * @throws IOException if reading the file failed or a block is not valid UTF-8.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static BlockResult awaitParsed(Future<BlockResult> parsing) throws IOException, InterruptedException {
+        try {
+            return parsing.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Parsing book data failed unexpectedly.", cause);
+        }
+    }
+
+    /**
+     * Wait for the reader to put the next block into the queue.
+     *
+     * The reader passes on every failure through the queue. Should it still
+     * end without doing so, e.g. because even that failed, waiting stops
+     * instead of blocking forever.
+     *
+     * @param parsing queue of blocks being parsed.
+     * @param reader reader thread filling the queue.
+     * @return pending result of parsing the next block.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IllegalStateException if the reader has ended without a further result.
+     */
+    private static Future<BlockResult> nextParsed(BlockingQueue<Future<BlockResult>> parsing, Thread reader)
+            throws InterruptedException {
+        while (true) {
+            Future<BlockResult> next = parsing.poll(READER_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            if (next != null) {
+                return next;
+            }
+            if (!reader.isAlive()) {
+                next = parsing.poll();      // may have been put just before the reader ended
+                if (next == null) {
+                    throw new IllegalStateException("Reading book data ended without a result.");
+                }
+                return next;
+            }
+        }
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the number of lines parsed by the last call of streamFileContent.
+     *
+     * @return number of parsed lines, excluding the header line, including invalid ones.
+     */
+    public long getLinesParsed() {
+        return linesParsed;
+    }
+
+    /**
+     * Load book data from the specified file in parallel and hand the
+     * parsed books to the given handler in file order.
+     *
+     * The handler is called on the calling thread while later blocks are
+     * still being read and parsed. Memory usage is bounded by the number of
+     * blocks read ahead rather than the file size. Each call is reported to
+     * Flight Recorder as a {@link LibraryFileLoadEvent}.
+     *
+     * NOTE: If reading fails part way through the file, batches handed
+     * over before the failure are not revoked.
+     *
+     * @param fileName file path with book data.
+     * @param handler receiver of parsed book batches.
+     * @return true if book data could be read completely, false otherwise.
+     * @throws NullPointerException if the given file name or handler is null.
+     */
+    public boolean streamFileContent(Path fileName, BookBatchHandler handler) {
+        Objects.requireNonNull(fileName, "Given filename must not be null.");
+        Objects.requireNonNull(handler, "Given batch handler must not be null.");
+        boolean success = false;
+        LibraryFileLoadEvent event = new LibraryFileLoadEvent();
+        event.begin();
+
+        BlockingQueue<Future<BlockResult>> parsing =
+                new ArrayBlockingQueue<>(BLOCKS_AHEAD_PER_THREAD * pool.getParallelism());
+        Thread reader = new Thread(new BlockReader(fileName, parsing), "library-file-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            BlockResult result;
+            while ((result = awaitParsed(nextParsed(parsing, reader))) != null) {
+                event.lines += result.lines;
+                event.invalidRows += result.errorMessages.size();
+                for (String errorMessage : result.errorMessages) {
+                    output.error(errorMessage);
+                }
+                if (!result.books.isEmpty()) {
+                    handler.handleBatch(result.books);
+                }
+            }
+            success = true;
+        } catch (IOException | SecurityException e) {
+            output.error("ERROR: Reading file content failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            output.error("ERROR: Reading file content was interrupted: " + fileName);
+        } finally {
+            stopReader(reader, parsing);
+        }
+        linesParsed = event.lines;
+
+        if (event.shouldCommit()) {
+            event.path = fileName.toString();
+            try {
+                event.bytes = Files.size(fileName);
+            } catch (IOException | SecurityException e) {
+                event.bytes = 0;
+            }
+            event.parallel = true;
+            event.success = success;
+            event.commit();
+        }
+        return success;
+    }
+
+    /**
+     * Stop the reader thread, if it is still running, and discard all blocks read ahead.
+     *
+     * @param reader reader thread.
+     * @param parsing queue of blocks being parsed.
+     */
+    private static void stopReader(Thread reader, BlockingQueue<Future<BlockResult>> parsing) {
+        reader.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                reader.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        for (Future<BlockResult> pending : parsing) {
+            pending.cancel(false);
+        }
+        parsing.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------- NESTED CLASSES ------------------------------------------
+
+    /** Books and error messages parsed from a single block. */
+    private static final class BlockResult {
+
+        /** Books parsed from the block in file order. */
+        private final List<BookEntry> books = new ArrayList<>();
+        /** Error messages for invalid book data in file order. */
+        private final List<String> errorMessages = new ArrayList<>();
+        /** Number of parsed lines. */
+        private int lines = 0;
+
+        /**
+         * Count a parsed line and record its error message, if any.
+         *
+         * @param errorMessage error message as returned by LibraryFileLoader.parseLine or null.
+         */
+        private void recordLine(String errorMessage) {
+            lines++;
+            if (errorMessage != null) {
+                errorMessages.add(errorMessage);
+            }
+        }
+    }
+
+    /** Task parsing a range of lines of a single block. */
+    private final class BlockParser implements Callable<BlockResult> {
+
+        /** Block content. */
+        private final ByteBuffer block;
+        /** Position of the first line to be parsed. */
+        private final int from;
+        /** End of the last line to be parsed. */
+        private final int to;
+
+        /**
+         * Create a task for the given range of lines.
+         *
+         * @param block block content.
+         * @param from position of the first line to be parsed.
+         * @param to end of the last line to be parsed.
+         */
+        private BlockParser(ByteBuffer block, int from, int to) {
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parse the lines of this task.
+         *
+         * @return parsed books and error messages.
+         * @throws UncheckedIOException if the lines are not valid UTF-8.
+         */
+        @Override
+        public BlockResult call() {
+            return parseBlock(block, from, to);
+        }
+    }
+
+    /**
+     * Reads the file block by block on its own thread and submits each block
+     * for parsing. Pending results are put into the queue in file order,
+     * followed by a null result at the end of the file or a failed one if
+     * reading fails. Waits while the queue is full.
+     */
+    private final class BlockReader implements Runnable {
+
+        /** File path with book data. */
+        private final Path fileName;
+        /** Queue of blocks being parsed, in file order. */
+        private final BlockingQueue<Future<BlockResult>> parsing;
+
+        /**
+         * Create a reader.
+         *
+         * @param fileName file path with book data.
+         * @param parsing queue receiving blocks being parsed.
+         */
+        private BlockReader(Path fileName, BlockingQueue<Future<BlockResult>> parsing) {
+            this.fileName = fileName;
+            this.parsing = parsing;
+        }
+
+        /**
+         * Open a channel for the content of the file, decompressing gzip data on the fly.
+         *
+         * @return channel for the possibly decompressed content.
+         * @throws IOException if the file cannot be opened.
+         */
+        private ReadableByteChannel openChannel() throws IOException {
+            if (!LibraryFileLoader.isGzipFile(fileName)) {
+                return FileChannel.open(fileName, StandardOpenOption.READ);
+            }
+
+            InputStream compressed = Files.newInputStream(fileName);
+            try {
+                return Channels.newChannel(new GZIPInputStream(compressed, GZIP_BUFFER_SIZE));
+            } catch (IOException e) {
+                compressed.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Fill the given buffer from the channel as far as possible.
+         *
+         * @param channel channel of the file content.
+         * @param buffer buffer to be filled.
+         * @return true if the end of the file has been reached, false if the buffer is full.
+         * @throws IOException if reading fails.
+         */
+        private boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Create a buffer holding the bytes after the given position, which form an incomplete line.
+         *
+         * @param block block read last.
+         * @param lineStart start of the incomplete line.
+         * @return buffer positioned after the copied bytes, at least {@value BLOCK_SIZE} bytes large
+         * and twice as large as the incomplete line.
+         * @throws IOException if the line exceeds the maximum supported length.
+         */
+        private ByteBuffer carryOver(ByteBuffer block, int lineStart) throws IOException {
+            int length = block.position() - lineStart;
+            if (length > Integer.MAX_VALUE / 2) {
+                throw new IOException("Line exceeds maximum supported length in file " + fileName);
+            }
+            ByteBuffer next = ByteBuffer.allocate(Math.max(BLOCK_SIZE, 2 * length));
+            next.put(block.slice(lineStart, length));
+            return next;
+        }
+
+        /**
+         * Read the whole file and submit its blocks for parsing.
+         *
+         * @throws IOException if reading fails.
+         * @throws InterruptedException if loading has been abandoned.
+         */
+        private void readBlocks() throws IOException, InterruptedException {
+            try (ReadableByteChannel channel = openChannel()) {
+                ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+                boolean headerSkipped = false;
+                boolean endReached = false;
+
+                while (!endReached) {
+                    endReached = fill(channel, block);
+                    int end = endReached ? block.position() : lastLineStart(block, 0, block.position());
+                    if (end < 0) {      // no complete line yet, read on into a larger block
+                        block = carryOver(block, 0);
+                        continue;
+                    }
+
+                    int start = 0;
+                    if (!headerSkipped) {    // Leave out header line in file
+                        start = nextLineStart(block, 0, end);
+                        headerSkipped = true;
+                    }
+                    if (start < end) {
+                        parsing.put(pool.submit(new BlockParser(block, start, end)));
+                    }
+                    if (!endReached) {
+                        block = carryOver(block, end);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Read the whole file, passing on the end of the file or any failure through the queue,
+         * so the loading thread never waits for a result that does not come.
+         */
+        @Override
+        public void run() {
+            Future<BlockResult> last;
+            try {
+                readBlocks();
+                last = CompletableFuture.completedFuture((BlockResult) null);
+            } catch (InterruptedException e) {
+                return;     // loading has been abandoned, so nobody waits for the end
+            } catch (Throwable e) {     // e.g. OutOfMemoryError for a long line or a rejected parser task
+                CompletableFuture<BlockResult> failure = new CompletableFuture<>();
+                failure.completeExceptionally(e);
+                last = failure;
+            }
+
+            try {
+                parsing.put(last);
+            } catch (InterruptedException e) {
+                // loading has been abandoned, so nobody waits for the end
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/** Growable list of book ids in ascending order. */
+class PostingList {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Initial capacity of a posting list. */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** Book ids, valid up to size. */
+    private int[] ids = new int[INITIAL_CAPACITY];
+    /** Number of book ids in this list. */
+    private int size = 0;
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Get the number of book ids in this list.
+     *
+     * @return number of ids.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Append a book id unless it is the last one already.
+     * Ids are added in ascending order, so this prevents duplicates.
+     *
+     * @param id book id to be added.
+     */
+    void addIfAbsent(int id) {
+        if (size > 0 && ids[size - 1] == id) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Get a copy of all book ids.
+     *
+     * @return ascending ids.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Keep only those of the given ids which are also contained in this list.
+     *
+     * Each candidate is looked up by binary search starting after the previous
+     * match, so long posting lists are not walked entirely for few candidates.
+     *
+     * @param candidates ascending ids, changed in place.
+     * @param candidateCount number of valid ids in candidates.
+     * @return number of remaining valid ids in candidates.
+     */
+    int retainAll(int[] candidates, int candidateCount) {
+        int kept = 0;
+        int position = 0;
+
+        for (int i = 0; i < candidateCount && position < size; i++) {
+            int candidate = candidates[i];
+            int found = Arrays.binarySearch(ids, position, size, candidate);
+
+            if (found >= 0) {
+                candidates[kept++] = candidate;
+                position = found + 1;
+            } else {
+                position = -found - 1;      // insertion point
+            }
+        }
+        return kept;
+    }
+}
@@ -1,10 +1,7 @@
-import java.util.Iterator;
-import java.util.List;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import java.util.StringTokenizer;
 
-import static java.util.Arrays.asList;
-
 /** Remove command used to remove books in library by author or title. */
 public class RemoveCmd extends LibraryCommand {
 
@@ -51,75 +48,59 @@ public class RemoveCmd extends LibraryCommand {
      * Remove books written by author as specified in class field removeValue.
      *
      * @param data library data containing book entries.
+     * @param output destination of the printed output.
      */
-    private void removeByAuthor(LibraryData data) {
-        List<BookEntry> books = data.getBookData();
-        Iterator<BookEntry> bookIterator = books.iterator();
-        int originalSize = books.size();
-        int resultSize;
-
-        while (bookIterator.hasNext()) {
-            List<String> bookAuthors = asList(bookIterator.next().getAuthors());
-
-            if (bookAuthors.contains(removeValue)) {
-                bookIterator.remove();
-            }
+    private void removeByAuthor(LibraryData data, OutputSink output) {
+        int bookRmvCount;
+        try {
+            bookRmvCount = data.removeByAuthor(removeValue);
+        } catch (UncheckedIOException e) {
+            output.error("ERROR: " + e.getMessage());
+            return;
         }
-
-        resultSize = books.size();
-        printAuthorRemoveResult(originalSize, resultSize);
+        recordRows(bookRmvCount, bookRmvCount);
+        printAuthorRemoveResult(bookRmvCount, output);
     }
 
     /**
      * Print message to console in respective to success of removing books of an author.
      *
-     * @param originalSize library size before remove attempt.
-     * @param resultSize library size after remove attempt.
+     * @param bookRmvCount number of removed books.
+     * @param output destination of the printed output.
      */
-    private void printAuthorRemoveResult(int originalSize, int resultSize) {
-        if (originalSize == resultSize) {
-            System.out.printf("0 books removed for author: %s%n", removeValue);
-        } else {
-            int bookRmvCount = originalSize - resultSize;
-            System.out.printf("%d books removed for author: %s%n", bookRmvCount, removeValue);
-        }
+    private void printAuthorRemoveResult(int bookRmvCount, OutputSink output) {
+        output.printf("%d books removed for author: %s%n", bookRmvCount, removeValue);
     }
 
     /**
      * Remove book with title as specified in class field removeValue.
      *
      * @param data library data containing book entries.
+     * @param output destination of the printed output.
      */
-    private void removeByTitle(LibraryData data) {
-        List<BookEntry> books = data.getBookData();
-        Iterator<BookEntry> bookIterator = books.iterator();
-        int originalSize = books.size();
-        int resultSize;
-
-        while (bookIterator.hasNext()) {
-            String title = bookIterator.next().getTitle();
-
-            if (title.equals(removeValue)) {
-                bookIterator.remove();
-                break;                 // Break of iteration is sufficient: Title is unique in library.
-            }
+    private void removeByTitle(LibraryData data, OutputSink output) {
+        boolean removed;
+        try {
+            removed = data.removeByTitle(removeValue);
+        } catch (UncheckedIOException e) {
+            output.error("ERROR: " + e.getMessage());
+            return;
         }
-
-        resultSize = books.size();
-        printTitleRemoveResult(originalSize, resultSize);
+        recordRows(removed ? 1 : 0, removed ? 1 : 0);
+        printTitleRemoveResult(removed, output);
     }
 
     /**
      * Print message to console in respective to success of title removing a book.
      *
-     * @param originalSize library size before remove attempt.
-     * @param resultSize library size after remove attempt.
+     * @param removed true if the book was removed, false if it was not found.
+     * @param output destination of the printed output.
      */
-    private void printTitleRemoveResult(int originalSize, int resultSize) {
-        if (originalSize == resultSize) {
-            System.out.printf("%s: not found.%n", removeValue);
+    private void printTitleRemoveResult(boolean removed, OutputSink output) {
+        if (removed) {
+            output.printf("%s: removed successfully.%n", removeValue);
         } else {
-            System.out.printf("%s: removed successfully.%n", removeValue);
+            output.printf("%s: not found.%n", removeValue);
         }
     }
 
@@ -157,18 +138,20 @@ public class RemoveCmd extends LibraryCommand {
      * Execute remove command.
      *
      * @param data library data containing book entries.
-     * @throws NullPointerException if given data is null.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
      */
     @Override
-    public void execute(LibraryData data) {
+    public void execute(LibraryData data, OutputSink output) {
         Objects.requireNonNull(data, "Provided library data for RemoveCmd must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for RemoveCmd execution must not be null.");
 
         switch (removeBy) {
             case AUTHOR:
-                removeByAuthor(data);
+                removeByAuthor(data, output);
                 break;
             case TITLE:
-                removeByTitle(data);
+                removeByTitle(data, output);
         }
     }
 }
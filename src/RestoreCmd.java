@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+
+/** Restore command used to replace the library with the content of a binary snapshot file. */
+public class RestoreCmd extends LibraryCommand {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Sets valid file type for argument input. */
+    private static final String VALID_FILE_SUFFIX = ".snapshot";
+
+    /** Saves parsed command argument as a path, enabling later use. */
+    private Path snapshotFilePath;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a restore command.
+     *
+     * @param argumentInput argument input is expected to represent a valid path.
+     * @throws IllegalArgumentException if given arguments are invalid.
+     * @throws NullPointerException if the given argumentInput is null.
+     */
+    public RestoreCmd(String argumentInput) {
+        super(CommandType.RESTORE, argumentInput);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Check for validity of input, i.e. file type.
+     * Parse if valid.
+     *
+     * @param argumentInput argument input for this command.
+     * @return true if valid input, otherwise false.
+     */
+    @Override
+    protected boolean parseArguments(String argumentInput) {
+        if (argumentInput.endsWith(VALID_FILE_SUFFIX)) {
+            snapshotFilePath = Paths.get(argumentInput);
+            return true;
+        } else {
+            System.err.printf("ERROR: Invalid argument for RESTORE command: %s", argumentInput);
+            return false;
+        }
+    }
+
+    /**
+     * Execute the restore command.
+     * Replace all books of the library with the books of the snapshot file.
+     * The library is left unchanged if the snapshot cannot be read.
+     *
+     * @param data book data to be considered for command execution.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
+     */
+    @Override
+    public void execute(LibraryData data, OutputSink output) {
+        Objects.requireNonNull(data, "Provided library data for RestoreCmd execution must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for RestoreCmd execution must not be null.");
+
+        try {
+            List<BookEntry> restored = LibrarySnapshot.read(snapshotFilePath);
+            data.restoreData(restored);
+            recordRows(restored.size(), restored.size());
+            output.println(restored.size() + " book entries restored.");
+        } catch (IOException | SecurityException e) {
+            output.error("ERROR: Restoring library snapshot failed: " + e);
+        } catch (UncheckedIOException e) {
+            output.error("ERROR: " + e.getMessage());
+        }
+    }
+}
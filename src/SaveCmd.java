@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+
+/** Save command used to write the library to a binary snapshot file. */
+public class SaveCmd extends LibraryCommand {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Sets valid file type for argument input. */
+    private static final String VALID_FILE_SUFFIX = ".snapshot";
+
+    /** Saves parsed command argument as a path, enabling later use. */
+    private Path snapshotFilePath;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a save command.
+     *
+     * @param argumentInput argument input is expected to represent a valid path.
+     * @throws IllegalArgumentException if given arguments are invalid.
+     * @throws NullPointerException if the given argumentInput is null.
+     */
+    public SaveCmd(String argumentInput) {
+        super(CommandType.SAVE, argumentInput);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Check for validity of input, i.e. file type.
+     * Parse if valid.
+     *
+     * @param argumentInput argument input for this command.
+     * @return true if valid input, otherwise false.
+     */
+    @Override
+    protected boolean parseArguments(String argumentInput) {
+        if (argumentInput.endsWith(VALID_FILE_SUFFIX)) {
+            snapshotFilePath = Paths.get(argumentInput);
+            return true;
+        } else {
+            System.err.printf("ERROR: Invalid argument for SAVE command: %s", argumentInput);
+            return false;
+        }
+    }
+
+    /**
+     * Execute the save command.
+     * Write all books of the library to the snapshot file.
+     *
+     * @param data book data to be considered for command execution.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
+     */
+    @Override
+    public void execute(LibraryData data, OutputSink output) {
+        Objects.requireNonNull(data, "Provided library data for SaveCmd execution must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for SaveCmd execution must not be null.");
+
+        List<BookEntry> books = data.getBookData();
+        try {
+            LibrarySnapshot.write(snapshotFilePath, books);
+            recordRows(books.size(), books.size());
+            output.println(books.size() + " book entries saved to: " + snapshotFilePath);
+        } catch (IOException | SecurityException e) {
+            output.error("ERROR: Saving library snapshot failed: " + e);
+        }
+    }
+}
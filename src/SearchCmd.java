@@ -36,31 +36,21 @@ public class SearchCmd extends LibraryCommand {
         return !value.isBlank() && !value.contains(" ");
     }
 
-    /**
-     * Checks if book title of parameter contains search value.
-     *
-     * @param book bookEntry to be checked.
-     * @return true if valid book title, otherwise false.
-     */
-    private boolean isWantedTitle(BookEntry book) {
-        String bookTitle = book.getTitle().toLowerCase();
-        return bookTitle.contains(searchValue.toLowerCase());
-    }
-
     /**
      * Find titles which contain search parameter.
      *
-     * @param books library containing books.
+     * @param data library data containing books.
      * @return found titles.
      */
-    private ArrayList<String> findTitles(List<BookEntry> books) {
+    private ArrayList<String> findTitles(LibraryData data) {
         ArrayList<String> foundTitles = new ArrayList<>();
+        List<BookEntry> foundBooks = new ArrayList<>();
 
-        for (BookEntry book : books) {
-            if (isWantedTitle(book)) {
-                foundTitles.add(book.getTitle());
-            }
+        long checked = data.getCurrentVersion().searchByTitle(searchValue, foundBooks);
+        for (BookEntry book : foundBooks) {
+            foundTitles.add(book.getTitle());
         }
+        recordRows(checked, foundTitles.size());
         return foundTitles;
     }
 
@@ -69,13 +59,14 @@ public class SearchCmd extends LibraryCommand {
      * prints according message.
      *
      * @param foundTitles list containing book titles.
+     * @param output destination of the printed output.
      */
-    private void printTitles(ArrayList<String> foundTitles) {
+    private void printTitles(ArrayList<String> foundTitles, OutputSink output) {
         if (foundTitles.isEmpty()) {
-            System.out.println("No hits found for search term: " + searchValue);
+            output.println("No hits found for search term: " + searchValue);
         } else {
             String list = String.join("\n", foundTitles);
-            System.out.println(list);
+            output.println(list);
         }
     }
 
@@ -104,13 +95,15 @@ public class SearchCmd extends LibraryCommand {
      * Search in book library for book titles using the search value.
      *
      * @param data book data to be considered for command execution.
-     * @throws NullPointerException if given data is null.
+     * @param output destination of all output produced by the command.
+     * @throws NullPointerException if given data or output is null.
      */
     @Override
-    public void execute(LibraryData data) {
+    public void execute(LibraryData data, OutputSink output) {
         Objects.requireNonNull(data, "Provided library data for SearchCmd must not be null.");
+        Objects.requireNonNull(output, "Provided output sink for SearchCmd execution must not be null.");
 
-        ArrayList<String> foundTitles = findTitles(data.getBookData());
-        printTitles(foundTitles);
+        ArrayList<String> foundTitles = findTitles(data);
+        printTitles(foundTitles, output);
     }
 }
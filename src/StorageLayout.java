@@ -0,0 +1,7 @@
+/** Available memory layouts for the book data held by a library. */
+public enum StorageLayout {
+    /** One BookEntry object per book, held in an ArrayList. */
+    OBJECTS,
+    /** One array per data value, holding the values of all books (see ColumnarBookStore). */
+    COLUMNAR
+}
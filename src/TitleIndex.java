@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Inverted trigram index over lowercased book titles.
+ *
+ * Each title is assigned an increasing id when added. For every sequence of
+ * three consecutive characters (trigram) within a lowercased title, a posting
+ * list holds the ids of all titles containing it. A substring search only has
+ * to intersect the posting lists of the trigrams of the search value and
+ * verify the remaining candidates.
+ *
+ * The index does not hold the titles itself. Candidates are verified against
+ * a list of titles provided by the owner of the books, so each title is kept
+ * in memory only once, in whatever representation the books use.
+ *
+ * Titles cannot be removed. Once all titles have been added, the index is
+ * only read and may be shared between threads.
+ */
+public class TitleIndex {
+
+    // -------------- CONSTANTS AND FIELDS ------------------------------------
+
+    /** Number of characters per indexed character sequence. */
+    private static final int GRAM_LENGTH = 3;
+
+    /** Titles by id, holding at least all indexed titles. Not changed by the index. */
+    private final List<String> titles;
+    /** Number of indexed titles. */
+    private int size;
+    /** Ids of all titles containing a trigram, in ascending order, by trigram. */
+    private final Map<Long, PostingList> postings;
+
+    // -------------- CONSTRUCTOR(S) ------------------------------------------
+
+    /**
+     * Create a new and empty index over the given titles.
+     *
+     * @param titles titles by id, each of which must be present before it is added
+     * and must not be changed afterwards.
+     * @throws NullPointerException if the given list is null.
+     */
+    public TitleIndex(List<String> titles) {
+        this.titles = Objects.requireNonNull(titles, "Given titles must not be null.");
+        size = 0;
+        postings = new HashMap<>();
+    }
+
+    // -------------- HELPER METHODS FOR CLASS FUNCTIONALITY METHODS ----------
+
+    /**
+     * Encode the trigram starting at the given position.
+     *
+     * @param text lowercased title or search value.
+     * @param position start of the trigram.
+     * @return all three characters packed into a single number.
+     */
+    private static long gramKey(String text, int position) {
+        return ((long) text.charAt(position) << (2 * Character.SIZE))
+                | ((long) text.charAt(position + 1) << Character.SIZE)
+                | text.charAt(position + 2);
+    }
+
+    /**
+     * Add all trigrams of the given title to the posting lists.
+     *
+     * @param title lowercased title.
+     * @param id id of the title.
+     */
+    private void addPostings(String title, int id) {
+        for (int i = 0; i + GRAM_LENGTH <= title.length(); i++) {
+            Long key = gramKey(title, i);
+            PostingList postingList = postings.get(key);
+
+            if (postingList == null) {
+                postingList = new PostingList();
+                postings.put(key, postingList);
+            }
+            postingList.addIfAbsent(id);
+        }
+    }
+
+    /**
+     * Intersect the posting lists of all trigrams of the given query.
+     *
+     * @param query lowercased search value with at least {@value #GRAM_LENGTH} characters.
+     * @return ids of titles containing all trigrams in ascending order.
+     */
+    private int[] intersectPostings(String query) {
+        ArrayList<PostingList> queryPostings = new ArrayList<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            PostingList postingList = postings.get(gramKey(query, i));
+            if (postingList == null) {
+                return new int[0];      // some trigram does not occur in any title
+            }
+            queryPostings.add(postingList);
+        }
+
+        // intersect the shortest posting list with all others
+        PostingList shortest = queryPostings.get(0);
+        for (PostingList postingList : queryPostings) {
+            if (postingList.size() < shortest.size()) {
+                shortest = postingList;
+            }
+        }
+
+        int[] candidates = shortest.toArray();
+        int candidateCount = candidates.length;
+        for (PostingList postingList : queryPostings) {
+            if (postingList != shortest) {
+                candidateCount = postingList.retainAll(candidates, candidateCount);
+            }
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    // -------------- CLASS FUNCTIONALITY METHODS -----------------------------
+
+    /**
+     * Add the next title to the index.
+     *
+     * @param title title to be added, equal to the title of the next id within the titles.
+     * @return id of the title, which is the number of titles added before.
+     * @throws NullPointerException if the given title is null.
+     */
+    public int add(String title) {
+        Objects.requireNonNull(title, "Given title must not be null.");
+
+        int id = size++;
+        addPostings(title.toLowerCase(), id);
+        return id;
+    }
+
+    /**
+     * Find all titles which may contain the given search value, ignoring case.
+     * Each candidate still has to be checked with {@link #matches}.
+     *
+     * @param searchValue value to search for.
+     * @return ids of candidate titles in ascending order, all ids if the search
+     * value is too short to be indexed.
+     * @throws NullPointerException if the given search value is null.
+     */
+    public int[] findCandidates(String searchValue) {
+        Objects.requireNonNull(searchValue, "Given search value must not be null.");
+        String query = searchValue.toLowerCase();
+
+        if (query.length() < GRAM_LENGTH) {     // too short to be indexed, all titles are candidates
+            int[] candidates = new int[size];
+            for (int id = 0; id < size; id++) {
+                candidates[id] = id;
+            }
+            return candidates;
+        }
+        return intersectPostings(query);
+    }
+
+    /**
+     * Check whether the title with the given id contains the given search value, ignoring case.
+     *
+     * @param id id of an indexed title.
+     * @param searchValue value to search for.
+     * @return true if the title contains the search value, false otherwise.
+     * @throws NullPointerException if the given search value is null.
+     */
+    public boolean matches(int id, String searchValue) {
+        Objects.requireNonNull(searchValue, "Given search value must not be null.");
+
+        return titles.get(id).toLowerCase().contains(searchValue.toLowerCase());
+    }
+
+    /**
+     * Find all titles containing the given search value, ignoring case.
+     *
+     * @param searchValue value to search for.
+     * @return ids of matching titles in ascending order.
+     * @throws NullPointerException if the given search value is null.
+     */
+    public int[] find(String searchValue) {
+        int[] candidates = findCandidates(searchValue);
+        String query = searchValue.toLowerCase();
+
+        int foundCount = 0;
+        for (int candidate : candidates) {
+            if (titles.get(candidate).toLowerCase().contains(query)) {
+                candidates[foundCount++] = candidate;
+            }
+        }
+        return Arrays.copyOf(candidates, foundCount);
+    }
+}
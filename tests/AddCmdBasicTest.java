@@ -1,6 +1,10 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,7 +26,7 @@ public class AddCmdBasicTest extends CommandTest {
         testLibrary = new LibraryData();
         List<BookEntry> bookData = new ArrayList<>();
         bookData.add(new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500));
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
     }
 
     // ------------------------- parseArguments tests --------------------
@@ -41,6 +45,22 @@ public class AddCmdBasicTest extends CommandTest {
     public void testParseArgumentsLegalArgument() {
         CommandTestUtils.checkArgumentInput(testCommand, true, TEST_PATH);
         CommandTestUtils.checkArgumentInput(testCommand, true, "this/is/some/test/path/for/books.csv");
+        CommandTestUtils.checkArgumentInput(testCommand, true, "this/is/some/test/path/for/books.csv.gz");
+        CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/not/a/csv/file.gz");
+    }
+
+    @Test
+    public void testParseArgumentsDirectoryAndGlob() throws IOException {
+        Path directory = Files.createTempDirectory("books");
+        try {
+            CommandTestUtils.checkArgumentInput(testCommand, true, directory.toString());
+            CommandTestUtils.checkArgumentInput(testCommand, true, "this/is/some/test/path/part-*.csv");
+            CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/some/test/path/part-*.txt");
+            CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/*/test/path/part-*.csv");
+            CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/not/a/directory");
+        } finally {
+            Files.delete(directory);
+        }
     }
 
     // ------------------------- execute tests --------------------
@@ -52,6 +72,8 @@ public class AddCmdBasicTest extends CommandTest {
         List<BookEntry> books = testLibrary.getBookData();
         int expectedBookAmount = 3;
         assertEquals("Unexpected amount of books in library after loading file.", expectedBookAmount, books.size());
+        assertEquals("Unexpected number of rows scanned.", 2, testCommand.getRowsScanned());
+        assertEquals("Unexpected number of rows emitted.", 2, testCommand.getRowsEmitted());
 
         List<Object[]> expectedBookValues = new ArrayList<>();
         expectedBookValues.add(new Object[] { "TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500 });
@@ -65,4 +87,54 @@ public class AddCmdBasicTest extends CommandTest {
                     expectedBookValues.get(i));
         }
     }
+
+    @Test
+    public void testExecuteLoadDataTwiceSkipsDuplicates() {
+        testCommand.execute(testLibrary);
+
+        String[] expectedConsoleOutput = { "Duplicate entry found for book: The Changeling",
+                "Duplicate entry found for book: Animal Farm", "0 new book entries added." };
+        CommandTestUtils.checkExecuteConsoleOutputLines(expectedConsoleOutput, testCommand, testLibrary);
+
+        int expectedBookAmount = 3;
+        assertEquals("Unexpected amount of books in library after loading file twice.", expectedBookAmount,
+                testLibrary.getBookData().size());
+        assertEquals("Duplicate rows are expected to be scanned.", 2, testCommand.getRowsScanned());
+        assertEquals("Duplicate rows are expected not to be emitted.", 0, testCommand.getRowsEmitted());
+    }
+
+    @Test
+    public void testExecuteLoadDirectoryMergesFilesInOrder() throws IOException {
+        Path directory = Files.createTempDirectory("books");
+        try {
+            String header = "title,authors,average_rating,isbn,# num_pages\n";
+            Files.writeString(directory.resolve("part-2.csv"), header
+                    + "Animal Farm,George Orwell,3.91,452284244,122\n" + "Emma,Jane Austen,4.0,141439580,474\n");
+            Files.writeString(directory.resolve("part-1.csv"), header
+                    + "The Changeling,Zilpha Keatley Snyder,4.17,595321801,228\n" + "TitleA,AuthorA,3.2,ISBNA,500\n");
+            Files.writeString(directory.resolve("notes.txt"), "not book data\n");
+
+            String[] expectedConsoleOutput = { "Duplicate entry found for book: TitleA",
+                    "3 new book entries added from 2 files." };
+            AddCmd directoryCommand = new AddCmd(directory.toString());
+            CommandTestUtils.checkExecuteConsoleOutputLines(expectedConsoleOutput, directoryCommand, testLibrary);
+            assertEquals("Unexpected number of rows scanned.", 4, directoryCommand.getRowsScanned());
+            assertEquals("Unexpected number of rows emitted.", 3, directoryCommand.getRowsEmitted());
+
+            List<BookEntry> books = testLibrary.getBookData();
+            assertEquals("Unexpected amount of books in library after loading directory.", 4, books.size());
+            assertEquals("Files are expected to be merged in path order.", "The Changeling", books.get(1).getTitle());
+            assertEquals("Files are expected to be merged in path order.", "Emma", books.get(3).getTitle());
+
+            CommandTestUtils.checkExecuteConsoleOutputLines(new String[] { "0 new book entries added from 1 files." },
+                    new AddCmd(directory.resolve("part-2*.csv").toString()), testLibrary);
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
 }
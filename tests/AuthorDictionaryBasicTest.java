@@ -0,0 +1,71 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AuthorDictionaryBasicTest {
+
+    private AuthorDictionary dictionary;
+
+    @Before
+    public void setup() {
+        dictionary = new AuthorDictionary();
+    }
+
+    // ------------------------- intern tests --------------------
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        String first = new String("George Orwell");
+        String second = new String("George Orwell");
+
+        assertSame("First instance is expected to become canonical.", first, dictionary.intern(first));
+        assertSame("Equal name is expected to yield the canonical instance.", first, dictionary.intern(second));
+    }
+
+    @Test
+    public void testInternCharacterRange() {
+        String canonical = dictionary.intern("Jane Austen");
+        char[] line = "Emma,Jane Austen,4.0".toCharArray();
+
+        assertSame("Character range is expected to yield the canonical instance.", canonical,
+                dictionary.intern(line, 5, 16));
+        assertEquals("Unknown character range is expected to be added.", "Emma", dictionary.intern(line, 0, 4));
+        assertEquals("Unexpected number of names.", 2, dictionary.size());
+    }
+
+    @Test
+    public void testInternAll() {
+        String[] canonical = { dictionary.intern("AuthorA"), dictionary.intern("AuthorB") };
+        String[] copies = { new String("AuthorA"), new String("AuthorB") };
+
+        assertSame("Canonical names are expected to be kept as they are.", canonical, dictionary.internAll(canonical));
+        String[] interned = dictionary.internAll(copies);
+        assertNotSame("Given array is not expected to be changed.", copies, interned);
+        assertSame("Unexpected canonical name.", canonical[0], interned[0]);
+        assertArrayEquals("Unexpected canonical names.", canonical, interned);
+    }
+
+    // ------------------------- id tests --------------------
+
+    @Test
+    public void testIdsAreDense() {
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("Unexpected id of new name.", i, dictionary.getId("Author" + i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("Unexpected id of known name.", i, dictionary.idOf("Author" + i));
+            assertEquals("Unexpected name of id.", "Author" + i, dictionary.getAuthor(i));
+        }
+        assertEquals("Unknown name is not expected to have an id.", AuthorDictionary.NO_ID, dictionary.idOf("Nobody"));
+        assertEquals("Looking up ids is not expected to add names.", 5000, dictionary.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetAuthorUnknownId() {
+        dictionary.getAuthor(0);
+    }
+}
@@ -0,0 +1,99 @@
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BackgroundGzipInputStreamBasicTest {
+
+    /** Length of a gzip header without optional fields. */
+    private static final int HEADER_LENGTH = 10;
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i % 251);
+        }
+        return data;
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Compressed stream failing with an unchecked exception once the gzip header has been read. */
+    private static final class FailingStream extends InputStream {
+
+        private final InputStream compressed;
+        private int read = 0;
+
+        private FailingStream(byte[] compressed) {
+            this.compressed = new ByteArrayInputStream(compressed);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (read >= HEADER_LENGTH) {
+                throw new IllegalStateException("Failing after header.");
+            }
+            read++;
+            return compressed.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (read >= HEADER_LENGTH) {
+                throw new IllegalStateException("Failing after header.");
+            }
+            int count = compressed.read(buffer, offset, Math.min(length, HEADER_LENGTH - read));
+            read += count;
+            return count;
+        }
+    }
+
+    // ------------------------- read tests --------------------
+
+    @Test
+    public void testReadDecompressedData() throws IOException {
+        byte[] data = data(1024 * 1024 + 17);
+
+        try (InputStream in = new BackgroundGzipInputStream(new ByteArrayInputStream(compress(data)))) {
+            assertArrayEquals("Unexpected decompressed data.", data, in.readAllBytes());
+            assertEquals("End of data expected.", -1, in.read());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testTruncatedData() throws IOException {
+        byte[] compressed = compress(data(100000));
+
+        try (InputStream in = new BackgroundGzipInputStream(
+                new ByteArrayInputStream(Arrays.copyOf(compressed, compressed.length / 2)))) {
+            in.readAllBytes();
+            fail("Truncated data is expected to fail.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testUncheckedFailureIsPassedOn() throws IOException {
+        try (InputStream in = new BackgroundGzipInputStream(new FailingStream(compress(data(1000))))) {
+            in.readAllBytes();
+            fail("Failure of the compressed stream is expected to be passed on.");
+        } catch (IllegalStateException e) {
+            assertEquals("Unexpected failure.", "Failing after header.", e.getMessage());
+        }
+    }
+}
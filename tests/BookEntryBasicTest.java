@@ -132,6 +132,21 @@ public class BookEntryBasicTest extends BookEntryTest {
         checkEquality(bookA, bookB, PAGES_FIELD_NAME, false);
     }
 
+    @Test
+    public void testChangedAuthorArraysKeepEqualsAndHashCode() {
+        String[] authors = { "AuthorA", "AuthorB" };
+        BookEntry bookA = new BookEntry(DEFAULT_TITLE, authors, DEFAULT_RATING, DEFAULT_ISBN, DEFAULT_PAGES);
+        BookEntry bookB = new BookEntry(DEFAULT_TITLE, authors.clone(), DEFAULT_RATING, DEFAULT_ISBN, DEFAULT_PAGES);
+
+        authors[0] = "Changed Author";
+        bookA.getAuthors()[1] = "Changed Author";
+
+        assertArrayEquals("Authors expected not to change with the given or returned array.",
+                new String[] { "AuthorA", "AuthorB" }, bookA.getAuthors());
+        assertEquals("Objects expected to stay equal.", bookA, bookB);
+        assertEquals("Hashcode expected to stay the same.", bookA.hashCode(), bookB.hashCode());
+    }
+
     // ------------------------- check toString --------------------
 
     @Test
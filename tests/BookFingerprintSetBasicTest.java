@@ -0,0 +1,134 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BookFingerprintSetBasicTest {
+
+    private static final BookEntry BOOK = new BookEntry("Title", new String[] { "AuthorA", "AuthorB" }, 4.5f, "0123456789", 200);
+
+    /** Claims every book to be stored, so results only depend on the fingerprints. */
+    private static final BookFingerprintSet.StoredBooks ALL_STORED = new BookFingerprintSet.StoredBooks() {
+        @Override
+        public boolean contains(BookEntry book) {
+            return true;
+        }
+    };
+
+    /** Claims no book to be stored, as if all fingerprints found collided. */
+    private static final BookFingerprintSet.StoredBooks NONE_STORED = new BookFingerprintSet.StoredBooks() {
+        @Override
+        public boolean contains(BookEntry book) {
+            return false;
+        }
+    };
+
+    private BookFingerprintSet set;
+    private Set<BookEntry> storedBooks;
+    private BookFingerprintSet.StoredBooks stored;
+
+    @Before
+    public void setup() {
+        set = new BookFingerprintSet();
+        storedBooks = new HashSet<>();
+        stored = new BookFingerprintSet.StoredBooks() {
+            @Override
+            public boolean contains(BookEntry book) {
+                return storedBooks.contains(book);
+            }
+        };
+    }
+
+    private static BookEntry book(int i) {
+        return new BookEntry("Title" + (i % 97), new String[] { "Author" + (i % 13) }, (i % 50) / 10.0f, "ISBN" + i, i % 7);
+    }
+
+    // ------------------------- equality tests --------------------
+
+    @Test
+    public void testEqualBooksAreDuplicates() {
+        assertTrue("New book is expected to be added.", set.add(BOOK, stored));
+        storedBooks.add(BOOK);
+        assertFalse("Equal book is expected to be rejected.",
+                set.add(new BookEntry("Title", new String[] { "AuthorA", "AuthorB" }, 4.5f, "0123456789", 200), stored));
+        assertEquals("Unexpected number of books.", 1, set.size());
+    }
+
+    @Test
+    public void testDifferentValuesAreNoDuplicates() {
+        set.add(BOOK, stored);
+
+        assertFalse("Book with different title found.",
+                set.contains(new BookEntry("Title ", new String[] { "AuthorA", "AuthorB" }, 4.5f, "0123456789", 200), ALL_STORED));
+        assertFalse("Book with different author order found.",
+                set.contains(new BookEntry("Title", new String[] { "AuthorB", "AuthorA" }, 4.5f, "0123456789", 200), ALL_STORED));
+        assertFalse("Book with different authors found.",
+                set.contains(new BookEntry("Title", new String[] { "AuthorAAuthorB" }, 4.5f, "0123456789", 200), ALL_STORED));
+        assertFalse("Book with different rating found.",
+                set.contains(new BookEntry("Title", new String[] { "AuthorA", "AuthorB" }, 4.4f, "0123456789", 200), ALL_STORED));
+        assertFalse("Book with different ISBN found.",
+                set.contains(new BookEntry("Title", new String[] { "AuthorA", "AuthorB" }, 4.5f, "123456789", 200), ALL_STORED));
+        assertFalse("Book with different pages found.",
+                set.contains(new BookEntry("Title", new String[] { "AuthorA", "AuthorB" }, 4.5f, "0123456789", 201), ALL_STORED));
+        assertFalse("Book with different split of title and authors found.",
+                set.contains(new BookEntry("TitleAuthorA", new String[] { "AuthorB" }, 4.5f, "0123456789", 200), ALL_STORED));
+    }
+
+    @Test
+    public void testCollidingFingerprintsAreNoDuplicates() {
+        assertTrue("New book is expected to be added.", set.add(BOOK, NONE_STORED));
+        assertTrue("Book is expected to be added unless an equal book is stored.", set.add(BOOK, NONE_STORED));
+        assertEquals("Books with colliding fingerprints are expected to be counted.", 2, set.size());
+
+        set.remove(BOOK);
+        assertTrue("Fingerprint is expected to stay for the remaining book.", set.contains(BOOK, ALL_STORED));
+        set.remove(BOOK);
+        assertFalse("Fingerprint is expected to be gone with the last book.", set.contains(BOOK, ALL_STORED));
+    }
+
+    // ------------------------- add and remove tests --------------------
+
+    @Test
+    public void testManyAddsAndRemovesMatchHashSet() {
+        List<BookEntry> books = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            books.add(book(i));
+        }
+
+        for (int i = 0; i < books.size(); i++) {
+            BookEntry added = books.get(i);
+            assertEquals("Unexpected result of add.", !storedBooks.contains(added), set.add(added, stored));
+            storedBooks.add(added);
+            if (i % 3 == 0) {
+                BookEntry removed = books.get(i / 2);
+                assertEquals("Unexpected result of remove.", storedBooks.remove(removed), set.remove(removed));
+            }
+        }
+
+        assertEquals("Unexpected number of books.", storedBooks.size(), set.size());
+        for (BookEntry book : books) {
+            assertEquals("Unexpected result of contains.", storedBooks.contains(book), set.contains(book, ALL_STORED));
+        }
+    }
+
+    @Test
+    public void testRemoveAllAndClear() {
+        List<BookEntry> books = List.of(book(1), book(2), book(3));
+        set.addAll(books);
+
+        set.removeAll(books.subList(0, 2));
+        assertEquals("Unexpected number of books.", 1, set.size());
+        assertTrue("Remaining book not found.", set.contains(book(3), ALL_STORED));
+
+        set.clear();
+        assertEquals("Set is expected to be empty.", 0, set.size());
+        assertFalse("Cleared book still found.", set.contains(book(3), ALL_STORED));
+    }
+}
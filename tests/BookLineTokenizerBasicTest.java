@@ -0,0 +1,71 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BookLineTokenizerBasicTest {
+
+    private static final float CMP_DELTA = 0.0f;
+
+    private BookLineTokenizer testTokenizer;
+
+    @Before
+    public void setup() {
+        testTokenizer = new BookLineTokenizer();
+    }
+
+    // -------------------------- test helper -------------------------------------
+
+    private void tokenize(String line) {
+        char[] text = ("##" + line + "##").toCharArray();
+        testTokenizer.tokenize(text, 2, text.length - 2);
+    }
+
+    // ------------------------- check tokenize --------------------
+
+    @Test
+    public void testTokenizeValues() {
+        tokenize(LibraryFileLoaderTest.DATA_SAMPLE1);
+
+        assertEquals("Unexpected title.", "The Changeling", testTokenizer.getTitle());
+        assertArrayEquals("Unexpected authors.", new String[] { "Zilpha Keatley Snyder" }, testTokenizer.getAuthors());
+        assertEquals("Unexpected rating.", 4.17f, testTokenizer.getRating(), CMP_DELTA);
+        assertEquals("Unexpected ISBN.", "595321801", testTokenizer.getISBN());
+        assertEquals("Unexpected page number.", 228, testTokenizer.getPages());
+    }
+
+    @Test
+    public void testTokenizeAuthorsLikeSplit() {
+        String[] authorValues = { "A-B", "A--B", "-A", "A-", "A--", "-", "" };
+
+        for (String authorValue : authorValues) {
+            tokenize("Title," + authorValue + ",3.5,ISBN,10");
+            assertArrayEquals("Unexpected authors for: " + authorValue, authorValue.split("-"),
+                    testTokenizer.getAuthors());
+        }
+    }
+
+    @Test
+    public void testTokenizeRatingLikeParseFloat() {
+        String[] ratingValues = { "0", "5", "4.17", "3.999999", ".5", "4.", "-0.0", "+2.25", "1e0", " 3.1 " };
+
+        for (String ratingValue : ratingValues) {
+            tokenize("Title,Author," + ratingValue + ",ISBN,10");
+            assertEquals("Unexpected rating for: " + ratingValue, Float.parseFloat(ratingValue),
+                    testTokenizer.getRating(), CMP_DELTA);
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testTokenizeInvalidPages() {
+        tokenize("Title,Author,3.5,ISBN,many");
+        testTokenizer.getPages();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTokenizeMissingValue() {
+        tokenize("Title,Author,3.5,ISBN,");
+        testTokenizer.getPages();
+    }
+}
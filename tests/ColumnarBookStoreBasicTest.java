@@ -0,0 +1,126 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarBookStoreBasicTest {
+
+    private static final BookEntry BOOK_A = new BookEntry("TitleA", new String[] { "AuthorA" }, 4.5f, "ISBNA", 200);
+    private static final BookEntry BOOK_B = new BookEntry("TitleB", new String[] { "AuthorA", "AuthorB" }, 3.0f, "ISBNB", 300);
+    private static final BookEntry BOOK_C = new BookEntry("TitleC", new String[] { "AuthorC" }, 1.5f, "ISBNC", 100);
+
+    private ColumnarBookStore testStore;
+
+    @Before
+    public void setup() {
+        testStore = new ColumnarBookStore();
+        testStore.add(BOOK_A);
+        testStore.add(BOOK_B);
+        testStore.add(BOOK_C);
+    }
+
+    // ------------------------- check list behaviour --------------------
+
+    @Test
+    public void testGetEqualsAddedBooks() {
+        assertEquals("Unexpected book list.", List.of(BOOK_A, BOOK_B, BOOK_C), testStore);
+        assertArrayEquals("Unexpected authors.", BOOK_B.getAuthors(), testStore.getAuthors(1));
+    }
+
+    @Test
+    public void testSetAndRemoveKeepOrder() {
+        testStore.set(0, BOOK_C);
+        testStore.remove(2);
+        testStore.add(1, BOOK_A);
+
+        assertEquals("Unexpected book list.", List.of(BOOK_C, BOOK_A, BOOK_B), testStore);
+    }
+
+    @Test
+    public void testContains() {
+        assertTrue("Stored book not found.", testStore.contains(BOOK_B));
+        testStore.remove(BOOK_B);
+        assertFalse("Removed book still found.", testStore.contains(BOOK_B));
+        assertEquals("Unexpected number of books.", 2, testStore.size());
+    }
+
+    @Test
+    public void testManyReplacementsMatchArrayList() {
+        List<BookEntry> expected = new ArrayList<>(testStore);
+        BookEntry[] books = { BOOK_A, BOOK_B, BOOK_C };
+
+        for (int i = 0; i < 1000; i++) {
+            BookEntry book = books[i % books.length];
+            expected.set(i % expected.size(), book);
+            testStore.set(i % testStore.size(), book);
+            expected.add(book);
+            testStore.add(book);
+        }
+        expected.subList(10, 500).clear();
+        testStore.subList(10, 500).clear();
+
+        assertEquals("Unexpected book list.", expected, testStore);
+    }
+
+    // ------------------------- check titles view --------------------
+
+    @Test
+    public void testTitlesView() {
+        List<String> titles = testStore.getTitles();
+        assertEquals("Unexpected titles.", List.of("TitleA", "TitleB", "TitleC"), titles);
+
+        testStore.remove(0);
+        assertEquals("Titles view does not reflect removal.", List.of("TitleB", "TitleC"), titles);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTitlesViewUnmodifiable() {
+        testStore.getTitles().add("TitleD");
+    }
+
+    // ------------------------- check compact encoding --------------------
+
+    @Test
+    public void testIsbnsAreRestored() {
+        String[] isbns = { "0439785960", "9780439785969", "0000000000000000", "00000000000000001",
+                "043978596X", "", "-1", "ISBN 0-439-78596-0" };
+
+        testStore.clear();
+        for (String isbn : isbns) {
+            testStore.add(new BookEntry("Title", new String[] { "Author" }, 1.0f, isbn, 10));
+        }
+        testStore.remove(0);
+        testStore.add(0, new BookEntry("Title", new String[] { "Author" }, 1.0f, isbns[0], 10));
+
+        for (int i = 0; i < isbns.length; i++) {
+            assertEquals("Unexpected ISBN.", isbns[i], testStore.getISBN(i));
+            assertEquals("Unexpected ISBN of materialised book.", isbns[i], testStore.get(i).getISBN());
+        }
+    }
+
+    @Test
+    public void testTitlesAreRestored() {
+        BookEntry latin1 = new BookEntry("Les Mis\u00E9rables", new String[] { "Victor Hugo" }, 4.2f, "1", 1);
+        BookEntry unicode = new BookEntry("\u041F\u0440\u0435\u0441\u0442\u0443\u043F\u043B\u0435\u043D\u0438\u0435 \u2014 \uD83D\uDCDA",
+                new String[] { "\u0414\u043E\u0441\u0442\u043E\u0435\u0432\u0441\u043A\u0438\u0439" }, 4.3f, "2", 2);
+        BookEntry empty = new BookEntry("", new String[] { "Anonymous" }, 0.0f, "3", 3);
+        List<BookEntry> expected = new ArrayList<>(List.of(BOOK_A, latin1, unicode, empty));
+
+        testStore.clear();
+        testStore.addAll(expected);
+        for (int i = 0; i < 500; i++) {
+            BookEntry book = expected.get(i % expected.size());
+            testStore.set(i % testStore.size(), book);
+            expected.set(i % expected.size(), book);
+        }
+
+        assertEquals("Unexpected book list.", expected, testStore);
+        assertEquals("Unexpected title.", unicode.getTitle(), testStore.getTitle(2));
+    }
+}
@@ -35,7 +35,7 @@ public class GroupCmdBasicTest extends GroupCmdTest {
     public void testExecuteEmptyBookData() {
         testLibrary = new LibraryData();
         List<BookEntry> bookData = Collections.<BookEntry>emptyList();
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
 
         String expectedConsoleOutput = "The library has no book entries.";
         CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
@@ -77,4 +77,13 @@ public class GroupCmdBasicTest extends GroupCmdTest {
         List<String> expectedGroups = List.of("A Author", "B Author", "C Author", "D Author", "E Author", "F Author");
         checkGroupOutputOrder(executeStdOutLines, expectedGroups);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExecuteGroupByAuthorAfterRemove() {
+        testLibrary.removeByAuthor("B Author");
+        testCommand = new GroupCmd(AUTHOR_ARGUMENT);
+        String[] executeStdOutLines = CommandTestUtils.captureExecuteStdOutputLines(testCommand, testLibrary);
+        List<String> expectedGroups = List.of("A Author", "C Author", "D Author", "E Author", "F Author");
+        checkGroupOutputOrder(executeStdOutLines, expectedGroups);
+    }
+}
@@ -30,7 +30,7 @@ public abstract class GroupCmdTest extends CommandTest {
         bookData.add(new BookEntry("A Title 3", new String[] { "A Author" }, 1.3f, "ISBNA3", 300));
         bookData.add(new BookEntry("F Title", new String[] { "F Author" }, 1.3f, "ISBNF", 300));
         bookData.add(new BookEntry("E Title", new String[] { "E Author" }, 1.3f, "ISBNE", 300));
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
     }
 
     // ------------------------- test helpers ----------------------------
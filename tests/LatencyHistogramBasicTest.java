@@ -0,0 +1,51 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramBasicTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setup() {
+        histogram = new LatencyHistogram();
+    }
+
+    // ------------------------- percentile tests --------------------
+
+    @Test
+    public void testEmptyHistogram() {
+        assertEquals("Unexpected count.", 0, histogram.getCount());
+        assertEquals("Unexpected median.", 0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testSmallValuesExact() {
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals("Unexpected count.", 10, histogram.getCount());
+        assertEquals("Unexpected median.", 5, histogram.getValueAtPercentile(50));
+        assertEquals("Unexpected maximum.", 10, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testLargeValuesWithinRelativeError() {
+        for (long value = 1000; value <= 1_000_000; value += 1000) {
+            histogram.record(value);
+        }
+
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue("p99 too small: " + p99, p99 >= 990_000);
+        assertTrue("p99 too large: " + p99, p99 <= 990_000 + 990_000 / 32);
+        assertEquals("Unexpected maximum.", 1_000_000, histogram.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPercentile() {
+        histogram.getValueAtPercentile(101);
+    }
+}
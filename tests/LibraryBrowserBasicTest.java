@@ -0,0 +1,88 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LibraryBrowserBasicTest {
+
+    private static final String EMPTY_LIBRARY_MESSAGE = "The library has no book entries.";
+
+    private LibraryBrowser testBrowser;
+    private StdStreamIntercept testIntercept;
+    private Path commandFile;
+    private String commandOutput;
+    private String errorOutput;
+
+    @Before
+    public void setup() throws IOException {
+        testBrowser = new LibraryBrowser();
+        testIntercept = new StdStreamIntercept();
+        commandFile = Files.createTempFile("commands", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(commandFile);
+    }
+
+    // ------------------------- test helpers ----------------------------
+
+    private boolean runBatch(String commands) throws IOException {
+        Files.writeString(commandFile, commands);
+
+        testIntercept.stdCaptureStart();
+        try {
+            return testBrowser.runBatch(commandFile);
+        } finally {
+            commandOutput = testIntercept.getCapturedStdOut();
+            errorOutput = testIntercept.getCapturedStdErr();
+            testIntercept.stdCaptureStop();
+        }
+    }
+
+    // ------------------------- runBatch tests --------------------
+
+    @Test
+    public void testRunBatchExecutesCommands() throws IOException {
+        assertTrue("Command file not read successfully.", runBatch("ADD " + LibraryFileLoaderTest.TEST_DATA_PATH
+                + "\n\nREMOVE TITLE nonexistent\nREMOVE AUTHOR nobody\n"));
+
+        String[] outputLines = commandOutput.split("\\R");
+        assertEquals("Unexpected number of output lines.", 3, outputLines.length);
+        assertEquals("No prompt expected in batch mode.", -1, commandOutput.indexOf("> "));
+    }
+
+    @Test
+    public void testRunBatchStopsAtExit() throws IOException {
+        assertTrue("Command file not read successfully.", runBatch("LIST\nEXIT\nLIST\n"));
+
+        assertEquals("Unexpected output.", EMPTY_LIBRARY_MESSAGE + System.lineSeparator(), commandOutput);
+    }
+
+    @Test
+    public void testRunBatchInvalidCommand() throws IOException {
+        assertTrue("Command file not read successfully.", runBatch("NONSENSE\nLIST\n"));
+
+        assertTrue("Invalid command not reported.", errorOutput.contains("NONSENSE"));
+        assertEquals("Unexpected output.", EMPTY_LIBRARY_MESSAGE + System.lineSeparator(), commandOutput);
+    }
+
+    @Test
+    public void testRunBatchMissingFile() throws IOException {
+        Files.delete(commandFile);
+
+        testIntercept.stdCaptureStart();
+        try {
+            assertFalse("Missing command file not reported.", testBrowser.runBatch(commandFile));
+        } finally {
+            testIntercept.stdCaptureStop();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LibraryDataBasicTest {
+
+    private static final int BOOK_COUNT = 2000;
+    private static final int AUTHOR_COUNT = 20;
+
+    private LibraryData testLibrary;
+    private List<BookEntry> bookData;
+
+    /** Book of the list model, having a second author every fifth book. */
+    private static BookEntry modelBook(int i) {
+        String[] authors = (i % 5 == 0)
+                ? new String[] { "Writer" + (i % 7), "Coauthor" + (i % 3) }
+                : new String[] { "Writer" + (i % 7) };
+        return new BookEntry("Book" + i, authors, (i % 9) / 2.0f, "MODEL" + i, 10 + i % 300);
+    }
+
+    /** Write the given books to the given CSV file. */
+    private static void writeBooks(Path file, List<BookEntry> books) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("title,authors,average_rating,isbn,# num_pages");
+        for (BookEntry book : books) {
+            lines.add(book.getTitle() + "," + String.join("-", book.getAuthors()) + "," + book.getRating() + ","
+                    + book.getISBN() + "," + book.getPages());
+        }
+        Files.write(file, lines);
+    }
+
+    /** Load the given books into the library and add those not held yet to the model. */
+    private static void load(LibraryData library, List<BookEntry> model, List<BookEntry> loaded, Path file)
+            throws IOException {
+        OutputSink output = OutputSink.buffered(OutputStream.nullOutputStream(), OutputStream.nullOutputStream());
+        writeBooks(file, loaded);
+        assertTrue("Loading books is expected to succeed.", library.loadData(file, output));
+        for (BookEntry book : loaded) {
+            if (!model.contains(book)) {
+                model.add(book);
+            }
+        }
+    }
+
+    /** Check books, searches and author groups of the library against the list model. */
+    private static void assertMatchesModel(LibraryData library, List<BookEntry> model) {
+        assertEquals("Unexpected book data.", model, library.getBookData());
+        assertEquals("Unexpected book count.", model.size(), library.getBookCount());
+
+        String[] searchValues = { "Book1", "book2", "OK3", "7", "Missing" };
+        for (String searchValue : searchValues) {
+            List<BookEntry> expected = new ArrayList<>();
+            for (BookEntry book : model) {
+                if (book.getTitle().toLowerCase().contains(searchValue.toLowerCase())) {
+                    expected.add(book);
+                }
+            }
+            assertEquals("Unexpected search result for: " + searchValue, expected,
+                    library.searchByTitle(searchValue));
+        }
+
+        SortedMap<String, List<BookEntry>> expectedGroups = new TreeMap<>();
+        for (BookEntry book : model) {
+            for (String author : book.getAuthors()) {
+                if (!expectedGroups.containsKey(author)) {
+                    expectedGroups.put(author, new ArrayList<BookEntry>());
+                }
+                expectedGroups.get(author).add(book);
+            }
+        }
+        SortedMap<String, List<BookEntry>> groups = new TreeMap<>();
+        for (Map.Entry<String, Set<BookEntry>> group : library.getAuthorGroups().entrySet()) {
+            groups.put(group.getKey(), new ArrayList<>(group.getValue()));
+        }
+        assertEquals("Unexpected author groups.", expectedGroups, groups);
+    }
+
+    /**
+     * Apply loads merging segments, and removals across segments until
+     * segments are rebuilt, to a library of the given layout and to a list
+     * model, checking the library after every change.
+     */
+    private static void checkChangesMatchListModel(StorageLayout layout) throws IOException {
+        LibraryData library = new LibraryData(layout);
+        List<BookEntry> model = new ArrayList<>();
+        Path file = Files.createTempFile("books", ".csv");
+        int next = 0;
+
+        try {
+            // each load is merged with the preceding segment if it is at least half as large
+            int[] loadSizes = { 800, 400, 100, 60, 30, 20, 10 };
+            for (int loadSize : loadSizes) {
+                List<BookEntry> loaded = new ArrayList<>();
+                for (int i = 0; i < loadSize; i++) {
+                    loaded.add(modelBook(next++));
+                }
+                if (!model.isEmpty()) {
+                    loaded.add(model.get(model.size() / 2));    // duplicate of a held book
+                }
+                load(library, model, loaded, file);
+                assertMatchesModel(library, model);
+            }
+
+            for (int i = 0; i < next; i += 4) {
+                BookEntry book = modelBook(i);
+                assertTrue("Book is expected to be removed: " + book.getTitle(),
+                        library.removeByTitle(book.getTitle()));
+                model.remove(book);
+            }
+            assertFalse("Removed book is expected to be gone.", library.removeByTitle("Book0"));
+            assertMatchesModel(library, model);
+
+            String[] authors = { "Coauthor1", "Writer0", "Writer1", "Writer2", "Writer3", "Unknown" };
+            for (String author : authors) {
+                List<BookEntry> written = new ArrayList<>();
+                for (BookEntry book : model) {
+                    if (Arrays.asList(book.getAuthors()).contains(author)) {
+                        written.add(book);
+                    }
+                }
+                assertEquals("Unexpected number of books removed for: " + author, written.size(),
+                        library.removeByAuthor(author));
+                model.removeAll(written);
+                assertMatchesModel(library, model);
+            }
+
+            List<BookEntry> loaded = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                loaded.add(modelBook(i));      // removed books may be added again
+            }
+            load(library, model, loaded, file);
+            assertMatchesModel(library, model);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Before
+    public void setup() {
+        testLibrary = new LibraryData();
+        bookData = new ArrayList<>();
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            bookData.add(new BookEntry("Title" + i, new String[] { "Author" + (i % AUTHOR_COUNT) }, 3.0f, "ISBN" + i, 100));
+        }
+        testLibrary.restoreData(bookData);
+    }
+
+    // ------------------------- getBookData tests --------------------
+
+    @Test
+    public void testGetBookDataUnaffectedByChanges() {
+        List<BookEntry> books = testLibrary.getBookData();
+
+        testLibrary.removeByAuthor("Author0");
+
+        assertEquals("Returned books are expected to stay unchanged.", bookData, books);
+        assertEquals("Unexpected book count.", BOOK_COUNT - BOOK_COUNT / AUTHOR_COUNT, testLibrary.getBookCount());
+    }
+
+    @Test
+    public void testAuthorsAreShared() {
+        List<BookEntry> books = testLibrary.getBookData();
+
+        assertEquals("Restored books are expected to stay equal.", bookData, books);
+        assertSame("Books of the same author are expected to share the author name.", books.get(1).getAuthors()[0],
+                books.get(1 + AUTHOR_COUNT).getAuthors()[0]);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetBookDataUnmodifiable() {
+        testLibrary.getBookData().clear();
+    }
+
+    // ------------------------- getCurrentVersion tests --------------------
+
+    @Test
+    public void testCurrentVersionUnaffectedByChanges() {
+        LibraryVersion version = testLibrary.getCurrentVersion();
+        List<BookEntry> found = version.searchByTitle("Title1");
+
+        testLibrary.removeByAuthor("Author1");
+        testLibrary.removeByTitle("Title10");
+
+        assertEquals("Unexpected book count of earlier version.", BOOK_COUNT, version.getBookCount());
+        assertEquals("Unexpected search result of earlier version.", found, version.searchByTitle("Title1"));
+        assertEquals("Unexpected author groups of earlier version.", AUTHOR_COUNT, version.getAuthorGroups().size());
+        assertEquals("Unexpected number of changes.", version.getNumber() + 2,
+                testLibrary.getCurrentVersion().getNumber());
+    }
+
+    @Test
+    public void testAuthorGroupsKeptPerVersion() {
+        LibraryVersion version = testLibrary.getCurrentVersion();
+        assertSame("Author groups of an unchanged version are expected to be kept.",
+                version.getAuthorGroups(), version.getAuthorGroups());
+
+        testLibrary.removeByTitle("Title21");
+        List<BookEntry> expected = new ArrayList<>();
+        for (int i = 1; i < BOOK_COUNT; i += AUTHOR_COUNT) {
+            if (i != 21) {
+                expected.add(bookData.get(i));
+            }
+        }
+        assertEquals("Unexpected author group after a change.", expected,
+                new ArrayList<>(testLibrary.getAuthorGroups().get("Author1")));
+        assertEquals("Unexpected author group of earlier version.", BOOK_COUNT / AUTHOR_COUNT,
+                version.getAuthorGroups().get("Author1").size());
+    }
+
+    // ------------------------- list model tests --------------------
+
+    @Test
+    public void testObjectsLayoutMatchesListModel() throws IOException {
+        checkChangesMatchListModel(StorageLayout.OBJECTS);
+    }
+
+    @Test
+    public void testColumnarLayoutMatchesListModel() throws IOException {
+        checkChangesMatchListModel(StorageLayout.COLUMNAR);
+    }
+
+    // ------------------------- loadData tests --------------------
+
+    @Test
+    public void testFailedLoadCanBeRepeated() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("title,authors,average_rating,isbn,# num_pages");
+        for (int i = 0; i < 5000; i++) {
+            lines.add("Loaded" + i + ",Writer" + (i % AUTHOR_COUNT) + ",4.0,LOADED" + i + ",200");
+        }
+        Path valid = Files.createTempFile("books", ".csv");
+        Path invalid = Files.createTempFile("books", ".csv");
+        OutputSink output = OutputSink.buffered(OutputStream.nullOutputStream(), OutputStream.nullOutputStream());
+
+        try {
+            Files.write(valid, lines);
+            lines.add("Broken,Writer0,oops,BROKEN,200");
+            Files.write(invalid, lines);
+
+            try {
+                testLibrary.loadData(invalid, output);
+                fail("Loading an invalid rating is expected to throw.");
+            } catch (NumberFormatException e) {
+                // expected: the library is expected to stay unchanged
+            }
+            assertEquals("Failed load is expected to leave the library unchanged.", BOOK_COUNT,
+                    testLibrary.getBookCount());
+
+            assertTrue("Loading the valid books is expected to succeed.", testLibrary.loadData(valid, output));
+            assertEquals("Books of the failed load are expected not to be duplicates.", BOOK_COUNT + 5000,
+                    testLibrary.getBookCount());
+        } finally {
+            Files.delete(valid);
+            Files.delete(invalid);
+        }
+    }
+
+    // ------------------------- concurrency tests --------------------
+
+    @Test
+    public void testConcurrentQueriesAndChanges() throws InterruptedException {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 50; i++) {
+                        testLibrary.removeByAuthor("Author" + (i % AUTHOR_COUNT));
+                        testLibrary.removeByTitle("Title" + i);
+                        testLibrary.restoreData(bookData);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        testLibrary.searchByTitle("Title1");
+                        testLibrary.getTitles();
+                        testLibrary.getAuthorGroups();
+                        testLibrary.getBookCount();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertNull("Concurrent use is expected to succeed.", failure.get());
+        assertEquals("Unexpected book data.", bookData, testLibrary.getBookData());
+    }
+}
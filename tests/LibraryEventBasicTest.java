@@ -0,0 +1,101 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LibraryEventBasicTest {
+
+    private Path recordingFile;
+    private LibraryData testLibrary;
+    private CommandInterpreter interpreter;
+    private OutputSink output;
+
+    @Before
+    public void setup() throws IOException {
+        recordingFile = Files.createTempFile("library", ".jfr");
+        testLibrary = new LibraryData();
+        interpreter = new CommandInterpreter();
+        output = OutputSink.buffered(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(recordingFile);
+    }
+
+    private List<RecordedEvent> record(String... commands) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable("library.FileLoad").withoutThreshold();
+            recording.enable("library.Merge").withoutThreshold();
+            recording.enable("library.Command").withoutThreshold();
+            recording.start();
+
+            for (String command : commands) {
+                interpreter.executeCommand(interpreter.parseCommand(command), testLibrary, output);
+            }
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            if (event.getEventType().getName().startsWith("library.")) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("Event not recorded: " + name);
+    }
+
+    // ------------------------- event tests --------------------
+
+    @Test
+    public void testAddEvents() throws IOException {
+        List<RecordedEvent> events = record("ADD " + LibraryFileLoaderTest.TEST_DATA_PATH);
+
+        RecordedEvent fileLoad = findEvent(events, "library.FileLoad");
+        assertEquals("Unexpected path.", LibraryFileLoaderTest.TEST_DATA_PATH, fileLoad.getString("path"));
+        assertEquals("Unexpected number of lines.", 2, fileLoad.getLong("lines"));
+        assertEquals("Unexpected number of invalid rows.", 0, fileLoad.getLong("invalidRows"));
+
+        RecordedEvent merge = findEvent(events, "library.Merge");
+        assertEquals("Unexpected number of added books.", 2, merge.getLong("added"));
+        assertEquals("Unexpected number of duplicates.", 0, merge.getLong("duplicates"));
+
+        RecordedEvent command = findEvent(events, "library.Command");
+        assertEquals("Unexpected command type.", "ADD", command.getString("type"));
+        assertEquals("Unexpected arguments.", LibraryFileLoaderTest.TEST_DATA_PATH, command.getString("arguments"));
+        assertEquals("Unexpected result size.", 2, command.getLong("resultSize"));
+    }
+
+    @Test
+    public void testCommandEventResultSize() throws IOException {
+        testLibrary.loadData(Path.of(LibraryFileLoaderTest.TEST_DATA_PATH), output);
+        List<RecordedEvent> events = record("SEARCH Farm");
+
+        RecordedEvent command = findEvent(events, "library.Command");
+        assertEquals("Unexpected command type.", "SEARCH", command.getString("type"));
+        assertEquals("Only candidate titles are expected to be scanned.", 1, command.getLong("rowsScanned"));
+        assertEquals("Unexpected result size.", 1, command.getLong("resultSize"));
+    }
+}
@@ -1,7 +1,14 @@
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -25,6 +32,88 @@ public class LibraryFileLoaderBasicTest extends LibraryFileLoaderTest {
         checkBookCollectionResult(testBookData, expectedValues);
     }
 
+    // ------------------------- check streamFileContent --------------------
+
+    @Test
+    public void testStreamFileContentBatches() {
+        final List<Integer> batchSizes = new ArrayList<>();
+        final List<BookEntry> streamed = new ArrayList<>();
+
+        boolean success = testFileLoader.streamFileContent(Paths.get(TEST_DATA_PATH), 1, new BookBatchHandler() {
+            @Override
+            public void handleBatch(List<BookEntry> batch) {
+                batchSizes.add(batch.size());
+                streamed.addAll(batch);
+            }
+        });
+
+        assertTrue("Streaming existing book data file is expected to succeed.", success);
+        assertEquals("Each book is expected to be handed over in its own batch.", List.of(1, 1), batchSizes);
+        BookEntryTestUtils.checkBookFieldValues(streamed.get(0), BookEntryTest.BOOK_ENTRY_FIELD_NAMES,
+                BOOK_SAMPLE1_VALUES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamFileContentIllegalBatchSize() {
+        testFileLoader.streamFileContent(Paths.get(TEST_DATA_PATH), 0, new BookBatchHandler() {
+            @Override
+            public void handleBatch(List<BookEntry> batch) {
+                // nothing to do
+            }
+        });
+    }
+
+    @Test
+    public void testStreamFileContentGzipCompressed() throws IOException {
+        Path compressed = Files.createTempFile("books", ".csv.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                out.write(Files.readAllBytes(Paths.get(TEST_DATA_PATH)));
+            }
+            CollectingHandler uncompressed = new CollectingHandler();
+            CollectingHandler handler = new CollectingHandler();
+            testFileLoader.streamFileContent(Paths.get(TEST_DATA_PATH), 100, uncompressed);
+
+            assertTrue("Compressed file is expected to be recognised.", LibraryFileLoader.isGzipFile(compressed));
+            assertFalse("Uncompressed file is not expected to be recognised.",
+                    LibraryFileLoader.isGzipFile(Paths.get(TEST_DATA_PATH)));
+            assertTrue("Streaming compressed book data file is expected to succeed.",
+                    testFileLoader.streamFileContent(compressed, 100, handler));
+            assertEquals("Compressed file is expected to yield the same books.", uncompressed.books, handler.books);
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    @Test
+    public void testStreamFileContentTruncatedGzipFails() throws IOException {
+        Path compressed = Files.createTempFile("books", ".csv.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                out.write(Files.readAllBytes(Paths.get(TEST_DATA_PATH)));
+            }
+            byte[] content = Files.readAllBytes(compressed);
+            Files.write(compressed, Arrays.copyOf(content, content.length / 2));
+
+            testFileLoader = new LibraryFileLoader(OutputSink.buffered(OutputStream.nullOutputStream(),
+                    OutputStream.nullOutputStream()));
+            assertFalse("Streaming truncated compressed file is expected to fail.",
+                    testFileLoader.streamFileContent(compressed, 100, new CollectingHandler()));
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    private static final class CollectingHandler implements BookBatchHandler {
+
+        private final List<BookEntry> books = new ArrayList<>();
+
+        @Override
+        public void handleBatch(List<BookEntry> batch) {
+            books.addAll(batch);
+        }
+    }
+
     @Test
     public void testParseFileContentNoContentLoadedConsoleOutput() {
         testFileLoader = new LibraryFileLoader();
@@ -17,6 +17,8 @@ public abstract class LibraryFileLoaderTest {
     protected static final Object[] BOOK_SAMPLE2_VALUES = { "Chester", new String[] { "Syd Hoff" }, 3.75f, "64440958",
             64 };
 
+    protected static final String TEST_DATA_PATH = "booksTestData01.csv";
+
     protected static final String FILE_CONTENT_FIELD_NAME = "fileContent";
 
     protected LibraryFileLoader testFileLoader;
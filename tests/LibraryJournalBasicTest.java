@@ -0,0 +1,213 @@
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LibraryJournalBasicTest {
+
+    private Path journalDirectory;
+    private List<BookEntry> bookData;
+
+    @Before
+    public void setup() throws IOException {
+        journalDirectory = Files.createTempDirectory("journal");
+        bookData = new ArrayList<>();
+        bookData.add(new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500));
+        bookData.add(new BookEntry("TitleB", new String[] { "AuthorA", "AuthorB" }, 4.3f, "ISBNB", 400));
+        bookData.add(new BookEntry("TitleC", new String[] { "AuthorC" }, 1.5f, "ISBNC", 300));
+        bookData.add(new BookEntry("TitleD", new String[] { "AuthorD" }, 2.0f, "ISBND", 200));
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journalDirectory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(journalDirectory);
+    }
+
+    private LibraryData recover(JournalSyncPolicy syncPolicy) throws IOException {
+        LibraryData recovered = new LibraryData();
+        recovered.openJournal(journalDirectory, syncPolicy);
+        return recovered;
+    }
+
+    // ------------------------- recovery tests --------------------
+
+    @Test
+    public void testRecoverChanges() throws IOException {
+        LibraryData library = recover(JournalSyncPolicy.ALWAYS);
+        library.restoreData(bookData);
+        library.removeByTitle("TitleC");
+        library.removeByAuthor("AuthorA");
+        library.closeJournal();
+
+        LibraryData recovered = recover(JournalSyncPolicy.ALWAYS);
+        recovered.closeJournal();
+
+        assertEquals("Unexpected recovered book data.", library.getBookData(), recovered.getBookData());
+    }
+
+    @Test
+    public void testRecoverContinuedJournal() throws IOException {
+        LibraryData library = recover(JournalSyncPolicy.NEVER);
+        library.restoreData(bookData);
+        library.closeJournal();
+
+        library = recover(JournalSyncPolicy.NEVER);
+        library.removeByTitle("TitleA");
+        library.closeJournal();
+
+        LibraryData recovered = recover(JournalSyncPolicy.NEVER);
+        recovered.closeJournal();
+
+        assertEquals("Unexpected recovered book data.", bookData.subList(1, bookData.size()), recovered.getBookData());
+    }
+
+    @Test
+    public void testRecoverIgnoresTornRecord() throws IOException {
+        LibraryData library = recover(JournalSyncPolicy.INTERVAL);
+        library.restoreData(bookData);
+        library.closeJournal();
+
+        Path journalFile = journalDirectory.resolve("journal-1.log");
+        long journalSize = Files.size(journalFile);
+        Files.write(journalFile, new byte[] { 0, 0, 0, 42, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        LibraryData recovered = recover(JournalSyncPolicy.INTERVAL);
+        recovered.closeJournal();
+
+        assertEquals("Unexpected recovered book data.", bookData, recovered.getBookData());
+        assertEquals("Torn record is expected to be cut off.", journalSize, Files.size(journalFile));
+    }
+
+    // ------------------------- failure tests --------------------
+
+    private LibraryData recoverOnFullDevice(JournalSyncPolicy syncPolicy) throws IOException {
+        Path fullDevice = Path.of("/dev/full");
+        Assume.assumeTrue("Device without free space is not available.", Files.isWritable(fullDevice));
+        Files.createSymbolicLink(journalDirectory.resolve("journal-1.log"), fullDevice);
+        return recover(syncPolicy);
+    }
+
+    @Test
+    public void testFailedJournalReportsChanges() throws IOException {
+        LibraryData library = recoverOnFullDevice(JournalSyncPolicy.ALWAYS);
+        try {
+            try {
+                library.restoreData(bookData);
+                fail("Restoring is expected to be reported as not journaled.");
+            } catch (UncheckedIOException e) {
+                assertTrue("Unexpected message: " + e.getMessage(), e.getMessage().startsWith("4 books restored, but not journaled"));
+            }
+            assertEquals("Restored books are expected to be held nonetheless.", bookData, library.getBookData());
+
+            try {
+                library.removeByTitle("TitleC");
+                fail("Removing is expected to be reported as not journaled.");
+            } catch (UncheckedIOException e) {
+                assertTrue("Unexpected message: " + e.getMessage(), e.getMessage().startsWith("Book not removed"));
+            }
+            assertEquals("Library is expected to be unchanged.", bookData, library.getBookData());
+        } finally {
+            library.closeJournal();
+        }
+    }
+
+    @Test
+    public void testFailedJournalKeepsDuplicateIndex() throws IOException {
+        Path bookFile = journalDirectory.resolve("books.csv");
+        Files.writeString(bookFile, "title,authors,average_rating,isbn,# num_pages\nTitleC,AuthorC,1.5,ISBNC,300\nTitleE,AuthorE,2.5,ISBNE,100\n");
+        LibraryData library = recoverOnFullDevice(JournalSyncPolicy.ALWAYS);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink output = OutputSink.buffered(bytes, bytes);
+        try {
+            try {
+                library.restoreData(bookData);
+            } catch (UncheckedIOException e) {
+                // expected, journal cannot be written
+            }
+            try {
+                library.removeByAuthor("AuthorC");
+            } catch (UncheckedIOException e) {
+                // expected, journal cannot be written
+            }
+
+            assertFalse("Loading is expected to fail.", library.loadData(bookFile, output));
+        } finally {
+            library.closeJournal();
+        }
+        output.flush();
+
+        String printed = bytes.toString();
+        assertTrue("Book not removed is expected to be a duplicate: " + printed,
+                printed.contains("Duplicate entry found for book"));
+        assertTrue("Loading is expected to be reported as not journaled: " + printed,
+                printed.contains("ERROR: Book entries not added as the change was not journaled"));
+    }
+
+    // ------------------------- checkpoint tests --------------------
+
+    @Test
+    public void testCheckpointReplacesOlderJournal() throws IOException {
+        LibraryData library = recover(JournalSyncPolicy.ALWAYS);
+        library.restoreData(bookData);
+        library.closeJournal();
+
+        RecordingHandler handler = new RecordingHandler();
+        LibraryJournal journal = LibraryJournal.open(journalDirectory, JournalSyncPolicy.ALWAYS, handler);
+        journal.checkpoint(bookData);
+        journal.awaitDurable(journal.appendTitleRemoved("TitleB"));
+        journal.close();
+
+        assertTrue("Checkpoint is expected to be written.", Files.exists(journalDirectory.resolve("checkpoint-1.snapshot")));
+        assertTrue("Older journal is expected to be deleted.", Files.notExists(journalDirectory.resolve("journal-1.log")));
+
+        handler = new RecordingHandler();
+        LibraryJournal.open(journalDirectory, JournalSyncPolicy.ALWAYS, handler).close();
+
+        assertEquals("Unexpected replayed changes.", "restored 4, removed title TitleB", String.join(", ", handler.changes));
+    }
+
+    private static class RecordingHandler implements LibraryChangeHandler {
+
+        private final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void booksAdded(List<BookEntry> added) {
+            changes.add("added " + added.size());
+        }
+
+        @Override
+        public void titleRemoved(String title) {
+            changes.add("removed title " + title);
+        }
+
+        @Override
+        public void authorRemoved(String author) {
+            changes.add("removed author " + author);
+        }
+
+        @Override
+        public void booksRestored(List<BookEntry> restored) {
+            changes.add("restored " + restored.size());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LibraryServerBasicTest {
+
+    private LibraryData testLibrary;
+    private LibraryServer testServer;
+    private Thread serverThread;
+
+    @Before
+    public void setup() throws IOException {
+        testLibrary = new LibraryData();
+        testServer = new LibraryServer(testLibrary, 0);
+        serverThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    testServer.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testServer.close();
+        serverThread.join();
+    }
+
+    // ------------------------- test helpers ----------------------------
+
+    private static final class Client implements AutoCloseable {
+
+        private final Socket socket;
+        private final PrintWriter writer;
+        private final BufferedReader reader;
+
+        private Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            writer = new PrintWriter(socket.getOutputStream(), true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        }
+
+        private List<String> send(String command) throws IOException {
+            writer.println(command);
+
+            List<String> response = new ArrayList<>();
+            String line;
+            while (!(line = reader.readLine()).equals(LibraryServer.END_OF_RESPONSE)) {
+                response.add(line);
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // ------------------------- serve tests --------------------
+
+    @Test
+    public void testClientsShareLibrary() throws IOException {
+        try (Client firstClient = new Client(testServer.getPort());
+             Client secondClient = new Client(testServer.getPort())) {
+            assertEquals("Unexpected ADD response.", List.of("2 new book entries added."),
+                    firstClient.send("ADD " + LibraryFileLoaderTest.TEST_DATA_PATH));
+
+            assertEquals("Unexpected LIST response.", List.of("2 books in library:", "The Changeling", "Animal Farm"),
+                    secondClient.send("LIST"));
+        }
+        assertEquals("Unexpected library size.", 2, testLibrary.getBookData().size());
+    }
+
+    @Test
+    public void testInvalidCommand() throws IOException {
+        try (Client client = new Client(testServer.getPort())) {
+            assertEquals("Unexpected response.", List.of("ERROR: Given command input is invalid: NONSENSE"),
+                    client.send("NONSENSE"));
+        }
+    }
+
+    @Test
+    public void testExitClosesConnection() throws IOException {
+        try (Client client = new Client(testServer.getPort())) {
+            assertEquals("Unexpected response.", List.of(), client.send("EXIT"));
+            assertNull("Connection expected to be closed.", client.reader.readLine());
+        }
+    }
+
+    @Test
+    public void testFailingCommandKeepsConnection() throws IOException {
+        Path invalid = Files.createTempFile("books", ".csv");
+        try (Client client = new Client(testServer.getPort())) {
+            Files.write(invalid, List.of("title,authors,average_rating,isbn,# num_pages", "Broken,Writer,oops,1,200"));
+
+            List<String> response = client.send("ADD " + invalid);
+            assertEquals("Unexpected number of response lines.", 1, response.size());
+            assertTrue("Failure is expected to be reported.", response.get(0).startsWith("ERROR: "));
+
+            assertEquals("Connection is expected to stay usable.", List.of("The library has no book entries."),
+                    client.send("LIST"));
+        } finally {
+            Files.delete(invalid);
+        }
+    }
+}
@@ -22,6 +22,6 @@ public abstract class ListCmdTest extends CommandTest {
         bookData.add(new BookEntry("TitleA", new String[]{"AuthorA"}, 3.2f, "ISBNA", 500));
         bookData.add(new BookEntry("TitleB", new String[]{"AuthorB"}, 4.3f, "ISBNB", 400));
         bookData.add(new BookEntry("TitleC", new String[]{"AuthorC"}, 1.3f, "ISBNC", 300));
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
     }
 }
\ No newline at end of file
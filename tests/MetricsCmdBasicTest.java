@@ -0,0 +1,118 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsCmdBasicTest extends CommandTest {
+
+    private static final String TEXT_ARGUMENT = "text";
+    private static final String JSON_ARGUMENT = "json";
+
+    @Override
+    protected CommandType getCmdType() {
+        return CommandType.METRICS;
+    }
+
+    @Before
+    public void setup() {
+        testCommand = new MetricsCmd(BLANK_ARGUMENT);
+        testLibrary = new LibraryData();
+    }
+
+    // ------------------------- parseArguments tests --------------------
+
+    @Test
+    public void testParseArgumentsIllegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, false, "nonsense");
+        CommandTestUtils.checkArgumentInput(testCommand, false, "JSON");
+    }
+
+    @Test
+    public void testParseArgumentsLegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, true, TEXT_ARGUMENT);
+        CommandTestUtils.checkArgumentInput(testCommand, true, JSON_ARGUMENT);
+        CommandTestUtils.checkArgumentInput(testCommand, true, BLANK_ARGUMENT);
+    }
+
+    // ------------------------- execute tests --------------------
+
+    @Test
+    public void testExecuteNoCommandsExecuted() {
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, "No commands have been executed yet.");
+    }
+
+    @Test
+    public void testExecuteJsonRowCounts() {
+        testLibrary.getCommandMetrics().record(CommandType.LIST, 2000, 3, 3);
+        testLibrary.getCommandMetrics().record(CommandType.LIST, 4000, 5, 5);
+        testCommand = new MetricsCmd(JSON_ARGUMENT);
+
+        String expectedListMetrics = "{\"type\":\"LIST\",\"count\":2,";
+        String expectedListRows = "\"max\":4000,\"total\":6000},\"rowsScanned\":8,\"rowsEmitted\":8}";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink output = OutputSink.buffered(bytes, bytes);
+        testCommand.execute(testLibrary, output);
+        output.flush();
+        String json = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+
+        assertTrue("Unexpected LIST metrics: " + json, json.contains(expectedListMetrics));
+        assertTrue("Unexpected LIST rows: " + json, json.contains(expectedListRows));
+    }
+
+    @Test
+    public void testExecutedCommandsRecorded() {
+        testLibrary.restoreData(Collections.singletonList(
+                new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500)));
+        CommandInterpreter interpreter = new CommandInterpreter();
+        OutputSink output = OutputSink.buffered(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        interpreter.executeCommand(interpreter.parseCommand("LIST"), testLibrary, output);
+        interpreter.executeCommand(interpreter.parseCommand("SEARCH Title"), testLibrary, output);
+
+        CommandMetrics metrics = testLibrary.getCommandMetrics();
+        assertEquals("Unexpected LIST count.", 1, metrics.getStats(CommandType.LIST).getExecutions());
+        assertEquals("Unexpected LIST rows emitted.", 1, metrics.getStats(CommandType.LIST).getRowsEmitted());
+        assertEquals("Unexpected SEARCH rows scanned.", 1, metrics.getStats(CommandType.SEARCH).getRowsScanned());
+        assertEquals("Unexpected GROUP count.", 0, metrics.getStats(CommandType.GROUP).getExecutions());
+    }
+
+    @Test
+    public void testSearchRecordsCheckedCandidates() {
+        testLibrary.restoreData(Arrays.asList(
+                new BookEntry("Gardens", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500),
+                new BookEntry("Garden and Den", new String[] { "AuthorB" }, 3.2f, "ISBNB", 500),
+                new BookEntry("Other", new String[] { "AuthorC" }, 3.2f, "ISBNC", 500),
+                new BookEntry("Another", new String[] { "AuthorD" }, 3.2f, "ISBND", 500)));
+        CommandInterpreter interpreter = new CommandInterpreter();
+        OutputSink output = OutputSink.buffered(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        interpreter.executeCommand(interpreter.parseCommand("SEARCH garden"), testLibrary, output);
+
+        CommandMetrics metrics = testLibrary.getCommandMetrics();
+        assertEquals("Unexpected SEARCH rows scanned.", 2, metrics.getStats(CommandType.SEARCH).getRowsScanned());
+        assertEquals("Unexpected SEARCH rows emitted.", 2, metrics.getStats(CommandType.SEARCH).getRowsEmitted());
+    }
+
+    @Test
+    public void testSearchRecordsCandidatesNotMatching() {
+        testLibrary.restoreData(Arrays.asList(
+                new BookEntry("Gardens", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500),
+                new BookEntry("Garden Dens", new String[] { "AuthorB" }, 3.2f, "ISBNB", 500),
+                new BookEntry("Other", new String[] { "AuthorC" }, 3.2f, "ISBNC", 500)));
+        CommandInterpreter interpreter = new CommandInterpreter();
+        OutputSink output = OutputSink.buffered(new ByteArrayOutputStream(), new ByteArrayOutputStream());
+
+        interpreter.executeCommand(interpreter.parseCommand("SEARCH gardens"), testLibrary, output);
+
+        CommandMetrics metrics = testLibrary.getCommandMetrics();
+        assertEquals("Candidates containing all trigrams are expected to be scanned.",
+                2, metrics.getStats(CommandType.SEARCH).getRowsScanned());
+        assertEquals("Unexpected SEARCH rows emitted.", 1, metrics.getStats(CommandType.SEARCH).getRowsEmitted());
+    }
+}
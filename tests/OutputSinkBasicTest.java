@@ -0,0 +1,74 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class OutputSinkBasicTest {
+
+    // ------------------------- check buffered --------------------
+
+    @Test
+    public void testBufferedOutputAppearsAfterFlush() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        OutputSink testSink = OutputSink.buffered(out, err);
+
+        testSink.print("a");
+        testSink.printf("%d", 1);
+        testSink.error("failure");
+        assertEquals("No output expected before flushing.", 0, out.size());
+        assertEquals("No error output expected before flushing.", 0, err.size());
+
+        testSink.flush();
+        assertEquals("Unexpected output.", "a1", out.toString());
+        assertEquals("Unexpected error output.", "failure" + System.lineSeparator(), err.toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBufferedNullStream() {
+        OutputSink.buffered(null, new ByteArrayOutputStream());
+    }
+
+    // ------------------------- check interactive --------------------
+
+    @Test
+    public void testInteractiveKeepsOrderOfErrors() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink testSink = OutputSink.interactive(bytes, bytes);
+
+        testSink.print("a");
+        testSink.error("failure");
+        assertEquals("Output before an error is expected to appear with it.",
+                "afailure" + System.lineSeparator(), bytes.toString());
+
+        testSink.println("b");
+        testSink.flush();
+        assertEquals("Unexpected output.",
+                "afailure" + System.lineSeparator() + "b" + System.lineSeparator(), bytes.toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInteractiveNullStream() {
+        OutputSink.interactive(new ByteArrayOutputStream(), null);
+    }
+
+    // ------------------------- check standard --------------------
+
+    @Test
+    public void testStandardFollowsCurrentStreams() {
+        OutputSink testSink = OutputSink.standard();
+        StdStreamIntercept testIntercept = new StdStreamIntercept();
+
+        testIntercept.stdCaptureStart();
+        try {
+            testSink.println("text");
+            testSink.error("failure");
+            assertEquals("Unexpected output.", "text" + System.lineSeparator(), testIntercept.getCapturedStdOut());
+            assertEquals("Unexpected error output.", "failure" + System.lineSeparator(),
+                    testIntercept.getCapturedStdErr());
+        } finally {
+            testIntercept.stdCaptureStop();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelFileLoaderBasicTest {
+
+    private static final String TEST_DATA_PATH = "booksTestData01.csv";
+    private static final String LARGE_TEST_DATA_PATH = "books03.csv";
+
+    private ParallelFileLoader testFileLoader;
+
+    @Before
+    public void setup() {
+        testFileLoader = new ParallelFileLoader();
+    }
+
+    // -------------------------- test helper -------------------------------------
+
+    private static final class CollectingHandler implements BookBatchHandler {
+
+        private final List<BookEntry> books = new ArrayList<>();
+
+        @Override
+        public void handleBatch(List<BookEntry> batch) {
+            books.addAll(batch);
+        }
+    }
+
+    // ------------------------- check streamFileContent --------------------
+
+    @Test
+    public void testStreamFileContentResult() {
+        CollectingHandler handler = new CollectingHandler();
+        assertTrue("Loading existing book data file is expected to succeed.",
+                testFileLoader.streamFileContent(Paths.get(TEST_DATA_PATH), handler));
+
+        List<Object[]> expectedValues = new ArrayList<>();
+        expectedValues.add(LibraryFileLoaderTest.BOOK_SAMPLE1_VALUES);
+        expectedValues.add(new Object[] { "Animal Farm", new String[] { "George Orwell" }, 3.91f, "452284244", 122 });
+
+        assertEquals("Resulting book data has unexpected size.", expectedValues.size(), handler.books.size());
+        for (int i = 0; i < expectedValues.size(); i++) {
+            BookEntryTestUtils.checkBookFieldValues(handler.books.get(i), BookEntryTest.BOOK_ENTRY_FIELD_NAMES,
+                    expectedValues.get(i));
+        }
+    }
+
+    @Test
+    public void testStreamFileContentSameAsSequential() {
+        Path path = Paths.get(LARGE_TEST_DATA_PATH);
+        CollectingHandler parallel = new CollectingHandler();
+        CollectingHandler sequential = new CollectingHandler();
+
+        testFileLoader.streamFileContent(path, parallel);
+        new LibraryFileLoader().streamFileContent(path, 100, sequential);
+
+        assertEquals("Parallel loading is expected to yield the same books in the same order.", sequential.books,
+                parallel.books);
+    }
+
+    @Test
+    public void testStreamFileContentGzipCompressedSameAsSequential() throws IOException {
+        Path compressed = Files.createTempFile("books", ".csv.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                out.write(Files.readAllBytes(Paths.get(LARGE_TEST_DATA_PATH)));
+            }
+            CollectingHandler parallel = new CollectingHandler();
+            CollectingHandler sequential = new CollectingHandler();
+
+            assertTrue("Loading compressed book data file is expected to succeed.",
+                    testFileLoader.streamFileContent(compressed, parallel));
+            new LibraryFileLoader().streamFileContent(Paths.get(LARGE_TEST_DATA_PATH), 100, sequential);
+
+            assertEquals("Compressed file is expected to yield the same books in the same order.", sequential.books,
+                    parallel.books);
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    @Test
+    public void testStreamFileContentMissingFile() {
+        CollectingHandler handler = new CollectingHandler();
+        assertFalse("Loading a missing file is expected to fail.",
+                testFileLoader.streamFileContent(Paths.get("this/file/does/not/exist.csv"), handler));
+        assertTrue("No books are expected for a missing file.", handler.books.isEmpty());
+    }
+
+    @Test
+    public void testStreamFileContentWithoutTrailingLineBreak() throws IOException {
+        Path unterminated = Files.createTempFile("books", ".csv");
+        try {
+            String content = new String(Files.readAllBytes(Paths.get(LARGE_TEST_DATA_PATH)), StandardCharsets.UTF_8).stripTrailing();
+            Files.write(unterminated, content.getBytes(StandardCharsets.UTF_8));
+            CollectingHandler parallel = new CollectingHandler();
+            CollectingHandler sequential = new CollectingHandler();
+
+            assertTrue("Loading a file without trailing line break is expected to succeed.",
+                    testFileLoader.streamFileContent(unterminated, parallel));
+            new LibraryFileLoader().streamFileContent(Paths.get(LARGE_TEST_DATA_PATH), 100, sequential);
+
+            assertEquals("Last line is expected to be loaded without trailing line break.", sequential.books,
+                    parallel.books);
+        } finally {
+            Files.delete(unterminated);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testStreamFileContentReaderFailure() {
+        ForkJoinPool rejectingPool = new ForkJoinPool(1);
+        rejectingPool.shutdown();
+        CollectingHandler handler = new CollectingHandler();
+
+        try {
+            new ParallelFileLoader(rejectingPool).streamFileContent(Paths.get(LARGE_TEST_DATA_PATH), handler);
+            fail("A failure of the reader thread is expected to be passed on.");
+        } catch (RejectedExecutionException e) {
+            // expected: loading ends instead of waiting for the reader forever
+        }
+        assertTrue("No books are expected if the reader fails.", handler.books.isEmpty());
+    }
+}
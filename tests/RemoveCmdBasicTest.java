@@ -4,6 +4,8 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+
 public class RemoveCmdBasicTest extends RemoveCmdTest {
 
     @Before
@@ -15,7 +17,7 @@ public class RemoveCmdBasicTest extends RemoveCmdTest {
         bookData.add(new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500));
         bookData.add(new BookEntry(TITLE_VALUE_ARGUMENT, new String[] { AUTHOR_VALUE_ARGUMENT }, 4.3f, "ISBNB", 400));
         bookData.add(new BookEntry("TitleC", new String[] { "AuthorC" }, 1.3f, "ISBNC", 300));
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
     }
 
     // ------------------------- parseArguments tests --------------------
@@ -69,6 +71,27 @@ public class RemoveCmdBasicTest extends RemoveCmdTest {
         CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
     }
 
+    @Test
+    public void testExecuteRemoveAuthorSpreadBooks() {
+        List<BookEntry> bookData = new ArrayList<>();
+        bookData.add(new BookEntry("TitleA", new String[] { AUTHOR_VALUE_ARGUMENT }, 3.2f, "ISBNA", 500));
+        bookData.add(new BookEntry("TitleB", new String[] { "AuthorA" }, 4.3f, "ISBNB", 400));
+        bookData.add(new BookEntry("TitleC", new String[] { "AuthorC", AUTHOR_VALUE_ARGUMENT }, 1.3f, "ISBNC", 300));
+        bookData.add(new BookEntry("TitleD", new String[] { "AuthorD" }, 2.1f, "ISBND", 200));
+        bookData.add(new BookEntry("TitleE", new String[] { "AuthorE" }, 2.2f, "ISBNE", 100));
+        bookData.add(new BookEntry("TitleF", new String[] { AUTHOR_VALUE_ARGUMENT }, 3.3f, "ISBNF", 600));
+        bookData.add(new BookEntry("TitleG", new String[] { "AuthorG" }, 4.4f, "ISBNG", 700));
+        testLibrary.restoreData(bookData);
+        testCommand = new RemoveCmd(AUTHOR_ARGUMENT + " " + AUTHOR_VALUE_ARGUMENT);
+
+        int removedAuthors = 3;
+        String expectedConsoleOutput = String.format(AUTHOR_REMOVE_MESSAGE, removedAuthors, AUTHOR_VALUE_ARGUMENT);
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
+
+        List<BookEntry> expectedBooks = List.of(bookData.get(1), bookData.get(3), bookData.get(4), bookData.get(6));
+        assertEquals("Remaining books are expected to keep their order.", expectedBooks, testLibrary.getBookData());
+    }
+
     @Test
     public void testExecuteNotFound() {
         checkEntryNotFound();
@@ -0,0 +1,83 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RestoreCmdBasicTest extends CommandTest {
+
+    private Path snapshotFile;
+    private List<BookEntry> snapshotData;
+
+    @Override
+    protected CommandType getCmdType() {
+        return CommandType.RESTORE;
+    }
+
+    @Before
+    public void setup() throws IOException {
+        snapshotData = new ArrayList<>();
+        snapshotData.add(new BookEntry("TitleB", new String[] { "AuthorA", "AuthorB" }, 4.3f, "ISBNB", 400));
+        snapshotData.add(new BookEntry("TitleC", new String[] { "AuthorB" }, 1.3f, "ISBNC", 300));
+        snapshotFile = Files.createTempFile("library", ".snapshot");
+        LibrarySnapshot.write(snapshotFile, snapshotData);
+
+        testCommand = new RestoreCmd(snapshotFile.toString());
+
+        testLibrary = new LibraryData();
+        List<BookEntry> bookData = new ArrayList<>();
+        bookData.add(new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500));
+        testLibrary.restoreData(bookData);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    // ------------------------- parseArguments tests --------------------
+
+    @Test
+    public void testParseArgumentsIllegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, false, BLANK_ARGUMENT);
+        CommandTestUtils.checkArgumentInput(testCommand, false, "books.csv");
+        CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/not/a/snapshot.txt");
+    }
+
+    @Test
+    public void testParseArgumentsLegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, true, "library.snapshot");
+        CommandTestUtils.checkArgumentInput(testCommand, true, "this/is/some/test/path/for/library.snapshot");
+    }
+
+    // ------------------------- execute tests --------------------
+
+    @Test
+    public void testExecuteConsoleOutput() {
+        String expectedConsoleOutput = "2 book entries restored.";
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
+    }
+
+    @Test
+    public void testExecuteReplacesLibrary() {
+        testCommand.execute(testLibrary);
+
+        assertEquals("Library is expected to contain exactly the books of the snapshot.", snapshotData,
+                testLibrary.getBookData());
+    }
+
+    @Test
+    public void testExecuteMissingSnapshotKeepsLibrary() {
+        List<BookEntry> expected = new ArrayList<>(testLibrary.getBookData());
+        testCommand = new RestoreCmd("this/file/does/not/exist.snapshot");
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, "");
+
+        assertEquals("Library is expected to stay unchanged.", expected, testLibrary.getBookData());
+    }
+}
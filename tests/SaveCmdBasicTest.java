@@ -0,0 +1,71 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SaveCmdBasicTest extends CommandTest {
+
+    private Path snapshotFile;
+
+    @Override
+    protected CommandType getCmdType() {
+        return CommandType.SAVE;
+    }
+
+    @Before
+    public void setup() throws IOException {
+        snapshotFile = Files.createTempFile("library", ".snapshot");
+        testCommand = new SaveCmd(snapshotFile.toString());
+
+        testLibrary = new LibraryData();
+        List<BookEntry> bookData = new ArrayList<>();
+        bookData.add(new BookEntry("TitleA", new String[] { "AuthorA" }, 3.2f, "ISBNA", 500));
+        bookData.add(new BookEntry("TitleB", new String[] { "AuthorA", "AuthorB" }, 4.3f, "ISBNB", 400));
+        testLibrary.restoreData(bookData);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    // ------------------------- parseArguments tests --------------------
+
+    @Test
+    public void testParseArgumentsIllegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, false, BLANK_ARGUMENT);
+        CommandTestUtils.checkArgumentInput(testCommand, false, "books.csv");
+        CommandTestUtils.checkArgumentInput(testCommand, false, "this/is/not/a/snapshot.txt");
+    }
+
+    @Test
+    public void testParseArgumentsLegalArgument() {
+        CommandTestUtils.checkArgumentInput(testCommand, true, "library.snapshot");
+        CommandTestUtils.checkArgumentInput(testCommand, true, "this/is/some/test/path/for/library.snapshot");
+    }
+
+    // ------------------------- execute tests --------------------
+
+    @Test
+    public void testExecuteConsoleOutput() {
+        String expectedConsoleOutput = "2 book entries saved to: " + snapshotFile;
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
+    }
+
+    @Test
+    public void testExecuteWritesSnapshot() throws IOException {
+        testCommand.execute(testLibrary);
+
+        assertTrue("Snapshot file is expected to contain data.", Files.size(snapshotFile) > 0);
+        assertEquals("Snapshot is expected to contain all books of the library.", testLibrary.getBookData(),
+                LibrarySnapshot.read(snapshotFile));
+    }
+}
@@ -43,4 +43,22 @@ public class SearchCmdBasicTest extends SearchCmdTest {
         testCommand = new SearchCmd(searchTerm);
         CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
     }
+
+    @Test
+    public void testExecuteFindIgnoringCase() {
+        String[] expectedConsoleOutput = { MULTI_WORD_TITLE_A, MULTI_WORD_TITLE_B };
+        testCommand = new SearchCmd("cASTLE");
+        CommandTestUtils.checkExecuteConsoleOutputLines(expectedConsoleOutput, testCommand, testLibrary);
+
+        testCommand = new SearchCmd("sk");
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, MULTI_WORD_TITLE_A);
+    }
+
+    @Test
+    public void testExecuteFindNoMatchAfterRemove() {
+        testLibrary.removeByTitle(SINGLE_WORD_TITLE);
+
+        String expectedConsoleOutput = NO_HITS_FOUND_MESSAGE + SINGLE_WORD_TITLE;
+        CommandTestUtils.checkExecuteConsoleOutput(testCommand, testLibrary, expectedConsoleOutput);
+    }
 }
@@ -27,6 +27,6 @@ public abstract class SearchCmdTest extends CommandTest {
         bookData.add(new BookEntry(MULTI_WORD_TITLE_A, new String[]{"AuthorA"}, 3.2f, "ISBNA", 500));
         bookData.add(new BookEntry(SINGLE_WORD_TITLE, new String[]{"AuthorB"}, 4.3f, "ISBNB", 400));
         bookData.add(new BookEntry(MULTI_WORD_TITLE_B, new String[]{"AuthorC"}, 1.3f, "ISBNC", 300));
-        FieldTestUtils.setPrivateField(testLibrary, testLibrary.getClass(), "books", bookData);
+        testLibrary.restoreData(bookData);
     }
 }
\ No newline at end of file